@@ -1 +1 @@
-mvn -e exec:java -Dexec.mainClass="cz.cuni.mff.peckam.ais.gui.AISFrame" -Dexec.classpathScope=runtime
+mvn -e exec:java -Dexec.mainClass="cz.cuni.mff.peckam.ais.gui.AISFrame" -Dexec.classpathScope=runtime
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais;
+
+/**
+ * Data-parallel kernels working on flat float arrays.
+ * <p>
+ * The 2D data of products are stored in the flat arrays column by column, so the value at <code>[x][y]</code> is at
+ * index <code>x * height + y</code>. The loops are kept as simple counted loops over a single flat array, which is the
+ * form the JIT compiler is able to turn into SIMD instructions; the same loops over <code>float[][]</code> or
+ * <code>Float[][]</code> are not vectorized because of the per-column bounds checks and unboxing.
+ * <p>
+ * The reductions sum the values in the same order as the nested loops over <code>[x][y]</code> did, so they return
+ * exactly the same results.
+ * 
+ * @author Martin Pecka
+ */
+public final class FloatKernels
+{
+    /** Natural logarithm of 10. */
+    private static final double LN_10 = Math.log(10);
+
+    /**
+     * No instances.
+     */
+    private FloatKernels()
+    {
+    }
+
+    /**
+     * Copy the given 2D data to a flat array.
+     * 
+     * @param data The data.
+     * @return The flat copy of the data.
+     */
+    public static float[] flatten(Float[][] data)
+    {
+        final int w = data.length, h = data[0].length;
+        final float[] result = new float[w * h];
+        for (int x = 0; x < w; x++) {
+            final Float[] column = data[x];
+            final int offset = x * h;
+            for (int y = 0; y < h; y++) {
+                result[offset + y] = column[y];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Copy the given flat data to a 2D array.
+     * 
+     * @param data The flat data.
+     * @param width Width of the data.
+     * @param height Height of the data.
+     * @return The 2D copy of the data.
+     */
+    public static float[][] unflatten(float[] data, int width, int height)
+    {
+        final float[][] result = new float[width][];
+        for (int x = 0; x < width; x++) {
+            result[x] = new float[height];
+            System.arraycopy(data, x * height, result[x], 0, height);
+        }
+        return result;
+    }
+
+    /**
+     * Copy the given flat data to a 2D array of boxed values.
+     * 
+     * @param data The flat data.
+     * @param width Width of the data.
+     * @param height Height of the data.
+     * @return The 2D copy of the data.
+     */
+    public static Float[][] box(float[] data, int width, int height)
+    {
+        final Float[][] result = new Float[width][height];
+        for (int x = 0; x < width; x++) {
+            final Float[] column = result[x];
+            final int offset = x * height;
+            for (int y = 0; y < height; y++) {
+                column[y] = data[offset + y];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param data The data.
+     * @return Sum of the data.
+     */
+    public static float sum(float[] data)
+    {
+        float sum = 0;
+        for (int i = 0; i < data.length; i++)
+            sum += data[i];
+        return sum;
+    }
+
+    /**
+     * @param data The data.
+     * @return Mean of the data.
+     */
+    public static float mean(float[] data)
+    {
+        return sum(data) / data.length;
+    }
+
+    /**
+     * Divide the values by the corresponding counts of summands. Values with zero count must be zero and are left
+     * untouched.
+     * 
+     * @param values The sums to divide. The results are stored in this array.
+     * @param counts The numbers of summands of each value.
+     */
+    public static void divideByCounts(float[] values, float[] counts)
+    {
+        final int n = Math.min(values.length, counts.length);
+        // dividing by at least 1 keeps the zero values untouched and needs no branch in the loop
+        for (int i = 0; i < n; i++)
+            values[i] /= Math.max(counts[i], 1f);
+    }
+
+    /**
+     * Compute the decimal logarithm of all values.
+     * 
+     * @param src The values.
+     * @param dst The array to write the logarithms to. May be the same array as <code>src</code>.
+     */
+    public static void log10(float[] src, float[] dst)
+    {
+        final int n = Math.min(src.length, dst.length);
+        for (int i = 0; i < n; i++)
+            dst[i] = (float) (Math.log(src[i]) / LN_10);
+    }
+}
@@ -0,0 +1,301 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais;
+
+import java.util.Arrays;
+
+/**
+ * The ionograms of an orbit stored as a single time &times; frequency &times; delay cube.
+ * <p>
+ * The data of all frames are stored in one flat primitive array, frame by frame, each of them in the layout described
+ * in {@link FloatKernels}; the value at <code>[x][y]</code> of frame <code>f</code> is at index
+ * <code>(f * width + x) * height + y</code>. The kernels compute a statistic for every frame in one sweep through the
+ * whole array instead of hundreds of small loops over the data of the separate frames.
+ * <p>
+ * The cube may be built from the original ionograms or from the resampled ones, but all of them must have the same
+ * size. Mind that a cube of resampled ionograms takes several megabytes per frame, while a cube of the original ones
+ * only tens of kilobytes per frame.
+ * <p>
+ * The sums of whole frames are accumulated in float precision in the same order as {@link FloatKernels} does, so they
+ * are exactly the same as the sums computed for each frame separately. The row and column sums are accumulated in
+ * double precision, because the values of ionograms span many orders of magnitude.
+ * 
+ * @author Martin Pecka
+ */
+public class IonogramCube
+{
+    /** The frames of the cube. */
+    private final Ionogram[] frames;
+
+    /** Width of the frames. */
+    private final int        width;
+
+    /** Height of the frames. */
+    private final int        height;
+
+    /** Number of values in a frame. */
+    private final int        frameSize;
+
+    /** The data of all frames in a flat array. */
+    private final float[]    data;
+
+    /**
+     * @param frames The frames of the cube. All of them must have the same size.
+     * 
+     * @throws IllegalArgumentException If there are no frames or the frames differ in size (see
+     *             {@link #isCube(Ionogram[])}).
+     */
+    public IonogramCube(Ionogram[] frames)
+    {
+        if (frames.length == 0)
+            throw new IllegalArgumentException("The cube has to contain at least one frame.");
+
+        this.frames = frames.clone();
+        this.width = frames[0].getWidth();
+        this.height = frames[0].getHeight();
+        this.frameSize = width * height;
+        this.data = new float[frames.length * frameSize];
+
+        for (int f = 0; f < frames.length; f++) {
+            if (frames[f].getWidth() != width || frames[f].getHeight() != height) {
+                throw new IllegalArgumentException("Frame " + f + " has size " + frames[f].getWidth() + "x"
+                        + frames[f].getHeight() + ", but the cube has size " + width + "x" + height + ".");
+            }
+            System.arraycopy(frames[f].getFlatData(), 0, data, f * frameSize, frameSize);
+        }
+    }
+
+    /**
+     * Return true if the given frames can form a cube.
+     * 
+     * @param frames The frames.
+     * @return Whether there is at least one frame and all the frames have the same size.
+     */
+    public static boolean isCube(Ionogram[] frames)
+    {
+        if (frames.length == 0)
+            return false;
+        for (Ionogram frame : frames) {
+            if (frame.getWidth() != frames[0].getWidth() || frame.getHeight() != frames[0].getHeight())
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return Number of frames in the cube.
+     */
+    public int getNumFrames()
+    {
+        return frames.length;
+    }
+
+    /**
+     * @param frame Index of the frame.
+     * @return The frame.
+     */
+    public Ionogram getFrame(int frame)
+    {
+        return frames[frame];
+    }
+
+    /**
+     * @return Width of the frames.
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * @return Height of the frames.
+     */
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Return the data of all frames in the flat array. The returned array must not be modified.
+     * 
+     * @return The data of all frames.
+     */
+    public float[] getData()
+    {
+        return data;
+    }
+
+    /**
+     * @param frame Index of the frame.
+     * @return Index of the first value of the given frame in {@link #getData()}.
+     */
+    public int getFrameOffset(int frame)
+    {
+        return frame * frameSize;
+    }
+
+    /**
+     * @return Sums of the data of every frame.
+     */
+    public float[] getSums()
+    {
+        final float[] result = new float[frames.length];
+        for (int f = 0; f < frames.length; f++) {
+            final int offset = f * frameSize, end = offset + frameSize;
+            float sum = 0;
+            for (int i = offset; i < end; i++)
+                sum += data[i];
+            result[f] = sum;
+        }
+        return result;
+    }
+
+    /**
+     * @return Means of the data of every frame.
+     */
+    public float[] getMeans()
+    {
+        final float[] result = getSums();
+        for (int f = 0; f < result.length; f++)
+            result[f] /= frameSize;
+        return result;
+    }
+
+    /**
+     * @return Maximal values of every frame (at least 0).
+     */
+    public float[] getMaxima()
+    {
+        final float[] result = new float[frames.length];
+        for (int f = 0; f < frames.length; f++) {
+            final int offset = f * frameSize, end = offset + frameSize;
+            float max = 0;
+            for (int i = offset; i < end; i++) {
+                if (data[i] > max)
+                    max = data[i];
+            }
+            result[f] = max;
+        }
+        return result;
+    }
+
+    /**
+     * Return the standard deviations of the data of the frames.
+     * 
+     * @param means Means of the data of every frame (see {@link #getMeans()}).
+     * @param skip Frames whose standard deviation isn't needed. May be <code>null</code>.
+     * @return Standard deviations of the data of every frame. <code>NaN</code> for the skipped frames.
+     */
+    public float[] getStandardDeviations(float[] means, boolean[] skip)
+    {
+        final float[] result = new float[frames.length];
+        for (int f = 0; f < frames.length; f++) {
+            if (skip != null && skip[f]) {
+                result[f] = Float.NaN;
+                continue;
+            }
+            final int offset = f * frameSize, end = offset + frameSize;
+            final float mean = means[f];
+            float squares = 0;
+            for (int i = offset; i < end; i++) {
+                final double diff = data[i] - mean;
+                squares += diff * diff;
+            }
+            result[f] = (float) Math.sqrt(squares / frameSize);
+        }
+        return result;
+    }
+
+    /**
+     * Return the sums of the whole columns in the given range of columns of every frame.
+     * 
+     * @param fromX The first column to sum (inclusive).
+     * @param toX The last column to sum (exclusive).
+     * @return The column sums (for every frame one value for every column in the range).
+     */
+    public float[][] getColumnSums(int fromX, int toX)
+    {
+        final int x0 = Math.max(fromX, 0), x1 = Math.min(toX, width);
+        final float[][] result = new float[frames.length][Math.max(toX - fromX, 0)];
+        for (int f = 0; f < frames.length; f++) {
+            final float[] sums = result[f];
+            for (int x = x0; x < x1; x++) {
+                final int offset = f * frameSize + x * height, end = offset + height;
+                double sum = 0;
+                for (int i = offset; i < end; i++)
+                    sum += data[i];
+                sums[x - fromX] = (float) sum;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Return the sums of all rows in the given range of columns of every frame.
+     * 
+     * @param fromX The first column to sum (inclusive).
+     * @param toX The last column to sum (exclusive).
+     * @return The row sums (for every frame one value for every row).
+     */
+    public float[][] getRowSums(int fromX, int toX)
+    {
+        final int[] to = new int[frames.length];
+        Arrays.fill(to, toX);
+        return getRowSums(fromX, to);
+    }
+
+    /**
+     * Return the sums of all rows in the given range of columns of every frame, the range ending at a different column
+     * in every frame.
+     * 
+     * @param fromX The first column to sum (inclusive).
+     * @param toX For every frame the last column to sum (exclusive).
+     * @return The row sums (for every frame one value for every row).
+     */
+    public float[][] getRowSums(int fromX, int[] toX)
+    {
+        final float[][] result = new float[frames.length][height];
+        final double[] sums = new double[height];
+        final int x0 = Math.max(fromX, 0);
+        for (int f = 0; f < frames.length; f++) {
+            Arrays.fill(sums, 0);
+            final int x1 = Math.min(toX[f], width);
+            for (int x = x0; x < x1; x++) {
+                final int offset = f * frameSize + x * height;
+                for (int y = 0; y < height; y++)
+                    sums[y] += data[offset + y];
+            }
+            for (int y = 0; y < height; y++)
+                result[f][y] = (float) sums[y];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,299 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * A persistent on-disk cache of {@link EvenlySampledIonogram} data.
+ * <p>
+ * Each resampled frame is stored in a separate file containing its dimensions followed by the raw float data, so that
+ * the file can be read back in a single bulk read. The files are keyed by orbit number, position of the frame in the
+ * orbit, fingerprint of the source files and {@link EvenlySampledIonogram#RESAMPLING_VERSION}, so a change of any of
+ * these results in a cache miss. When the size of the cache exceeds the given limit, the least recently used files are
+ * deleted.
+ * 
+ * @author Martin Pecka
+ */
+public class ResampledIonogramCache
+{
+    /** Extension of the cache files. */
+    private static final String EXTENSION   = ".grid";
+
+    /** Size of the header (width and height) of a cache file in bytes. */
+    private static final int    HEADER_SIZE = 2 * 4;
+
+    /** The directory the cache files are stored in. */
+    private final File          directory;
+
+    /** The maximum size of all cache files in bytes. */
+    private final long          maxSize;
+
+    /** Current size of all cache files in bytes. */
+    private long                size        = 0;
+
+    /**
+     * @param directory The directory to store the cache files in. It is created if it doesn't exist.
+     * @param maxSize The maximum size of all cache files in bytes.
+     * 
+     * @throws IOException If the directory cannot be created.
+     */
+    public ResampledIonogramCache(File directory, long maxSize) throws IOException
+    {
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException("Cannot create the cache directory " + directory);
+
+        this.directory = directory;
+        this.maxSize = maxSize;
+
+        for (File file : listCacheFiles())
+            size += file.length();
+    }
+
+    /**
+     * Return the evenly sampled version of the given ionogram, either read from the cache or computed and stored into
+     * the cache.
+     * 
+     * @param original The ionogram to resample.
+     * @param sourceFile The .LBL file the ionogram has been read from.
+     * @return The resampled ionogram.
+     * 
+     * @throws IOException On IO error when reading or writing the cache.
+     */
+    public EvenlySampledIonogram getResampled(Ionogram original, File sourceFile) throws IOException
+    {
+        final File cacheFile = getCacheFile(original, sourceFile);
+
+        final float[][] cachedData = read(cacheFile);
+        if (cachedData != null)
+            return new EvenlySampledIonogram(original, cachedData);
+
+        final EvenlySampledIonogram result = new EvenlySampledIonogram(original);
+        write(cacheFile, result.getData());
+        return result;
+    }
+
+    /**
+     * Delete all files of this cache.
+     */
+    public synchronized void clear()
+    {
+        for (File file : listCacheFiles()) {
+            final long length = file.length();
+            if (file.delete())
+                size -= length;
+        }
+    }
+
+    /**
+     * @return Current size of all cache files in bytes.
+     */
+    public synchronized long getSize()
+    {
+        return size;
+    }
+
+    /**
+     * @return The maximum size of all cache files in bytes.
+     */
+    public long getMaxSize()
+    {
+        return maxSize;
+    }
+
+    /**
+     * Return the cache file corresponding to the given ionogram.
+     * 
+     * @param original The original ionogram.
+     * @param sourceFile The .LBL file the ionogram has been read from.
+     * @return The cache file (it doesn't have to exist).
+     * 
+     * @throws IOException On IO error when reading the label.
+     */
+    private File getCacheFile(Ionogram original, File sourceFile) throws IOException
+    {
+        final String name = String.format(Locale.ENGLISH, "%04d_%04d_%016x_v%d%s", original.getOrbitNumber(),
+                original.getPositionInSeries(), getFingerprint(sourceFile, AISLBLProductReader.getDataFile(sourceFile)),
+                EvenlySampledIonogram.RESAMPLING_VERSION, EXTENSION);
+        return new File(directory, name);
+    }
+
+    /**
+     * Compute a fingerprint of the given files which changes whenever any of the files is replaced or modified.
+     * <p>
+     * Both the label and the data file it points to have to be included, since the samples come from the data file.
+     * 
+     * @param files The files.
+     * @return The fingerprint.
+     */
+    private static long getFingerprint(File... files)
+    {
+        long result = 1;
+        for (File file : files) {
+            result = 31 * result + file.getAbsolutePath().hashCode();
+            result = 31 * result + file.length();
+            result = 31 * result + file.lastModified();
+        }
+        return result;
+    }
+
+    /**
+     * Read the resampled data from the given cache file.
+     * 
+     * @param cacheFile The file to read.
+     * @return The data or <code>null</code> if the file doesn't exist or is damaged.
+     * 
+     * @throws IOException On IO error.
+     */
+    private float[][] read(File cacheFile) throws IOException
+    {
+        if (!cacheFile.isFile())
+            return null;
+
+        try (final RandomAccessFile file = new RandomAccessFile(cacheFile, "r");
+                final FileChannel channel = file.getChannel()) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE)
+                return null;
+
+            // a plain read into a heap buffer; a mapping would keep the file locked until it is garbage collected,
+            // which prevents deleting it on Windows
+            final ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0)
+                    return null;
+            }
+            buffer.flip();
+
+            final int width = buffer.getInt();
+            final int height = buffer.getInt();
+            if (width <= 0 || height <= 0 || buffer.limit() != HEADER_SIZE + 4L * width * height)
+                return null;
+
+            final FloatBuffer floats = buffer.asFloatBuffer();
+            final float[][] result = new float[width][height];
+            for (int x = 0; x < width; x++)
+                floats.get(result[x]);
+
+            // mark the file as recently used
+            cacheFile.setLastModified(System.currentTimeMillis());
+
+            return result;
+        }
+    }
+
+    /**
+     * Write the given data to the cache file and evict old files if the cache is too large.
+     * 
+     * @param cacheFile The file to write.
+     * @param data The data to write.
+     * 
+     * @throws IOException On IO error.
+     */
+    private void write(File cacheFile, Float[][] data) throws IOException
+    {
+        final int width = data.length, height = data[0].length;
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + 4 * width * height);
+        buffer.putInt(width);
+        buffer.putInt(height);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                buffer.putFloat(data[x][y]);
+            }
+        }
+        buffer.flip();
+
+        // write to a temporary file first so that concurrent readers never see a partially written file
+        final File tmpFile = File.createTempFile(cacheFile.getName(), ".tmp", directory);
+        try (final RandomAccessFile file = new RandomAccessFile(tmpFile, "rw");
+                final FileChannel channel = file.getChannel()) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+
+        synchronized (this) {
+            final long oldLength = cacheFile.length();
+            if (!tmpFile.renameTo(cacheFile)) {
+                tmpFile.delete();
+                return;
+            }
+            size += cacheFile.length() - oldLength;
+            evict();
+        }
+    }
+
+    /**
+     * Delete the least recently used files until the cache size is lower than {@link #maxSize}.
+     */
+    private void evict()
+    {
+        if (size <= maxSize)
+            return;
+
+        final File[] files = listCacheFiles();
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File o1, File o2)
+            {
+                return Long.compare(o1.lastModified(), o2.lastModified());
+            }
+        });
+
+        for (int i = 0; i < files.length && size > maxSize; i++) {
+            final long length = files[i].length();
+            if (files[i].delete())
+                size -= length;
+        }
+    }
+
+    /**
+     * @return All files of the cache.
+     */
+    private File[] listCacheFiles()
+    {
+        final File[] files = directory.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File pathname)
+            {
+                return pathname.isFile() && pathname.getName().endsWith(EXTENSION);
+            }
+        });
+        return files != null ? files : new File[0];
+    }
+}
@@ -0,0 +1 @@
+mvn -e package && java -jar target\benchmarks.jar %*
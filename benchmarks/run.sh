@@ -0,0 +1,2 @@
+#!/bin/bash
+mvn -e package && java -jar target/benchmarks.jar "$@"
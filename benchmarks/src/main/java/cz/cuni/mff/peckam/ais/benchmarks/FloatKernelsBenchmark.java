@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cz.cuni.mff.peckam.ais.FloatKernels;
+
+/**
+ * Comparison of the per-pixel loops over boxed 2D arrays (the way the detectors used to compute them) with the
+ * {@link FloatKernels} working on flat arrays.
+ * <p>
+ * The default sizes are the size of a raw ionogram and the size of an evenly sampled ionogram.
+ * 
+ * @author Martin Pecka
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class FloatKernelsBenchmark
+{
+    /** Width of the data. */
+    @Param({ "160", "1455" })
+    public int        width;
+
+    /** Height of the data. */
+    @Param({ "80", "727" })
+    public int        height;
+
+    /** The boxed data. */
+    private Float[][] boxed;
+
+    /** The flat data. */
+    private float[]   flat;
+
+    /** Counts of summands for the averaging. */
+    private float[]   counts;
+
+    /** The counts in a 2D array. */
+    private float[][] counts2D;
+
+    /** Output buffer. */
+    private float[]   out;
+
+    /**
+     * Generate random data resembling the ionogram values.
+     */
+    @Setup
+    public void setup()
+    {
+        final Random random = new Random(42);
+        boxed = new Float[width][height];
+        counts2D = new float[width][height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                boxed[x][y] = (float) (1E-16 * (1 + 1000 * random.nextDouble()));
+                counts2D[x][y] = random.nextInt(3);
+            }
+        }
+        flat = FloatKernels.flatten(boxed);
+        counts = new float[width * height];
+        for (int x = 0; x < width; x++)
+            System.arraycopy(counts2D[x], 0, counts, x * height, height);
+        out = new float[width * height];
+    }
+
+    /**
+     * @return Mean of the boxed data.
+     */
+    @Benchmark
+    public float meanBoxed()
+    {
+        float sum = 0;
+        for (int x = 0; x < boxed.length; x++) {
+            for (int y = 0; y < boxed[0].length; y++) {
+                sum += boxed[x][y];
+            }
+        }
+        return sum / (boxed.length * boxed[0].length);
+    }
+
+    /**
+     * @return Mean of the flat data.
+     */
+    @Benchmark
+    public float meanFlat()
+    {
+        return FloatKernels.mean(flat);
+    }
+
+    /**
+     * @return Decimal logarithm of the boxed data.
+     */
+    @Benchmark
+    public float[][] log10Boxed()
+    {
+        final float[][] result = new float[width][height];
+        final double coef = Math.log(10);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                result[x][y] = (float) (Math.log(boxed[x][y]) / coef);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Decimal logarithm of the flat data.
+     */
+    @Benchmark
+    public float[] log10Flat()
+    {
+        FloatKernels.log10(flat, out);
+        return out;
+    }
+
+    /**
+     * @return The averaged values computed over 2D arrays.
+     */
+    @Benchmark
+    public float[][] averageBoxed()
+    {
+        final float[][] data = new float[width][height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                data[x][y] = boxed[x][y];
+                if (counts2D[x][y] > 0) {
+                    data[x][y] /= counts2D[x][y];
+                }
+            }
+        }
+        return data;
+    }
+
+    /**
+     * @return The averaged values computed over flat arrays.
+     */
+    @Benchmark
+    public float[] averageFlat()
+    {
+        System.arraycopy(flat, 0, out, 0, flat.length);
+        FloatKernels.divideByCounts(out, counts);
+        return out;
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.benchmarks;
+
+import static java.lang.Math.PI;
+import static java.lang.Math.atan;
+import static java.lang.Math.cos;
+import static java.lang.Math.sin;
+
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cz.cuni.mff.peckam.ais.detection.FastPeriodogram;
+
+/**
+ * Comparison of the periodogram evaluated separately for every frequency with a {@link TreeMap} used for selecting the
+ * best candidates (the way the periodogram strategy of the summing detector used to compute it) with the
+ * {@link FastPeriodogram}.
+ * <p>
+ * The default lengths are the lengths of the row and column sums of an evenly sampled ionogram.
+ * 
+ * @author Martin Pecka
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PeriodogramBenchmark
+{
+    /** Length of the series. */
+    @Param({ "727", "1455" })
+    public int      length;
+
+    /** The average distance of peaks in the series. */
+    @Param({ "20" })
+    public int      period;
+
+    /** The series of peaks. */
+    private float[] peaks;
+
+    /** The lowest tested number of periods in the series. */
+    private int     fromN;
+
+    /** The highest tested number of periods in the series. */
+    private int     toN;
+
+    /**
+     * Generate a noisy periodic series of peaks.
+     */
+    @Setup
+    public void setup()
+    {
+        final Random random = new Random(42);
+        peaks = new float[length];
+        for (int i = random.nextInt(period); i < length; i += period - 2 + random.nextInt(5))
+            peaks[i] = 1;
+        fromN = length / (period - 2);
+        toN = length / 2;
+    }
+
+    /**
+     * @return The best periods computed by evaluating the periodogram for each frequency separately.
+     */
+    @Benchmark
+    public Double[] perFrequency()
+    {
+        final NavigableMap<Double, Double> periodogram = new TreeMap<>();
+        for (int n = fromN; n <= toN; n++) {
+            final double freq = 2 * PI * n / length;
+            periodogram.put(computePeriodogram(freq, peaks), freq);
+        }
+
+        final Double[] periods = new Double[Math.min(10, periodogram.size())];
+        int i = 0;
+        for (double freq : periodogram.descendingMap().values()) {
+            if (i < periods.length)
+                periods[i++] = 2 * PI / freq;
+        }
+        return periods;
+    }
+
+    /**
+     * @return The best periods computed by {@link FastPeriodogram}.
+     */
+    @Benchmark
+    public Double[] fast()
+    {
+        final double[] periodogram = FastPeriodogram.compute(peaks, fromN, toN);
+        final int[] bestNs = FastPeriodogram.topCandidates(periodogram, fromN, 10);
+
+        final Double[] periods = new Double[bestNs.length];
+        for (int i = 0; i < periods.length; i++)
+            periods[i] = 2 * PI / (2 * PI * bestNs[i] / length);
+        return periods;
+    }
+
+    /**
+     * The periodogram value for a single frequency as the summing detector used to compute it.
+     * 
+     * @param freq The input frequency.
+     * @param values The values to compute the periodogram for.
+     * @return The periodogram value, P_X(freq)
+     */
+    private static double computePeriodogram(double freq, float[] values)
+    {
+        double tau_sinSum = 0;
+        double tau_cosSum = 0;
+        for (int i = 1; i <= values.length; i++) {
+            tau_sinSum += sin(2 * freq * i);
+            tau_cosSum += cos(2 * freq * i);
+        }
+
+        double tau;
+        if (tau_cosSum <= 10E-15) {
+            tau = 0;
+        } else {
+            final double tan_tau = tau_sinSum / tau_cosSum;
+            tau = atan(tan_tau) / (2 * PI);
+        }
+
+        double cos_valSum = 0, cos_sum = 0, sin_valSum = 0, sin_sum = 0;
+        for (int i = 1; i <= values.length; i++) {
+            final double cos = cos(freq * (i - tau));
+            final double sin = sin(freq * (i - tau));
+            cos_valSum += values[i - 1] * cos;
+            cos_sum += cos * cos;
+            sin_valSum += values[i - 1] * sin;
+            sin_sum += sin * sin;
+        }
+
+        if (cos_sum <= 10E-15 || sin_sum <= 10E-15)
+            return 0;
+        if (cos_valSum <= 10E-15)
+            cos_valSum = 0;
+        if (sin_valSum <= 10E-15)
+            sin_valSum = 0;
+        return 0.5 * (cos_valSum * cos_valSum / cos_sum + sin_valSum * sin_valSum / sin_sum);
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cz.cuni.mff.peckam.ais.AISLBLProductReader;
+import cz.cuni.mff.peckam.ais.EvenlySampledIonogram;
+import cz.cuni.mff.peckam.ais.Ionogram;
+import cz.cuni.mff.peckam.ais.detection.DetectionContext;
+import cz.cuni.mff.peckam.ais.detection.DetectionResult;
+import cz.cuni.mff.peckam.ais.detection.FloatFeatureDetector;
+import cz.cuni.mff.peckam.ais.detection.HoughDetector;
+import cz.cuni.mff.peckam.ais.detection.SummingDetector;
+import cz.cuni.mff.peckam.ais.detection.SummingDetector.ComputationStrategy;
+
+/**
+ * Comparison of the throughput of the {@link SummingDetector} strategies with the {@link HoughDetector} on all
+ * ionograms of an orbit.
+ * <p>
+ * Every invocation detects the features in all the ionograms with new contexts, so that nothing computed for the
+ * previous invocation is reused. The accuracy of the detectors on the same orbits is compared by the result comparator
+ * on the results saved by the detection UI (the <code>SUM_*</code> and <code>HOUGH</code> result files).
+ * 
+ * @author Martin Pecka
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RepeatingLinesBenchmark
+{
+    /** The orbit file to read the ionograms from. */
+    @Param({ "../../data/387X/FRM_AIS_RDR_3874.LBL" })
+    public String           orbitFile;
+
+    /** The ionograms of the orbit. */
+    private Ionogram[]      ionograms;
+
+    /** The detector using the periodogram. */
+    private SummingDetector periodogram;
+
+    /** The detector using the quantiles of peak distances. */
+    private SummingDetector quantile;
+
+    /** The Hough transform detector. */
+    private HoughDetector   hough;
+
+    /**
+     * Read and resample the ionograms of the orbit.
+     * 
+     * @throws IOException If the orbit file cannot be read.
+     */
+    @Setup
+    public void setup() throws IOException
+    {
+        final Ionogram[] raw = new AISLBLProductReader().readFile(new File(orbitFile));
+        ionograms = new Ionogram[raw.length];
+        for (int i = 0; i < raw.length; i++)
+            ionograms[i] = new EvenlySampledIonogram(raw[i]);
+
+        periodogram = new SummingDetector();
+        periodogram.setStrategy(ComputationStrategy.PERIODOGRAM);
+        quantile = new SummingDetector();
+        quantile.setStrategy(ComputationStrategy.QUANTILE_PEAK_DISTANCE_ESTIMATION);
+        hough = new HoughDetector();
+    }
+
+    /**
+     * @return The results of the summing detector using the periodogram.
+     */
+    @Benchmark
+    public DetectionResult[] summingPeriodogram()
+    {
+        return detectAll(periodogram);
+    }
+
+    /**
+     * @return The results of the summing detector using the quantiles of peak distances.
+     */
+    @Benchmark
+    public DetectionResult[] summingQuantile()
+    {
+        return detectAll(quantile);
+    }
+
+    /**
+     * @return The results of the Hough transform detector.
+     */
+    @Benchmark
+    public DetectionResult[] hough()
+    {
+        return detectAll(hough);
+    }
+
+    /**
+     * Detect the features in all the ionograms of the orbit.
+     * 
+     * @param detector The detector to use.
+     * @return The results.
+     */
+    private DetectionResult[] detectAll(FloatFeatureDetector detector)
+    {
+        final DetectionResult[] results = new DetectionResult[ionograms.length];
+        for (int i = 0; i < ionograms.length; i++)
+            results[i] = detector.detectFeatures(new DetectionContext(ionograms[i]));
+        return results;
+    }
+}
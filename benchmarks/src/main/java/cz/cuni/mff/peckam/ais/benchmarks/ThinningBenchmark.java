@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cz.cuni.mff.peckam.ais.detection.NonMaximumSuppression;
+
+/**
+ * Comparison of the non-maximum suppression of the thinning strategy of the vectorization detector testing the whole
+ * neighborhood of each pixel (the way it used to be computed) with the {@link NonMaximumSuppression}.
+ * <p>
+ * The horizontal pass works on the left half of the frame and the vertical pass on the whole frame, as in the
+ * detector. The default size is the size of an evenly sampled ionogram. The pixels below the zero level end the
+ * neighborhood tests early, so the share of the other pixels is a parameter. Every invocation copies the frame first,
+ * because the suppression works in place.
+ * 
+ * @author Martin Pecka
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ThinningBenchmark
+{
+    /** Width of the frame. */
+    @Param({ "1455" })
+    public int                          width;
+
+    /** Height of the frame. */
+    @Param({ "727" })
+    public int                          height;
+
+    /** The share of pixels above the level considered zero by the thinning. */
+    @Param({ "0.1", "0.5", "1" })
+    public double                       signal;
+
+    /** The frame. */
+    private float[][]                   frame;
+
+    /** The working copy of the frame. */
+    private float[][]                   work;
+
+    /** The suppression used by the horizontal pass. */
+    private final NonMaximumSuppression horizontal = new NonMaximumSuppression(3);
+
+    /** The suppression used by the vertical pass. */
+    private final NonMaximumSuppression vertical   = new NonMaximumSuppression(10);
+
+    /**
+     * Generate a frame of noise with the given share of pixels above the zero level.
+     */
+    @Setup
+    public void setup()
+    {
+        final Random random = new Random(42);
+        frame = new float[width][height];
+        work = new float[width][height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (random.nextDouble() < signal)
+                    frame[x][y] = (float) (1E-15 * Math.pow(1000, random.nextDouble()));
+                else
+                    frame[x][y] = (float) (1E-16 * (0.5 + random.nextDouble()));
+            }
+        }
+    }
+
+    /**
+     * @return The horizontally thinned frame computed by testing the whole neighborhood of each pixel.
+     */
+    @Benchmark
+    public float[][] horizontalPerPixel()
+    {
+        final int w = copyFrame() / 2, h = height;
+        final float[][] data = work;
+        for (int x = 0; x < w; x++) {
+            yLoop: for (int y = 0; y < h; y++) {
+                if (data[x][y] < 1E-15)
+                    data[x][y] = 0;
+
+                for (int i = -3; i <= 3; i++) {
+                    if (x + i >= 0 && x + i < w && data[x + i][y] > data[x][y]) {
+                        data[x][y] = 0;
+                        continue yLoop;
+                    }
+                }
+            }
+        }
+        return data;
+    }
+
+    /**
+     * @return The horizontally thinned frame computed by {@link NonMaximumSuppression}.
+     */
+    @Benchmark
+    public float[][] horizontalRunningMax()
+    {
+        final int w = copyFrame() / 2;
+        final float[][] data = new float[w][];
+        System.arraycopy(work, 0, data, 0, w);
+        horizontal.suppressAlongX(data);
+        return data;
+    }
+
+    /**
+     * @return The vertically thinned frame computed by testing the whole neighborhood of each pixel.
+     */
+    @Benchmark
+    public float[][] verticalPerPixel()
+    {
+        final int w = copyFrame(), h = height;
+        final float[][] data = work;
+        for (int y = 0; y < h; y++) {
+            xLoop: for (int x = 0; x < w; x++) {
+                if (data[x][y] < 1E-15)
+                    data[x][y] = 0;
+
+                for (int i = -10; i <= 10; i++) {
+                    if (y + i >= 0 && y + i < h && data[x][y + i] > data[x][y]) {
+                        data[x][y] = 0;
+                        continue xLoop;
+                    }
+                }
+            }
+        }
+        return data;
+    }
+
+    /**
+     * @return The vertically thinned frame computed by {@link NonMaximumSuppression}.
+     */
+    @Benchmark
+    public float[][] verticalRunningMax()
+    {
+        copyFrame();
+        vertical.suppressAlongY(work);
+        return work;
+    }
+
+    /**
+     * Copy the frame to the working array.
+     * 
+     * @return Width of the frame.
+     */
+    private int copyFrame()
+    {
+        for (int x = 0; x < width; x++)
+            System.arraycopy(frame[x], 0, work[x], 0, height);
+        return width;
+    }
+}
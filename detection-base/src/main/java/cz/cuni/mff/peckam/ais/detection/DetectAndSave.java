@@ -1,141 +1,441 @@
-/**
- * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
- * All rights reserved.
- * Licensed under the following BSD License.
- * 
- * Redistribution and use in source and binary forms, with or without
- * modification, are permitted provided that the following conditions are met:
- * 
- * Redistributions of source code must retain the above copyright
- * notice, this list of conditions and the following disclaimer.
- * 
- * Redistributions in binary form must reproduce the above copyright
- * notice, this list of conditions and the following disclaimer in the
- * documentation and/or other materials provided with the distribution.
- * 
- * Neither the name Martin Pecka nor the
- * names of contributors may be used to endorse or promote products
- * derived from this software without specific prior written permission.
- * 
- * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
- * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
- * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
- * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
- * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
- * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
- * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
- * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
- * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
- * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
- */
-package cz.cuni.mff.peckam.ais.detection;
-
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.OutputStream;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Locale;
-
-import javax.swing.ProgressMonitor;
-import javax.swing.SwingUtilities;
-
-import cz.cuni.mff.peckam.ais.AISLBLProductReader;
-import cz.cuni.mff.peckam.ais.EvenlySampledIonogram;
-import cz.cuni.mff.peckam.ais.Ionogram;
-import cz.cuni.mff.peckam.ais.result.ObjectFactory;
-import cz.cuni.mff.peckam.ais.result.Orbit;
-import cz.cuni.mff.peckam.ais.result.ResultWriter;
-
-/**
- * Provides static method to perform detection to all frames in a .LBL file and save results to a XML file in the same
- * directory.
- * 
- * @author Martin Pecka
- */
-public class DetectAndSave
-{
-    /** The ionogram reader to be used. */
-    private static final AISLBLProductReader             reader    = new AISLBLProductReader();
-
-    /** Object factory for {@link Orbit}. */
-    private static final ObjectFactory                   factory   = new ObjectFactory();
-
-    /**
-     * Perform detection to all frames in <code>lblFile</code> using <code>detector</code> and save the results to a XML
-     * file named TRACE_<code>resultSuffix</code>.XML in the same directory as <code>lblFile</code>.
-     * 
-     * @param lblFile The LBL file to parse.
-     * @param detector The detector to use.
-     * @param resultSuffix Suffix of the results file.
-     * @param pm The progress monitor.
-     * 
-     * @return The results of the detection.
-     * @throws IOException On IO error in either reading or writing.
-     */
-    public static List<DetectionResult> detectAndSave(File lblFile, FeatureDetector<Float> detector,
-            String resultSuffix, final ProgressMonitor pm)
-            throws IOException
-    {
-        if (pm != null)
-            pm.setNote("Reading the .LBL file");
-        final Ionogram[] ionograms = reader.readFile(lblFile);
-
-        final double pmPieceSize = (pm != null) ? (pm.getMaximum() - pm.getMinimum()) / ionograms.length : 0;
-        double finishedPiecesSize = 0;
-
-        final Orbit orbit = factory.createOrbit();
-        final int orbitNum = ionograms[0].getOrbitNumber();
-        orbit.setId(orbitNum);
-
-        final List<DetectionResult> results = new LinkedList<>();
-
-        for (int i = 0; i < ionograms.length; i++) {
-            if (pm != null) {
-                final int frame = i;
-                SwingUtilities.invokeLater(new Runnable() {
-                    @Override
-                    public void run()
-                    {
-                        pm.setNote("Performing detection in orbit " + orbitNum + " frame " + frame + " of "
-                                + ionograms.length);
-                    }
-                });
-            }
-            ionograms[i] = new EvenlySampledIonogram(ionograms[i]);
-            final DetectionResult result = detector.detectFeatures(ionograms[i]);
-            results.add(result);
-            orbit.getFrames().add(DetectionResultConverter.convert(result, ionograms[i]));
-
-            ionograms[i] = null;
-            System.gc();
-
-            if (pm != null) {
-                final int progress = (int) (finishedPiecesSize += pmPieceSize);
-                SwingUtilities.invokeLater(new Runnable() {
-                    @Override
-                    public void run()
-                    {
-                        pm.setProgress(progress);
-                    }
-                });
-                if (pm.isCanceled())
-                    return null;
-            }
-        }
-
-
-        final String outFileName = String.format(Locale.ENGLISH, "TRACE_%04d_%s.XML", orbitNum, resultSuffix);
-        final File outFile = new File(lblFile.getParent(), outFileName);
-        final ResultWriter writer = new ResultWriter(orbit);
-
-        try (OutputStream output = new FileOutputStream(outFile)) {
-            writer.writeXML(output);
-        }
-
-        if (pm != null)
-            pm.setProgress(pm.getMaximum());
-        return results;
-    }
-}
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import java.awt.Dimension;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.swing.ProgressMonitor;
+import javax.swing.SwingUtilities;
+
+import cz.cuni.mff.peckam.ais.AISLBLProductReader;
+import cz.cuni.mff.peckam.ais.EvenlySampledIonogram;
+import cz.cuni.mff.peckam.ais.Ionogram;
+import cz.cuni.mff.peckam.ais.IonogramCube;
+import cz.cuni.mff.peckam.ais.ResampledIonogramCache;
+import cz.cuni.mff.peckam.ais.result.ObjectFactory;
+import cz.cuni.mff.peckam.ais.result.Orbit;
+import cz.cuni.mff.peckam.ais.result.ResultWriter;
+
+/**
+ * Provides static method to perform detection to all frames in a .LBL file and save results to a XML file in the same
+ * directory.
+ * 
+ * @author Martin Pecka
+ */
+public class DetectAndSave
+{
+    /** The ionogram reader to be used. */
+    private static final AISLBLProductReader             reader    = new AISLBLProductReader();
+
+    /** Object factory for {@link Orbit}. */
+    private static final ObjectFactory                   factory   = new ObjectFactory();
+
+    /** The cache of resampled ionograms. <code>null</code> if resampled ionograms should not be cached. */
+    private static volatile ResampledIonogramCache       resampledCache = null;
+
+    /** The test for empty ionograms performed before resampling. <code>null</code> if no test should be done. */
+    private static volatile RejectionCascade             rejectionCascade = null;
+
+    /** Whether to pass the result of the previous frame to the detectors as a prior. */
+    private static volatile boolean                      warmStart = false;
+
+    /** The sink for intermediate data of the detectors. */
+    private static volatile DetectionDiagnostics         diagnostics = DetectionDiagnostics.DISABLED;
+
+    /**
+     * Set the cache of resampled ionograms to use.
+     * 
+     * @param cache The cache. <code>null</code> to disable caching.
+     */
+    public static void setResampledIonogramCache(ResampledIonogramCache cache)
+    {
+        resampledCache = cache;
+    }
+
+    /**
+     * @return The cache of resampled ionograms. <code>null</code> if caching is disabled.
+     */
+    public static ResampledIonogramCache getResampledIonogramCache()
+    {
+        return resampledCache;
+    }
+
+    /**
+     * Set the test for empty ionograms performed before resampling. The ionograms rejected by the test are not
+     * resampled and the detectors that are {@link FloatFeatureDetector}s return {@link NoFeatureDetectionResult} for
+     * them.
+     * 
+     * @param cascade The test. <code>null</code> to disable it.
+     */
+    public static void setRejectionCascade(RejectionCascade cascade)
+    {
+        rejectionCascade = cascade;
+    }
+
+    /**
+     * @return The test for empty ionograms performed before resampling. <code>null</code> if it is disabled.
+     */
+    public static RejectionCascade getRejectionCascade()
+    {
+        return rejectionCascade;
+    }
+
+    /**
+     * Set whether the detection in a frame should be warm-started by the result of the same detector in the previous
+     * frame (see {@link FloatFeatureDetector#detectFeatures(DetectionContext, DetectionResult)}).
+     * 
+     * @param warmStart Whether to warm-start the detection.
+     */
+    public static void setWarmStart(boolean warmStart)
+    {
+        DetectAndSave.warmStart = warmStart;
+    }
+
+    /**
+     * @return Whether the detection in a frame is warm-started by the result of the previous frame.
+     */
+    public static boolean isWarmStart()
+    {
+        return warmStart;
+    }
+
+    /**
+     * Set the sink for intermediate data computed by the detectors.
+     * 
+     * @param diagnostics The sink. {@link DetectionDiagnostics#DISABLED} to disable the diagnostics.
+     */
+    public static void setDiagnostics(DetectionDiagnostics diagnostics)
+    {
+        DetectAndSave.diagnostics = diagnostics;
+    }
+
+    /**
+     * @return The sink for intermediate data computed by the detectors.
+     */
+    public static DetectionDiagnostics getDiagnostics()
+    {
+        return diagnostics;
+    }
+
+    /**
+     * Return the evenly sampled version of the given ionogram, using the resampled ionogram cache if it is set.
+     * 
+     * @param ionogram The ionogram to resample.
+     * @param lblFile The .LBL file the ionogram has been read from.
+     * @return The evenly sampled ionogram.
+     * 
+     * @throws IOException On IO error when working with the cache.
+     */
+    public static EvenlySampledIonogram resample(Ionogram ionogram, File lblFile) throws IOException
+    {
+        final ResampledIonogramCache cache = resampledCache;
+        if (cache == null)
+            return new EvenlySampledIonogram(ionogram);
+        return cache.getResampled(ionogram, lblFile);
+    }
+
+    /**
+     * Perform detection to all frames in <code>lblFile</code> using <code>detector</code> and save the results to a XML
+     * file named TRACE_<code>resultSuffix</code>.XML in the same directory as <code>lblFile</code>.
+     * 
+     * @param lblFile The LBL file to parse.
+     * @param detector The detector to use.
+     * @param resultSuffix Suffix of the results file.
+     * @param pm The progress monitor.
+     * 
+     * @return The results of the detection.
+     * @throws IOException On IO error in either reading or writing.
+     */
+    public static List<DetectionResult> detectAndSave(File lblFile, FeatureDetector<Float> detector,
+            String resultSuffix, final ProgressMonitor pm)
+            throws IOException
+    {
+        final Map<String, List<DetectionResult>> results = detectAndSave(lblFile,
+                Collections.singletonMap(resultSuffix, detector), pm);
+        if (results == null)
+            return null;
+        return results.get(resultSuffix);
+    }
+
+    /**
+     * Perform detection to all frames in <code>lblFile</code> using all the given detectors and save the results of
+     * each detector to a XML file named TRACE_<code>resultSuffix</code>.XML in the same directory as
+     * <code>lblFile</code>.
+     * <p>
+     * Every frame is read and resampled only once and all the detectors share the data derived from it (see
+     * {@link DetectionContext}). If all the detectors accept the original frequency grid (see
+     * {@link FloatFeatureDetector#acceptsNativeGrid()}), the frames are not resampled at all, and every detector
+     * processes the whole orbit at once as an {@link IonogramCube} using the same contexts of the frames (see
+     * {@link FloatFeatureDetector#detectFeatures(IonogramCube, DetectionContext[], boolean)}).
+     * <p>
+     * The method returns after the diagnostics sink has stored all the data published during the detection.
+     * 
+     * @param lblFile The LBL file to parse.
+     * @param detectors The detectors to use. Keys are the suffixes of their results files.
+     * @param pm The progress monitor.
+     * 
+     * @return The results of the detection (keys are the suffixes of the results files). <code>null</code> if the
+     *         detection has been cancelled.
+     * @throws IOException On IO error in either reading or writing.
+     */
+    public static Map<String, List<DetectionResult>> detectAndSave(File lblFile,
+            Map<String, ? extends FeatureDetector<Float>> detectors, final ProgressMonitor pm) throws IOException
+    {
+        final DetectionDiagnostics diagnostics = DetectAndSave.diagnostics;
+        try {
+            return detectAndSave(lblFile, detectors, diagnostics, pm);
+        } finally {
+            diagnostics.flush();
+        }
+    }
+
+    /**
+     * Perform detection to all frames in <code>lblFile</code> using all the given detectors and save the results of
+     * each detector to a XML file.
+     * 
+     * @param lblFile The LBL file to parse.
+     * @param detectors The detectors to use. Keys are the suffixes of their results files.
+     * @param diagnostics The sink for intermediate data computed by the detectors.
+     * @param pm The progress monitor.
+     * 
+     * @return The results of the detection (keys are the suffixes of the results files). <code>null</code> if the
+     *         detection has been cancelled.
+     * @throws IOException On IO error in either reading or writing.
+     * 
+     * @see #detectAndSave(File, Map, ProgressMonitor)
+     */
+    private static Map<String, List<DetectionResult>> detectAndSave(File lblFile,
+            Map<String, ? extends FeatureDetector<Float>> detectors, DetectionDiagnostics diagnostics,
+            final ProgressMonitor pm) throws IOException
+    {
+        if (pm != null)
+            pm.setNote("Reading the .LBL file");
+        final Ionogram[] ionograms = reader.readFile(lblFile);
+
+        final double pmPieceSize = (pm != null) ? (pm.getMaximum() - pm.getMinimum()) / ionograms.length : 0;
+        double finishedPiecesSize = 0;
+
+        final int orbitNum = ionograms[0].getOrbitNumber();
+        final RejectionCascade cascade = rejectionCascade;
+        final boolean useWarmStart = warmStart;
+        final boolean resample = !acceptNativeGrid(detectors.values());
+        final IonogramCube cube = ((cascade != null || !resample) && IonogramCube.isCube(ionograms))
+                ? new IonogramCube(ionograms) : null;
+        final boolean[] rejectedFrames = rejectEmpty(cascade, ionograms, cube);
+        final Map<String, DetectionResult> previousResults = new HashMap<>(detectors.size());
+
+        final Map<String, Orbit> orbits = new LinkedHashMap<>(detectors.size());
+        final Map<String, List<DetectionResult>> results = new LinkedHashMap<>(detectors.size());
+        for (String resultSuffix : detectors.keySet()) {
+            final Orbit orbit = factory.createOrbit();
+            orbit.setId(orbitNum);
+            orbits.put(resultSuffix, orbit);
+            results.put(resultSuffix, new LinkedList<DetectionResult>());
+        }
+
+        if (!resample && cube != null) {
+            // all the detectors work on the original grid, so they can process the whole orbit at once; they share the
+            // contexts of the frames, so the data derived from a frame are computed only once for all of them
+            final DetectionContext[] contexts = DetectionContext.createContexts(cube, rejectedFrames, diagnostics);
+            int finishedDetectors = 0;
+            for (Entry<String, ? extends FeatureDetector<Float>> detector : detectors.entrySet()) {
+                if (pm != null) {
+                    final String name = detector.getKey();
+                    SwingUtilities.invokeLater(new Runnable() {
+                        @Override
+                        public void run()
+                        {
+                            pm.setNote("Performing detection in orbit " + orbitNum + " using " + name);
+                        }
+                    });
+                }
+
+                final List<DetectionResult> detectorResults = ((FloatFeatureDetector) detector.getValue())
+                        .detectFeatures(cube, contexts, useWarmStart);
+                for (int i = 0; i < ionograms.length; i++) {
+                    results.get(detector.getKey()).add(detectorResults.get(i));
+                    orbits.get(detector.getKey()).getFrames()
+                            .add(DetectionResultConverter.convert(detectorResults.get(i), ionograms[i]));
+                }
+
+                if (pm != null) {
+                    final int progress = (int) (pm.getMinimum() + (pm.getMaximum() - pm.getMinimum())
+                            * ++finishedDetectors / detectors.size());
+                    SwingUtilities.invokeLater(new Runnable() {
+                        @Override
+                        public void run()
+                        {
+                            pm.setProgress(progress);
+                        }
+                    });
+                    if (pm.isCanceled())
+                        return null;
+                }
+            }
+        } else {
+            for (int i = 0; i < ionograms.length; i++) {
+                if (pm != null) {
+                    final int frame = i;
+                    SwingUtilities.invokeLater(new Runnable() {
+                        @Override
+                        public void run()
+                        {
+                            pm.setNote("Performing detection in orbit " + orbitNum + " frame " + frame + " of "
+                                    + ionograms.length);
+                        }
+                    });
+                }
+                final Ionogram original = ionograms[i];
+                final boolean rejected = rejectedFrames[i];
+                DetectionContext context = null;
+                for (Entry<String, ? extends FeatureDetector<Float>> detector : detectors.entrySet()) {
+                    final DetectionResult result;
+                    if (rejected && detector.getValue() instanceof FloatFeatureDetector) {
+                        // the same result the detector would return for a featureless ionogram
+                        result = new NoFeatureDetectionResult(original.getId(),
+                                resample ? EvenlySampledIonogram.getResampledSize(original) : new Dimension(
+                                        original.getWidth(), original.getHeight()));
+                    } else {
+                        if (context == null) {
+                            if (resample)
+                                ionograms[i] = resample(original, lblFile);
+                            context = new DetectionContext(ionograms[i], diagnostics);
+                        }
+                        result = detectFeatures(detector.getValue(), context,
+                                previousResults.get(detector.getKey()));
+                    }
+                    if (useWarmStart)
+                        previousResults.put(detector.getKey(), result);
+                    results.get(detector.getKey()).add(result);
+                    orbits.get(detector.getKey()).getFrames()
+                            .add(DetectionResultConverter.convert(result, ionograms[i]));
+                }
+
+                ionograms[i] = null;
+                System.gc();
+
+                if (pm != null) {
+                    final int progress = (int) (finishedPiecesSize += pmPieceSize);
+                    SwingUtilities.invokeLater(new Runnable() {
+                        @Override
+                        public void run()
+                        {
+                            pm.setProgress(progress);
+                        }
+                    });
+                    if (pm.isCanceled())
+                        return null;
+                }
+            }
+        }
+
+        for (Entry<String, Orbit> orbit : orbits.entrySet()) {
+            final String outFileName = String.format(Locale.ENGLISH, "TRACE_%04d_%s.XML", orbitNum, orbit.getKey());
+            final File outFile = new File(lblFile.getParent(), outFileName);
+            final ResultWriter writer = new ResultWriter(orbit.getValue());
+
+            try (OutputStream output = new FileOutputStream(outFile)) {
+                writer.writeXML(output);
+            }
+        }
+
+        if (pm != null)
+            pm.setProgress(pm.getMaximum());
+        return results;
+    }
+
+    /**
+     * Test which of the given ionograms are empty. If the ionograms form a cube, the whole orbit is tested at once (see
+     * {@link RejectionCascade#rejects(IonogramCube)}).
+     * 
+     * @param cascade The test. <code>null</code> if no test should be done.
+     * @param ionograms The original ionograms of an orbit.
+     * @param cube The cube of the ionograms. <code>null</code> if they don't form a cube or it hasn't been built.
+     * @return For every ionogram whether it is empty.
+     */
+    private static boolean[] rejectEmpty(RejectionCascade cascade, Ionogram[] ionograms, IonogramCube cube)
+    {
+        if (cascade == null)
+            return new boolean[ionograms.length];
+
+        if (cube != null)
+            return cascade.rejects(cube);
+
+        final boolean[] result = new boolean[ionograms.length];
+        for (int i = 0; i < ionograms.length; i++)
+            result[i] = cascade.rejects(ionograms[i]);
+        return result;
+    }
+
+    /**
+     * Return true if all the given detectors accept the original frequency grid of ionograms.
+     * 
+     * @param detectors The detectors.
+     * @return Whether the ionograms don't need to be resampled for the detectors.
+     */
+    private static boolean acceptNativeGrid(Collection<? extends FeatureDetector<Float>> detectors)
+    {
+        for (FeatureDetector<Float> detector : detectors) {
+            if (!(detector instanceof FloatFeatureDetector) || !((FloatFeatureDetector) detector).acceptsNativeGrid())
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Detect features in the product of the given context, sharing the context if the detector supports it.
+     * 
+     * @param detector The detector to use.
+     * @param context The context of the product.
+     * @param prior Result of the detector in the previous frame. May be <code>null</code>.
+     * @return The detection result.
+     */
+    private static DetectionResult detectFeatures(FeatureDetector<Float> detector, DetectionContext context,
+            DetectionResult prior)
+    {
+        if (detector instanceof FloatFeatureDetector)
+            return ((FloatFeatureDetector) detector).detectFeatures(context, prior);
+        return detector.detectFeatures(context.getProduct());
+    }
+}
@@ -0,0 +1,512 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import cz.cuni.mff.peckam.ais.FloatKernels;
+import cz.cuni.mff.peckam.ais.Ionogram;
+import cz.cuni.mff.peckam.ais.IonogramCube;
+import cz.cuni.mff.peckam.ais.Product;
+
+/**
+ * Data derived from a single product that are shared by all detectors run on it.
+ * <p>
+ * The context is created once per product and all the derived data are computed lazily on the first request and
+ * then remembered, so that running several detectors on one product pays for every derivation only once. The
+ * returned arrays are shared and must not be modified by the callers.
+ * <p>
+ * The context is thread-safe.
+ * 
+ * @author Martin Pecka
+ */
+public class DetectionContext
+{
+    /** The product the data are derived from. */
+    private final Product<Float, ?, ?>                   product;
+
+    /** Width of the product. */
+    private final int                                    width;
+
+    /** Height of the product. */
+    private final int                                    height;
+
+    /** The data in a flat array. */
+    private float[]                                      flatData;
+
+    /** The data in a 2D array. */
+    private float[][]                                    data;
+
+    /** Decimal logarithm of the data. */
+    private float[][]                                    log10Data;
+
+    /** Summed-area table of the data. */
+    private SummedAreaTable                              summedAreaTable;
+
+    /** Positions of the original columns of an ionogram in the data. */
+    private int[]                                        originalColumnPositions;
+
+    /** Statistics of the data. */
+    private Statistics                                   statistics;
+
+    /** The ground echo band. */
+    private GroundEchoBand                               groundEchoBand;
+
+    /** Whether {@link #groundEchoBand} has already been computed (it may be <code>null</code>). */
+    private boolean                                      groundEchoBandComputed;
+
+    /** Other data the detectors want to share. */
+    private final Map<String, Object>                    attributes = new HashMap<>();
+
+    /** The sink for intermediate data of the detectors. */
+    private final DetectionDiagnostics                   diagnostics;
+
+    /**
+     * @param product The product the data are derived from.
+     */
+    public DetectionContext(Product<Float, ?, ?> product)
+    {
+        this(product, DetectionDiagnostics.DISABLED);
+    }
+
+    /**
+     * @param product The product the data are derived from.
+     * @param diagnostics The sink for intermediate data of the detectors.
+     */
+    public DetectionContext(Product<Float, ?, ?> product, DetectionDiagnostics diagnostics)
+    {
+        this.product = product;
+        this.width = product.getWidth();
+        this.height = product.getHeight();
+        this.diagnostics = diagnostics;
+    }
+
+    /**
+     * Create the contexts of all the frames of the given cube.
+     * 
+     * @param cube The cube.
+     * @param skip Frames that don't need a context (e.g. the frames known to be featureless). May be
+     *            <code>null</code>.
+     * @param diagnostics The sink for intermediate data of the detectors.
+     * @return The contexts of the frames. <code>null</code> for the skipped frames.
+     */
+    public static DetectionContext[] createContexts(IonogramCube cube, boolean[] skip, DetectionDiagnostics diagnostics)
+    {
+        final DetectionContext[] result = new DetectionContext[cube.getNumFrames()];
+        for (int f = 0; f < result.length; f++) {
+            if (skip == null || !skip[f])
+                result[f] = new DetectionContext(cube.getFrame(f), diagnostics);
+        }
+        return result;
+    }
+
+    /**
+     * @return The product the data are derived from.
+     */
+    public Product<Float, ?, ?> getProduct()
+    {
+        return product;
+    }
+
+    /**
+     * @return Width of the product.
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * @return Height of the product.
+     */
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /**
+     * @return The data of the product in a flat array (see {@link FloatKernels}).
+     */
+    public synchronized float[] getFlatData()
+    {
+        if (flatData == null) {
+            if (product instanceof Ionogram)
+                flatData = ((Ionogram) product).getFlatData();
+            else
+                flatData = FloatKernels.flatten(product.getData());
+        }
+        return flatData;
+    }
+
+    /**
+     * @return The data of the product in a primitive 2D array.
+     */
+    public synchronized float[][] getData()
+    {
+        if (data == null)
+            data = FloatKernels.unflatten(getFlatData(), width, height);
+        return data;
+    }
+
+    /**
+     * @return Decimal logarithm of the data of the product.
+     */
+    public synchronized float[][] getLog10Data()
+    {
+        if (log10Data == null) {
+            final float[] result = new float[width * height];
+            FloatKernels.log10(getFlatData(), result);
+            log10Data = FloatKernels.unflatten(result, width, height);
+        }
+        return log10Data;
+    }
+
+    /**
+     * Return the summed-area table of the data, so that sums and means of arbitrary rectangles of the data can be
+     * computed in constant time.
+     * 
+     * @return The summed-area table of the data.
+     */
+    public synchronized SummedAreaTable getSummedAreaTable()
+    {
+        if (summedAreaTable == null)
+            summedAreaTable = new SummedAreaTable(getFlatData(), width, height);
+        return summedAreaTable;
+    }
+
+    /**
+     * Return the row sums of the data in the given range of columns.
+     * 
+     * @param fromX The first column to sum (inclusive).
+     * @param toX The last column to sum (exclusive).
+     * @return The row sums (one value for every row).
+     */
+    public float[] getRowSums(int fromX, int toX)
+    {
+        return getSummedAreaTable().getRowSums(fromX, toX);
+    }
+
+    /**
+     * Return the column sums of the data in the given range of columns.
+     * 
+     * @param fromX The first column to sum (inclusive).
+     * @param toX The last column to sum (exclusive).
+     * @return The column sums (one value for every column in the range).
+     */
+    public float[] getColumnSums(int fromX, int toX)
+    {
+        return getSummedAreaTable().getColumnSums(fromX, toX);
+    }
+
+    /**
+     * Return the positions of the original (unevenly sampled) columns of an ionogram in its data.
+     * <p>
+     * For a resampled ionogram, the value at index <code>i</code> is the column of the data the <code>i</code>-th
+     * original frequency falls to. For an ionogram that hasn't been resampled, the columns are mapped to themselves.
+     * 
+     * @return The positions of the original columns. <code>null</code> if the product isn't an ionogram.
+     */
+    public synchronized int[] getOriginalColumnPositions()
+    {
+        if (originalColumnPositions == null && product instanceof Ionogram) {
+            final Ionogram iono = (Ionogram) product;
+            final Float[] keys = iono.getOriginalColumnKeys();
+            final int[] result = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                result[i] = iono.getDataPosition((float) Ionogram.MIN_DELAY_TIME,
+                        (float) Math.min(keys[i], Ionogram.MAX_FREQUENCY)).y;
+            }
+            originalColumnPositions = result;
+        }
+        return originalColumnPositions;
+    }
+
+    /**
+     * @return Statistics of the whole data.
+     */
+    public synchronized Statistics getStatistics()
+    {
+        if (statistics == null)
+            statistics = new Statistics(getFlatData());
+        return statistics;
+    }
+
+    /**
+     * Return the band in which the ground echo is expected to be.
+     * 
+     * @return The ground echo band. <code>null</code> if the product isn't an ionogram, its altitude is unknown or the
+     *         expected echo is outside the ionogram.
+     */
+    public synchronized GroundEchoBand getGroundEchoBand()
+    {
+        if (!groundEchoBandComputed) {
+            groundEchoBand = computeGroundEchoBand();
+            groundEchoBandComputed = true;
+        }
+        return groundEchoBand;
+    }
+
+    /**
+     * @return The ground echo band. <code>null</code> if there is none.
+     */
+    private GroundEchoBand computeGroundEchoBand()
+    {
+        if (!(product instanceof Ionogram))
+            return null;
+
+        final Ionogram iono = (Ionogram) product;
+        if (iono.getAltitude() == null)
+            return null;
+
+        final float timeDelay = 2 * iono.getAltitude() / 300; // 300 for speed of light; timeDelay in ms
+
+        if (timeDelay < Ionogram.MIN_DELAY_TIME || timeDelay > Ionogram.MAX_DELAY_TIME)
+            return null;
+
+        final int yPosition = iono.getDataPosition(timeDelay, (float) Ionogram.MAX_FREQUENCY).x;
+
+        final SummedAreaTable table = getSummedAreaTable();
+        final int fromX = width / 2;
+        final int echoCount = table.getArea(fromX, yPosition, width, yPosition + GroundEchoBand.HEIGHT);
+        final int noEchoCount = table.getArea(fromX, 0, width, height) - echoCount;
+
+        if (echoCount == 0 || noEchoCount == 0) // should not happen
+            return null;
+
+        final double echoSum = table.getSum(fromX, yPosition, width, yPosition + GroundEchoBand.HEIGHT);
+        final double noEchoSum = table.getSum(fromX, 0, width, height) - echoSum;
+
+        return new GroundEchoBand(yPosition, (float) (echoSum / echoCount), (float) (noEchoSum / noEchoCount));
+    }
+
+    /**
+     * Return other shared data.
+     * 
+     * @param key Key of the data.
+     * @return The data. <code>null</code> if no such data have been set.
+     */
+    public synchronized Object getAttribute(String key)
+    {
+        return attributes.get(key);
+    }
+
+    /**
+     * Set other shared data.
+     * 
+     * @param key Key of the data.
+     * @param value The data.
+     */
+    public synchronized void setAttribute(String key, Object value)
+    {
+        attributes.put(key, value);
+    }
+
+    /**
+     * @return Whether the diagnostics sink wants the intermediate data of the product. Detectors may skip preparing
+     *         the data if it doesn't.
+     */
+    public boolean isDiagnosticsEnabled()
+    {
+        return diagnostics.accepts(product);
+    }
+
+    /**
+     * Publish a plane of intermediate data of a detector to the diagnostics sink.
+     * 
+     * @param name Name of the data.
+     * @param plane The data (indexed by <code>[x][y]</code>). The sink doesn't keep a reference to it.
+     */
+    public void publishDiagnostics(String name, float[][] plane)
+    {
+        if (diagnostics.accepts(product))
+            diagnostics.publish(product, name, plane);
+    }
+
+    /**
+     * Statistics of the data.
+     * <p>
+     * The sum and the mean are computed eagerly by a sequential float summation, which is what the threshold of
+     * featureless products has been calibrated on. The other statistics need another pass over the data, so they are
+     * only computed when requested.
+     * 
+     * @author Martin Pecka
+     */
+    public static class Statistics
+    {
+        /** The data. */
+        private final float[] data;
+        /** Sum of the values. */
+        private final float   sum;
+        /** Mean of the values. */
+        private final float   mean;
+        /** Standard deviation of the values. */
+        private float         standardDeviation;
+        /** The minimal value. */
+        private float         min;
+        /** The maximal value. */
+        private float         max;
+        /** Whether {@link #standardDeviation}, {@link #min} and {@link #max} have already been computed. */
+        private boolean       spreadComputed = false;
+
+        /**
+         * @param data The data to compute the statistics of.
+         */
+        Statistics(float[] data)
+        {
+            this.data = data;
+            this.sum = FloatKernels.sum(data);
+            this.mean = sum / data.length;
+        }
+
+        /**
+         * Compute the standard deviation, minimum and maximum of the data if they haven't been computed yet.
+         */
+        private synchronized void computeSpread()
+        {
+            if (spreadComputed)
+                return;
+
+            float min = Float.POSITIVE_INFINITY, max = Float.NEGATIVE_INFINITY;
+            double squares = 0;
+            for (int i = 0; i < data.length; i++) {
+                final float val = data[i];
+                if (val < min)
+                    min = val;
+                if (val > max)
+                    max = val;
+                final double diff = val - mean;
+                squares += diff * diff;
+            }
+            this.min = min;
+            this.max = max;
+            this.standardDeviation = (float) Math.sqrt(squares / data.length);
+            this.spreadComputed = true;
+        }
+
+        /**
+         * @return Sum of the values.
+         */
+        public float getSum()
+        {
+            return sum;
+        }
+
+        /**
+         * @return Mean of the values.
+         */
+        public float getMean()
+        {
+            return mean;
+        }
+
+        /**
+         * @return Standard deviation of the values.
+         */
+        public float getStandardDeviation()
+        {
+            computeSpread();
+            return standardDeviation;
+        }
+
+        /**
+         * @return The minimal value.
+         */
+        public float getMin()
+        {
+            computeSpread();
+            return min;
+        }
+
+        /**
+         * @return The maximal value.
+         */
+        public float getMax()
+        {
+            computeSpread();
+            return max;
+        }
+    }
+
+    /**
+     * The band of rows in the right half of an ionogram in which the ground echo is expected.
+     * 
+     * @author Martin Pecka
+     */
+    public static class GroundEchoBand
+    {
+        /** Height of the band in pixels. */
+        public static final int HEIGHT = 20;
+
+        /** The first row of the band. */
+        private final int       yPosition;
+        /** Mean of the values in the band. */
+        private final float     echoMean;
+        /** Mean of the values in the right half of the ionogram outside the band. */
+        private final float     noEchoMean;
+
+        /**
+         * @param yPosition The first row of the band.
+         * @param echoMean Mean of the values in the band.
+         * @param noEchoMean Mean of the values in the right half of the ionogram outside the band.
+         */
+        GroundEchoBand(int yPosition, float echoMean, float noEchoMean)
+        {
+            this.yPosition = yPosition;
+            this.echoMean = echoMean;
+            this.noEchoMean = noEchoMean;
+        }
+
+        /**
+         * @return The first row of the band.
+         */
+        public int getYPosition()
+        {
+            return yPosition;
+        }
+
+        /**
+         * @return Mean of the values in the band.
+         */
+        public float getEchoMean()
+        {
+            return echoMean;
+        }
+
+        /**
+         * @return Mean of the values in the right half of the ionogram outside the band.
+         */
+        public float getNoEchoMean()
+        {
+            return noEchoMean;
+        }
+    }
+}
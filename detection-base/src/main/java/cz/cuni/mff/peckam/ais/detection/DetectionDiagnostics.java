@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import cz.cuni.mff.peckam.ais.Product;
+
+/**
+ * A sink for intermediate data computed by detectors, which may help to examine how the detection works.
+ * <p>
+ * Detectors publish the data through {@link DetectionContext#publishDiagnostics(String, float[][])} instead of
+ * writing them anywhere themselves, so the diagnostics cost nothing unless a sink is set and wants the data of the
+ * product.
+ * 
+ * @author Martin Pecka
+ */
+public interface DetectionDiagnostics
+{
+    /** The sink that doesn't want any data. */
+    DetectionDiagnostics DISABLED = new DetectionDiagnostics() {
+                                      @Override
+                                      public boolean accepts(Product<?, ?, ?> product)
+                                      {
+                                          return false;
+                                      }
+
+                                      @Override
+                                      public void publish(Product<?, ?, ?> product, String name, float[][] plane)
+                                      {
+                                      }
+
+                                      @Override
+                                      public void flush()
+                                      {
+                                      }
+                                  };
+
+    /**
+     * Return true if the sink wants the intermediate data of the given product. Detectors may skip preparing the data
+     * if it doesn't.
+     * 
+     * @param product The product the detection runs on.
+     * @return Whether the data of the product should be published.
+     */
+    boolean accepts(Product<?, ?, ?> product);
+
+    /**
+     * Publish a plane of intermediate data. The sink must not keep a reference to the plane after returning, since the
+     * detector may continue to modify it.
+     * 
+     * @param product The product the detection runs on.
+     * @param name Name of the data.
+     * @param plane The data (indexed by <code>[x][y]</code>).
+     */
+    void publish(Product<?, ?, ?> product, String name, float[][] plane);
+
+    /**
+     * Wait until all the data published so far are stored. If interrupted while waiting, return early with the
+     * interrupted status of the thread set.
+     */
+    void flush();
+}
@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import cz.cuni.mff.peckam.ais.Ionogram;
+import cz.cuni.mff.peckam.ais.Product;
+
+/**
+ * Diagnostics sink writing the planes of selected products to files in a directory.
+ * <p>
+ * A plane is written as a text file with one line per row (the top row first) and a PNG image showing its nonzero
+ * values in white. The files are named after the orbit and frame of the ionogram and the name of the plane, so the
+ * results of different frames and of parallel runs don't overwrite each other.
+ * <p>
+ * The files are written by a background thread, so the detection doesn't wait for the disk. If the thread can't keep
+ * up, the planes that don't fit in its queue are dropped (see {@link #getNumDropped()}). The thread doesn't keep the
+ * application running, so the planes waiting in the queue are lost unless {@link #flush()} or {@link #close()} is
+ * called before exiting.
+ * 
+ * @author Martin Pecka
+ */
+public class DiagnosticsFileWriter implements DetectionDiagnostics
+{
+    /** The maximum number of planes waiting to be written. */
+    private static final int         QUEUE_CAPACITY = 64;
+
+    /** The values greater than this are shown in white in the images. */
+    private static final float       MIN_SHOWN      = 1E-19f;
+
+    /** The directory to write the files to. */
+    private final File               directory;
+
+    /** Publish every <code>sampling</code>-th frame. 0 if the frames are not sampled. */
+    private final int                sampling;
+
+    /** The explicitly selected frames (<code>orbit:frame</code>) and orbits (<code>orbit</code>). */
+    private final Set<String>        selected;
+
+    /** The thread writing the files. */
+    private final ThreadPoolExecutor executor;
+
+    /** Number of the planes that have been dropped. */
+    private final AtomicInteger      numDropped     = new AtomicInteger();
+
+    /** Number of the planes that have been accepted by the writer and haven't been written yet. */
+    private int                      numPending     = 0;
+
+    /**
+     * @param directory The directory to write the files to. It is created if it doesn't exist.
+     * @param sampling Publish every <code>sampling</code>-th frame of each orbit (by the position of the frame in the
+     *            orbit). 0 to publish only the selected frames.
+     * @param selected The selected frames (written as <code>orbit:frame</code>) and whole orbits (written as
+     *            <code>orbit</code>) to publish regardless of the sampling.
+     * @throws IOException If the directory can't be created.
+     */
+    public DiagnosticsFileWriter(File directory, int sampling, Collection<String> selected) throws IOException
+    {
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException("Cannot create the diagnostics directory " + directory);
+
+        this.directory = directory;
+        this.sampling = sampling;
+        this.selected = new HashSet<>();
+        for (String frame : selected)
+            this.selected.add(frame.trim());
+
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(
+                QUEUE_CAPACITY), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r)
+            {
+                final Thread thread = new Thread(r, "Detection diagnostics writer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        }, new RejectedExecutionHandler() {
+            @Override
+            public void rejectedExecution(Runnable r, ThreadPoolExecutor executor)
+            {
+                numDropped.incrementAndGet();
+                finished();
+            }
+        });
+    }
+
+    @Override
+    public boolean accepts(Product<?, ?, ?> product)
+    {
+        if (product instanceof Ionogram) {
+            final Ionogram ionogram = (Ionogram) product;
+            final int orbit = ionogram.getOrbitNumber(), frame = ionogram.getPositionInSeries();
+            if (selected.contains(orbit + ":" + frame) || selected.contains(Integer.toString(orbit)))
+                return true;
+            return sampling > 0 && frame % sampling == 0;
+        }
+        return sampling > 0 && (product.getId().hashCode() & Integer.MAX_VALUE) % sampling == 0;
+    }
+
+    @Override
+    public void publish(Product<?, ?, ?> product, String name, float[][] plane)
+    {
+        if (!accepts(product))
+            return;
+
+        final float[][] copy = new float[plane.length][];
+        for (int x = 0; x < plane.length; x++)
+            copy[x] = plane[x].clone();
+
+        final String baseName = getBaseName(product) + "_" + name;
+        synchronized (this) {
+            numPending++;
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run()
+            {
+                try {
+                    write(copy, baseName);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                } finally {
+                    finished();
+                }
+            }
+        });
+    }
+
+    @Override
+    public synchronized void flush()
+    {
+        try {
+            while (numPending > 0)
+                wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Mark a plane as written or dropped.
+     */
+    private synchronized void finished()
+    {
+        numPending--;
+        notifyAll();
+    }
+
+    /**
+     * Write the plane to a text file and an image.
+     * 
+     * @param plane The plane.
+     * @param baseName Name of the files without extension.
+     * @throws IOException If the files can't be written.
+     */
+    private void write(float[][] plane, String baseName) throws IOException
+    {
+        final int w = plane.length, h = plane[0].length;
+        final BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        final int white = Color.white.getRGB();
+
+        try (final BufferedWriter writer = new BufferedWriter(new FileWriter(new File(directory, baseName + ".txt")))) {
+            for (int y = h - 1; y >= 0; y--) {
+                for (int x = 0; x < w; x++) {
+                    writer.write(plane[x][y] + " ");
+                    image.setRGB(x, y, plane[x][y] > MIN_SHOWN ? white : 0);
+                }
+                writer.newLine();
+            }
+        }
+
+        ImageIO.write(image, "png", new File(directory, baseName + ".png"));
+    }
+
+    /**
+     * @param product The product.
+     * @return The part of the file names identifying the product.
+     */
+    private static String getBaseName(Product<?, ?, ?> product)
+    {
+        if (product instanceof Ionogram) {
+            final Ionogram ionogram = (Ionogram) product;
+            return String.format(Locale.ENGLISH, "%04d_%03d", ionogram.getOrbitNumber(),
+                    ionogram.getPositionInSeries());
+        }
+        return product.getId().toString().replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    /**
+     * @return Number of the planes that have been dropped because the writer couldn't keep up.
+     */
+    public int getNumDropped()
+    {
+        return numDropped.get();
+    }
+
+    /**
+     * Write all the published planes and stop the writer. The planes published afterwards are dropped.
+     * 
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public void close() throws InterruptedException
+    {
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+}
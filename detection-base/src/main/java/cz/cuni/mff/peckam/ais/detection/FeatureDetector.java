@@ -1,61 +1,68 @@
-/**
- * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
- * All rights reserved.
- * Licensed under the following BSD License.
- * 
- * Redistribution and use in source and binary forms, with or without
- * modification, are permitted provided that the following conditions are met:
- * 
- * Redistributions of source code must retain the above copyright
- * notice, this list of conditions and the following disclaimer.
- * 
- * Redistributions in binary form must reproduce the above copyright
- * notice, this list of conditions and the following disclaimer in the
- * documentation and/or other materials provided with the distribution.
- * 
- * Neither the name Martin Pecka nor the
- * names of contributors may be used to endorse or promote products
- * derived from this software without specific prior written permission.
- * 
- * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
- * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
- * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
- * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
- * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
- * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
- * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
- * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
- * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
- * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
- */
-package cz.cuni.mff.peckam.ais.detection;
-
-import java.util.List;
-
-import cz.cuni.mff.peckam.ais.Product;
-
-/**
- * A detector of features in 2D products.
- * 
- * @author Martin Pecka
- * 
- * @param <ProductDataType> Type of the data in product.
- */
-public interface FeatureDetector<ProductDataType extends Number>
-{
-    /**
-     * Detect features in the given data product.
-     * 
-     * @param product The product to detect features in.
-     * @return All detected features.
-     */
-    DetectionResult detectFeatures(Product<ProductDataType, ?, ?> product);
-
-    /**
-     * Detect features in the given data products.
-     * 
-     * @param products The products to detect features in.
-     * @return All detected features.
-     */
-    List<DetectionResult> detectFeatures(List<? extends Product<ProductDataType, ?, ?>> products);
-}
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import java.util.List;
+
+import cz.cuni.mff.peckam.ais.Product;
+
+/**
+ * A detector of features in 2D products.
+ * <p>
+ * Implementations must be thread-safe: the detection methods may be called concurrently from multiple threads for
+ * different (or even the same) products, and the products are only read. A change of the detector configuration (e.g.
+ * its computation strategy) may be done at any time; it is visible to all detections started after the change, while
+ * the running ones finish with the previous configuration.
+ * 
+ * @author Martin Pecka
+ * 
+ * @param <ProductDataType> Type of the data in product.
+ */
+public interface FeatureDetector<ProductDataType extends Number>
+{
+    /**
+     * Detect features in the given data product.
+     * 
+     * @param product The product to detect features in.
+     * @return All detected features.
+     */
+    DetectionResult detectFeatures(Product<ProductDataType, ?, ?> product);
+
+    /**
+     * Detect features in the given data products.
+     * <p>
+     * The products may be processed in parallel, but the results are returned in the order of the products.
+     * 
+     * @param products The products to detect features in.
+     * @return All detected features (the i-th result belongs to the i-th product).
+     */
+    List<DetectionResult> detectFeatures(List<? extends Product<ProductDataType, ?, ?>> products);
+}
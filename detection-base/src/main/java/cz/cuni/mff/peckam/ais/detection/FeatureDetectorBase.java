@@ -1,95 +1,265 @@
-/**
- * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
- * All rights reserved.
- * Licensed under the following BSD License.
- * 
- * Redistribution and use in source and binary forms, with or without
- * modification, are permitted provided that the following conditions are met:
- * 
- * Redistributions of source code must retain the above copyright
- * notice, this list of conditions and the following disclaimer.
- * 
- * Redistributions in binary form must reproduce the above copyright
- * notice, this list of conditions and the following disclaimer in the
- * documentation and/or other materials provided with the distribution.
- * 
- * Neither the name Martin Pecka nor the
- * names of contributors may be used to endorse or promote products
- * derived from this software without specific prior written permission.
- * 
- * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
- * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
- * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
- * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
- * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
- * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
- * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
- * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
- * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
- * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
- */
-package cz.cuni.mff.peckam.ais.detection;
-
-import java.awt.Dimension;
-import java.util.LinkedList;
-import java.util.List;
-
-import cz.cuni.mff.peckam.ais.Product;
-
-/**
- * Common base for all feature detectors.
- * 
- * @param <ProductDataType> Type of the data in product.
- * 
- * @author Martin Pecka
- */
-public abstract class FeatureDetectorBase<ProductDataType extends Number> implements FeatureDetector<ProductDataType>
-{
-
-    @Override
-    public List<DetectionResult> detectFeatures(List<? extends Product<ProductDataType, ?, ?>> products)
-    {
-        final List<DetectionResult> result = new LinkedList<>();
-
-        for (Product<ProductDataType, ?, ?> product : products)
-            result.add(detectFeatures(product));
-
-        return result;
-    }
-
-    @Override
-    public DetectionResult detectFeatures(Product<ProductDataType, ?, ?> product)
-    {
-        if (canHaveFeatures(product)) {
-            final DetectionResult result = new DetectionResult(product.getId(), new Dimension(product.getWidth(),
-                    product.getHeight()));
-
-            for (DetectedFeature feature : detectFeaturesImpl(product))
-                result.addFeature(feature);
-
-            result.readProductData(product);
-
-            return result;
-        } else {
-            return new NoFeatureDetectionResult(product.getId(), new Dimension(product.getWidth(), product.getHeight()));
-        }
-    }
-
-    /**
-     * Return true if the product is eligible for detection. Return true if e.g. stats show that it is not worth
-     * exploring.
-     * 
-     * @param product The product.
-     * @return Whether to perform detection or the product is featureless.
-     */
-    protected abstract boolean canHaveFeatures(Product<ProductDataType, ?, ?> product);
-
-    /**
-     * Detect features in the given data product.
-     * 
-     * @param product The product to detect features in.
-     * @return All detected features in a list.
-     */
-    protected abstract List<DetectedFeature> detectFeaturesImpl(Product<ProductDataType, ?, ?> product);
-
-}
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import java.awt.Dimension;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cz.cuni.mff.peckam.ais.Product;
+
+/**
+ * Common base for all feature detectors.
+ * <p>
+ * Detection in a list of products is performed in parallel by an executor (by default a pool shared by all detectors
+ * with one thread per processor). The number of products being detected at once is bounded, so that the decoded
+ * products waiting for detection don't fill up the memory.
+ * 
+ * @param <ProductDataType> Type of the data in product.
+ * 
+ * @author Martin Pecka
+ */
+public abstract class FeatureDetectorBase<ProductDataType extends Number> implements FeatureDetector<ProductDataType>
+{
+    /** The executor to perform batch detection with. <code>null</code> means the default shared executor. */
+    private volatile Executor executor         = null;
+
+    /** Maximum number of products being detected at once. Non-positive value means twice the number of processors. */
+    private volatile int      maxTasksInFlight = 0;
+
+    /**
+     * Set the executor to perform detection in a list of products with.
+     * <p>
+     * The executor should not be the one the batch detection itself is called from if it has a bounded number of
+     * threads, since the calling thread would be blocked waiting for the tasks queued behind it.
+     * 
+     * @param executor The executor. <code>null</code> to use the default executor shared by all detectors.
+     */
+    public void setExecutor(Executor executor)
+    {
+        this.executor = executor;
+    }
+
+    /**
+     * @return The executor to perform detection in a list of products with. <code>null</code> means the default
+     *         executor shared by all detectors.
+     */
+    public Executor getExecutor()
+    {
+        return executor;
+    }
+
+    /**
+     * Set the maximum number of products being detected at once during batch detection.
+     * 
+     * @param maxTasksInFlight The maximum number of products. Non-positive value means twice the number of processors.
+     */
+    public void setMaxTasksInFlight(int maxTasksInFlight)
+    {
+        this.maxTasksInFlight = maxTasksInFlight;
+    }
+
+    /**
+     * @return The maximum number of products being detected at once during batch detection. Non-positive value means
+     *         twice the number of processors.
+     */
+    public int getMaxTasksInFlight()
+    {
+        return maxTasksInFlight;
+    }
+
+    @Override
+    public List<DetectionResult> detectFeatures(List<? extends Product<ProductDataType, ?, ?>> products)
+    {
+        final Executor executor = this.executor;
+        final int maxInFlight = this.maxTasksInFlight > 0 ? this.maxTasksInFlight : 2 * Runtime.getRuntime()
+                .availableProcessors();
+
+        // no need to bother with the executor; also prevents deadlock of nested batches in the default executor
+        if (products.size() <= 1 || maxInFlight == 1
+                || (executor == null && Thread.currentThread() instanceof DefaultExecutor.DetectionThread)) {
+            final List<DetectionResult> result = new ArrayList<>(products.size());
+            for (Product<ProductDataType, ?, ?> product : products)
+                result.add(detectFeatures(product));
+            return result;
+        }
+
+        final Executor usedExecutor = (executor != null) ? executor : DefaultExecutor.INSTANCE;
+        final List<DetectionResult> result = new ArrayList<>(products.size());
+        // the tasks in flight in the order of the products
+        final Deque<FutureTask<DetectionResult>> tasks = new ArrayDeque<>(maxInFlight);
+
+        try {
+            for (final Product<ProductDataType, ?, ?> product : products) {
+                if (tasks.size() >= maxInFlight)
+                    result.add(getResult(tasks.removeFirst()));
+
+                final FutureTask<DetectionResult> task = new FutureTask<>(new Callable<DetectionResult>() {
+                    @Override
+                    public DetectionResult call() throws Exception
+                    {
+                        return detectFeatures(product);
+                    }
+                });
+                tasks.addLast(task);
+                usedExecutor.execute(task);
+            }
+
+            while (!tasks.isEmpty())
+                result.add(getResult(tasks.removeFirst()));
+        } finally {
+            // if something failed, don't waste time on the remaining products
+            for (FutureTask<DetectionResult> task : tasks)
+                task.cancel(true);
+        }
+
+        return result;
+    }
+
+    /**
+     * Wait for the task to finish and return its result.
+     * 
+     * @param task The task.
+     * @return The result of the task.
+     * 
+     * @throws RuntimeException If the task failed or the waiting thread has been interrupted.
+     */
+    private DetectionResult getResult(FutureTask<DetectionResult> task)
+    {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for detection results.", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new RuntimeException(cause);
+        }
+    }
+
+    @Override
+    public DetectionResult detectFeatures(Product<ProductDataType, ?, ?> product)
+    {
+        if (canHaveFeatures(product)) {
+            final DetectionResult result = new DetectionResult(product.getId(), new Dimension(product.getWidth(),
+                    product.getHeight()));
+
+            for (DetectedFeature feature : detectFeaturesImpl(product))
+                result.addFeature(feature);
+
+            result.readProductData(product);
+
+            return result;
+        } else {
+            return new NoFeatureDetectionResult(product.getId(), new Dimension(product.getWidth(), product.getHeight()));
+        }
+    }
+
+    /**
+     * Return true if the product is eligible for detection. Return true if e.g. stats show that it is not worth
+     * exploring.
+     * 
+     * @param product The product.
+     * @return Whether to perform detection or the product is featureless.
+     */
+    protected abstract boolean canHaveFeatures(Product<ProductDataType, ?, ?> product);
+
+    /**
+     * Detect features in the given data product.
+     * 
+     * @param product The product to detect features in.
+     * @return All detected features in a list.
+     */
+    protected abstract List<DetectedFeature> detectFeaturesImpl(Product<ProductDataType, ?, ?> product);
+
+    /**
+     * The default executor shared by all detectors. It is created when it is first needed.
+     * 
+     * @author Martin Pecka
+     */
+    private static class DefaultExecutor
+    {
+        /** The executor. */
+        static final ExecutorService INSTANCE = Executors.newFixedThreadPool(Runtime.getRuntime()
+                                                      .availableProcessors(), new DetectionThreadFactory());
+
+        /**
+         * Factory for daemon threads of the default executor.
+         * 
+         * @author Martin Pecka
+         */
+        static class DetectionThreadFactory implements ThreadFactory
+        {
+            /** Number of the next thread. */
+            private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(Runnable r)
+            {
+                final Thread thread = new DetectionThread(r, "feature-detector-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        }
+
+        /**
+         * Thread of the default executor.
+         * 
+         * @author Martin Pecka
+         */
+        static class DetectionThread extends Thread
+        {
+            /**
+             * @param target The task to run.
+             * @param name Name of the thread.
+             */
+            DetectionThread(Runnable target, String name)
+            {
+                super(target, name);
+            }
+        }
+    }
+
+}
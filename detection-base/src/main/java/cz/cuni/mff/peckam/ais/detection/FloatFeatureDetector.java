@@ -1,156 +1,344 @@
-/**
- * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
- * All rights reserved.
- * Licensed under the following BSD License.
- * 
- * Redistribution and use in source and binary forms, with or without
- * modification, are permitted provided that the following conditions are met:
- * 
- * Redistributions of source code must retain the above copyright
- * notice, this list of conditions and the following disclaimer.
- * 
- * Redistributions in binary form must reproduce the above copyright
- * notice, this list of conditions and the following disclaimer in the
- * documentation and/or other materials provided with the distribution.
- * 
- * Neither the name Martin Pecka nor the
- * names of contributors may be used to endorse or promote products
- * derived from this software without specific prior written permission.
- * 
- * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
- * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
- * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
- * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
- * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
- * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
- * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
- * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
- * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
- * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
- */
-package cz.cuni.mff.peckam.ais.detection;
-
-import java.awt.Point;
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
-
-import cz.cuni.mff.peckam.ais.Ionogram;
-import cz.cuni.mff.peckam.ais.Product;
-
-/**
- * Floating point numbers feature detector.
- * 
- * @author Martin Pecka
- */
-public abstract class FloatFeatureDetector extends FeatureDetectorBase<Float>
-{
-
-    @Override
-    protected boolean canHaveFeatures(Product<Float, ?, ?> product)
-    {
-        final Float[][] data = product.getData();
-        float sum = 0;
-        for (int x = 0; x < data.length; x++) {
-            for (int y = 0; y < data[0].length; y++) {
-                sum += data[x][y];
-            }
-        }
-        final float mean = sum / (data.length * data[0].length);
-        return mean >= 2.45216E-16;
-    }
-
-    @Override
-    public DetectionResult detectFeatures(Product<Float, ?, ?> product)
-    {
-        final DetectionResult result = super.detectFeatures(product);
-
-        if (product instanceof Ionogram) {
-            final Ionogram iono = (Ionogram) product;
-            if (iono.getAltitude() != null) {
-                final DetectedFeature echo = detectGroundEcho(iono, iono.getAltitude());
-                if (echo != null) {
-                    result.addFeature(echo);
-                    result.readProductData(iono);
-                }
-            }
-        }
-
-        return result;
-    }
-
-    /**
-     * @param product The product.
-     * @param altitude Altitude over ground in km.
-     * @return The ground echo.
-     */
-    protected DetectedFeature detectGroundEcho(Ionogram product, float altitude)
-    {
-        final Float[][] data = product.getData();
-        final float timeDelay = 2 * altitude / 300; // 300 for speed of light; timeDelay in ms
-
-        if (timeDelay < Ionogram.MIN_DELAY_TIME || timeDelay > Ionogram.MAX_DELAY_TIME)
-            return null;
-
-        final int yPosition = product.getDataPosition(timeDelay, (float) Ionogram.MAX_FREQUENCY).x;
-
-        float noEchoSum = 0, echoSum = 0;
-        int noEchoCount = 0, echoCount = 0;
-
-        for (int x = data.length / 2; x < data.length; x++) {
-            for (int y = 0; y < data[0].length; y++) {
-                final float val = data[x][y];
-                if (y >= yPosition && y < yPosition + 20) {
-                    echoSum += val;
-                    echoCount++;
-                } else {
-                    noEchoSum += val;
-                    noEchoCount++;
-                }
-            }
-        }
-
-        if (echoCount == 0 || noEchoCount == 0) // should not happen
-            return null;
-
-        final float echoMean = echoSum / echoCount;
-        final float noEchoMean = noEchoSum / noEchoCount;
-
-        if (echoMean > 2 * noEchoMean) {
-            final List<Point> points = new LinkedList<>();
-            int y = yPosition;
-            final Float[] colKeys = product.getOriginalColumnKeys();
-            for (int xx = colKeys.length - 1; xx >= 0; xx--) {
-                final int x = product.getDataPosition((float) Ionogram.MIN_DELAY_TIME,
-                        (float) Math.min(colKeys[xx], Ionogram.MAX_FREQUENCY)).y;
-                if (x < data.length / 2)
-                    break;
-
-                float max = 0;
-                int maxY = -1;
-                for (int yy = Math.min(y + 10, data[0].length - 1); yy >= y - 10; yy--) {
-                    if (data[x][yy] > max) {
-                        max = data[x][yy];
-                        maxY = yy;
-                    }
-                }
-
-                if (maxY < 0)
-                    break;
-
-                y = maxY;
-                if (max >= echoMean)
-                    points.add(new Point(x, y));
-            }
-
-            if (points.isEmpty())
-                return null;
-
-            Collections.reverse(points);
-            return new GroundEcho(points.toArray(new Point[0]));
-        }
-
-        return null;
-    }
-
-}
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import java.awt.Dimension;
+import java.util.ArrayList;
+import java.util.List;
+
+import cz.cuni.mff.peckam.ais.Ionogram;
+import cz.cuni.mff.peckam.ais.IonogramCube;
+import cz.cuni.mff.peckam.ais.Product;
+import cz.cuni.mff.peckam.ais.detection.DetectionContext.GroundEchoBand;
+
+/**
+ * Floating point numbers feature detector.
+ * 
+ * @author Martin Pecka
+ */
+public abstract class FloatFeatureDetector extends FeatureDetectorBase<Float>
+{
+    /** Products with lower mean value are considered featureless. */
+    private static final double MIN_MEAN = 2.45216E-16;
+
+    @Override
+    protected final boolean canHaveFeatures(Product<Float, ?, ?> product)
+    {
+        return canHaveFeatures(new DetectionContext(product));
+    }
+
+    /**
+     * Return true if the product is eligible for detection. Return true if e.g. stats show that it is not worth
+     * exploring.
+     * <p>
+     * The mean is the sequential float mean of {@link DetectionContext#getStatistics()}, on which the threshold has
+     * been calibrated; the (more precise) mean of the summed-area table may differ from it near the threshold.
+     * 
+     * @param context The context of the product.
+     * @return Whether to perform detection or the product is featureless.
+     */
+    protected boolean canHaveFeatures(DetectionContext context)
+    {
+        return canHaveFeatures(context.getStatistics().getMean());
+    }
+
+    /**
+     * Return true if a product with the given mean value is eligible for detection.
+     * 
+     * @param mean Mean of the data of the product.
+     * @return Whether to perform detection or the product is featureless.
+     */
+    protected boolean canHaveFeatures(double mean)
+    {
+        return mean >= MIN_MEAN;
+    }
+
+    /**
+     * Return true if the detector works directly with the original unevenly sampled frequency columns of ionograms, so
+     * it doesn't need them to be resampled (see {@link cz.cuni.mff.peckam.ais.EvenlySampledIonogram}).
+     * 
+     * @return Whether the detector can be run on ionograms that haven't been resampled.
+     */
+    public boolean acceptsNativeGrid()
+    {
+        return false;
+    }
+
+    @Override
+    public DetectionResult detectFeatures(Product<Float, ?, ?> product)
+    {
+        return detectFeatures(new DetectionContext(product));
+    }
+
+    /**
+     * Detect features in the product of the given context.
+     * <p>
+     * Several detectors may be run with the same context, so the data derived from the product are computed only once.
+     * 
+     * @param context The context of the product to detect features in.
+     * @return The detection result.
+     */
+    public DetectionResult detectFeatures(DetectionContext context)
+    {
+        return detectFeatures(context, null);
+    }
+
+    /**
+     * Detect features in the product of the given context using the result of a previous detection as a prior.
+     * <p>
+     * Neighboring frames of a sounding usually contain very similar features, so the detector may use the prior to
+     * narrow down its search. It falls back to a full search if the prior cannot be confirmed in the data. A prior
+     * detected in a product of different size is ignored.
+     * 
+     * @param context The context of the product to detect features in.
+     * @param prior Result of the detection in the previous frame. May be <code>null</code>.
+     * @return The detection result.
+     */
+    public DetectionResult detectFeatures(DetectionContext context, DetectionResult prior)
+    {
+        if (!canHaveFeatures(context)) {
+            final Product<Float, ?, ?> product = context.getProduct();
+            return new NoFeatureDetectionResult(product.getId(), new Dimension(product.getWidth(),
+                    product.getHeight()));
+        }
+
+        return detectFeaturesInEligible(context, prior);
+    }
+
+    /**
+     * Detect features in all frames of the given cube.
+     * <p>
+     * The detector may compute the data it needs for all the eligible frames at once (see
+     * {@link #prepareContexts(IonogramCube, DetectionContext[])}). The results are the same as the results of
+     * {@link #detectFeatures(DetectionContext, DetectionResult)} called on every frame, up to the rounding of the sums
+     * computed for the whole cube.
+     * 
+     * @param cube The cube of the frames to detect features in. Its frames have to be resampled unless the detector
+     *            {@link #acceptsNativeGrid() accepts the native grid}.
+     * @param warmStart Whether to pass the result of the previous frame to the detection as a prior.
+     * @return The detection results of all the frames.
+     */
+    public List<DetectionResult> detectFeatures(IonogramCube cube, boolean warmStart)
+    {
+        return detectFeatures(cube, null, warmStart, DetectionDiagnostics.DISABLED);
+    }
+
+    /**
+     * Detect features in all frames of the given cube except the frames already known to be featureless.
+     * 
+     * @param cube The cube of the frames to detect features in. Its frames have to be resampled unless the detector
+     *            {@link #acceptsNativeGrid() accepts the native grid}.
+     * @param featureless Frames known to be featureless (e.g. rejected by a {@link RejectionCascade}). The detector
+     *            returns {@link NoFeatureDetectionResult} for them. May be <code>null</code>.
+     * @param warmStart Whether to pass the result of the previous frame to the detection as a prior.
+     * @param diagnostics The sink for intermediate data of the detector.
+     * @return The detection results of all the frames.
+     * 
+     * @see #detectFeatures(IonogramCube, boolean)
+     */
+    public List<DetectionResult> detectFeatures(IonogramCube cube, boolean[] featureless, boolean warmStart,
+            DetectionDiagnostics diagnostics)
+    {
+        return detectFeatures(cube, DetectionContext.createContexts(cube, featureless, diagnostics), warmStart);
+    }
+
+    /**
+     * Detect features in all frames of the given cube using the given contexts of the frames.
+     * <p>
+     * The contexts may be shared by several detectors run on the cube, so that the data derived from the frames (and
+     * prepared by {@link #prepareContexts(IonogramCube, DetectionContext[])}) are computed only once. Whether a frame
+     * is featureless is decided by {@link #canHaveFeatures(DetectionContext)} as in the detection in a single frame.
+     * 
+     * @param cube The cube of the frames to detect features in. Its frames have to be resampled unless the detector
+     *            {@link #acceptsNativeGrid() accepts the native grid}.
+     * @param contexts The contexts of the frames (see
+     *            {@link DetectionContext#createContexts(IonogramCube, boolean[], DetectionDiagnostics)}).
+     *            <code>null</code> for the frames known to be featureless.
+     * @param warmStart Whether to pass the result of the previous frame to the detection as a prior.
+     * @return The detection results of all the frames.
+     */
+    public List<DetectionResult> detectFeatures(IonogramCube cube, DetectionContext[] contexts, boolean warmStart)
+    {
+        final int numFrames = cube.getNumFrames();
+        final DetectionContext[] eligible = new DetectionContext[numFrames];
+        for (int f = 0; f < numFrames; f++) {
+            if (contexts[f] != null && canHaveFeatures(contexts[f]))
+                eligible[f] = contexts[f];
+        }
+
+        prepareContexts(cube, eligible);
+
+        final List<DetectionResult> results = new ArrayList<>(numFrames);
+        DetectionResult prior = null;
+        for (int f = 0; f < numFrames; f++) {
+            final DetectionResult result;
+            if (eligible[f] == null) {
+                final Ionogram frame = cube.getFrame(f);
+                result = new NoFeatureDetectionResult(frame.getId(), new Dimension(frame.getWidth(),
+                        frame.getHeight()));
+            } else {
+                result = detectFeaturesInEligible(eligible[f], prior);
+            }
+            results.add(result);
+            if (warmStart)
+                prior = result;
+        }
+        return results;
+    }
+
+    /**
+     * Compute the data the detector needs for all the frames of the cube at once and store them in the contexts of the
+     * frames (e.g. as their attributes), so that the detection in the separate frames doesn't compute them again.
+     * <p>
+     * The contexts may be shared by several detectors, so the data other detectors have already stored in them should
+     * not be computed again. The default implementation does nothing.
+     * 
+     * @param cube The cube of the frames.
+     * @param contexts The contexts of the frames. <code>null</code> for the featureless frames.
+     */
+    protected void prepareContexts(IonogramCube cube, DetectionContext[] contexts)
+    {
+    }
+
+    /**
+     * Detect features in the product of the given context that has already been found eligible for detection.
+     * 
+     * @param context The context of the product to detect features in.
+     * @param prior Result of the detection in the previous frame. May be <code>null</code>.
+     * @return The detection result.
+     */
+    private DetectionResult detectFeaturesInEligible(DetectionContext context, DetectionResult prior)
+    {
+        final Product<Float, ?, ?> product = context.getProduct();
+        final Dimension size = new Dimension(product.getWidth(), product.getHeight());
+
+        final DetectionResult result = new DetectionResult(product.getId(), size);
+
+        final DetectionResult usablePrior = (prior != null && size.equals(prior.getSourceProductSize())) ? prior
+                : null;
+        for (DetectedFeature feature : detectFeaturesImpl(context, usablePrior))
+            result.addFeature(feature);
+
+        result.readProductData(product);
+
+        if (product instanceof Ionogram) {
+            final Ionogram iono = (Ionogram) product;
+            if (iono.getAltitude() != null) {
+                final DetectedFeature echo = detectGroundEcho(context, iono.getAltitude());
+                if (echo != null) {
+                    result.addFeature(echo);
+                    result.readProductData(iono);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    protected final List<DetectedFeature> detectFeaturesImpl(Product<Float, ?, ?> product)
+    {
+        return detectFeaturesImpl(new DetectionContext(product));
+    }
+
+    /**
+     * Detect features in the product of the given context.
+     * 
+     * @param context The context of the product to detect features in.
+     * @return All detected features in a list.
+     */
+    protected abstract List<DetectedFeature> detectFeaturesImpl(DetectionContext context);
+
+    /**
+     * Detect features in the product of the given context using the result of a previous detection as a prior.
+     * <p>
+     * The default implementation ignores the prior.
+     * 
+     * @param context The context of the product to detect features in.
+     * @param prior Result of the detection in the previous frame of the same size. May be <code>null</code>.
+     * @return All detected features in a list.
+     */
+    protected List<DetectedFeature> detectFeaturesImpl(DetectionContext context, DetectionResult prior)
+    {
+        return detectFeaturesImpl(context);
+    }
+
+    /**
+     * @param context The context of the ionogram.
+     * @param altitude Altitude over ground in km.
+     * @return The ground echo.
+     */
+    protected DetectedFeature detectGroundEcho(DetectionContext context, float altitude)
+    {
+        final GroundEchoBand band = context.getGroundEchoBand();
+        if (band == null)
+            return null;
+
+        final float[][] data = context.getData();
+        final float echoMean = band.getEchoMean();
+
+        if (echoMean > 2 * band.getNoEchoMean()) {
+            final PackedTrace points = new PackedTrace();
+            int y = band.getYPosition();
+            final int[] columns = context.getOriginalColumnPositions();
+            for (int xx = columns.length - 1; xx >= 0; xx--) {
+                final int x = columns[xx];
+                if (x < data.length / 2)
+                    break;
+
+                float max = 0;
+                int maxY = -1;
+                for (int yy = Math.min(y + 10, data[0].length - 1); yy >= Math.max(y - 10, 0); yy--) {
+                    if (data[x][yy] > max) {
+                        max = data[x][yy];
+                        maxY = yy;
+                    }
+                }
+
+                if (maxY < 0)
+                    break;
+
+                y = maxY;
+                if (max >= echoMean)
+                    points.add(x, y);
+            }
+
+            if (points.isEmpty())
+                return null;
+
+            points.reverse();
+            return new GroundEcho(points);
+        }
+
+        return null;
+    }
+
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import java.awt.Point;
+import java.util.Arrays;
+
+/**
+ * A trace of a curve in image coordinates stored in a single primitive array.
+ * <p>
+ * The coordinates of the <code>i</code>-th point are stored at indices <code>2 * i</code> (x) and
+ * <code>2 * i + 1</code> (y), so a trace of any length is a single object instead of an object per point. The trace
+ * grows as points are added to it.
+ * 
+ * @author Martin Pecka
+ */
+public class PackedTrace
+{
+    /** The default number of points the trace has space for. */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** The coordinates of the points. */
+    private int[]            coordinates;
+
+    /** Number of points of the trace. */
+    private int              size = 0;
+
+    /**
+     * Create an empty trace.
+     */
+    public PackedTrace()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create an empty trace.
+     * 
+     * @param capacity The number of points the trace has space for before it has to grow.
+     */
+    public PackedTrace(int capacity)
+    {
+        this.coordinates = new int[2 * Math.max(capacity, 1)];
+    }
+
+    /**
+     * Create a trace of the given points.
+     * 
+     * @param points The points of the trace.
+     */
+    public PackedTrace(Point... points)
+    {
+        this(points.length);
+        for (Point point : points)
+            add(point.x, point.y);
+    }
+
+    /**
+     * Add a point to the end of the trace.
+     * 
+     * @param x The x coordinate of the point.
+     * @param y The y coordinate of the point.
+     */
+    public void add(int x, int y)
+    {
+        if (2 * size == coordinates.length)
+            coordinates = Arrays.copyOf(coordinates, 2 * coordinates.length);
+        coordinates[2 * size] = x;
+        coordinates[2 * size + 1] = y;
+        size++;
+    }
+
+    /**
+     * @return Number of points of the trace.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return Whether the trace has no points.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * @param index Index of the point (lower than {@link #size()}).
+     * @return The x coordinate of the point.
+     */
+    public int getX(int index)
+    {
+        return coordinates[2 * index];
+    }
+
+    /**
+     * @param index Index of the point (lower than {@link #size()}).
+     * @return The y coordinate of the point.
+     */
+    public int getY(int index)
+    {
+        return coordinates[2 * index + 1];
+    }
+
+    /**
+     * Reverse the order of the points.
+     */
+    public void reverse()
+    {
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            final int x = coordinates[2 * i], y = coordinates[2 * i + 1];
+            coordinates[2 * i] = coordinates[2 * j];
+            coordinates[2 * i + 1] = coordinates[2 * j + 1];
+            coordinates[2 * j] = x;
+            coordinates[2 * j + 1] = y;
+        }
+    }
+
+    /**
+     * @return The points of the trace as new objects.
+     */
+    public Point[] toPoints()
+    {
+        final Point[] result = new Point[size];
+        for (int i = 0; i < size; i++)
+            result[i] = new Point(coordinates[2 * i], coordinates[2 * i + 1]);
+        return result;
+    }
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder result = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0)
+                result.append(", ");
+            result.append('(').append(coordinates[2 * i]).append(", ").append(coordinates[2 * i + 1]).append(')');
+        }
+        return result.append(']').toString();
+    }
+}
@@ -0,0 +1,398 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import cz.cuni.mff.peckam.ais.IonogramCube;
+import cz.cuni.mff.peckam.ais.Product;
+
+/**
+ * A cheap test telling if an (original, not resampled) ionogram is empty and there is no need to resample it and
+ * perform the detection.
+ * <p>
+ * The cascade consists of stages, each of them comparing one statistical feature of the data to a threshold. The
+ * ionogram is rejected as empty as soon as one of the features is lower than its threshold. The features are computed
+ * only when they are needed, so that a rejected ionogram is mostly processed in a single pass.
+ * <p>
+ * The thresholds are computed from the statistics written by the <code>IonogramStatistics</code> tool so that the
+ * ratio of rejected ionograms containing some features doesn't exceed the given false negative budget.
+ * 
+ * @author Martin Pecka
+ */
+public class RejectionCascade
+{
+    /** The stages in the order of evaluation. */
+    private final List<Stage> stages;
+
+    /**
+     * @param stages The stages of the cascade. The stages using the standard deviation are evaluated last, since they
+     *            need another pass through the data.
+     */
+    public RejectionCascade(List<Stage> stages)
+    {
+        final List<Stage> sorted = new ArrayList<>(stages);
+        Collections.sort(sorted, new Comparator<Stage>() {
+            @Override
+            public int compare(Stage o1, Stage o2)
+            {
+                return Boolean.compare(o1.getFeature() == Feature.STANDARD_DEVIATION,
+                        o2.getFeature() == Feature.STANDARD_DEVIATION);
+            }
+        });
+        this.stages = Collections.unmodifiableList(sorted);
+    }
+
+    /**
+     * @return The stages in the order of evaluation.
+     */
+    public List<Stage> getStages()
+    {
+        return stages;
+    }
+
+    /**
+     * Return true if the given product is considered empty.
+     * 
+     * @param product The product to test (an original ionogram, not the resampled one).
+     * @return Whether the product is empty and the detection can be skipped.
+     */
+    public boolean rejects(Product<Float, ?, ?> product)
+    {
+        if (stages.isEmpty())
+            return false;
+
+        final Float[][] data = product.getData();
+        final int numItems = data.length * data[0].length;
+
+        // mean and max in a single pass
+        float sum = 0, max = 0;
+        for (int x = 0; x < data.length; x++) {
+            for (int y = 0; y < data[0].length; y++) {
+                final float val = data[x][y];
+                sum += val;
+                if (val > max)
+                    max = val;
+            }
+        }
+        final float mean = sum / numItems;
+
+        float sd = Float.NaN;
+        for (Stage stage : stages) {
+            final float value;
+            switch (stage.getFeature()) {
+                case MEAN:
+                    value = mean;
+                    break;
+                case MAX:
+                    value = max;
+                    break;
+                case STANDARD_DEVIATION:
+                    if (Float.isNaN(sd)) {
+                        float sdSum = 0;
+                        for (int x = 0; x < data.length; x++) {
+                            for (int y = 0; y < data[0].length; y++) {
+                                sdSum += Math.pow(data[x][y] - mean, 2);
+                            }
+                        }
+                        sd = (float) Math.sqrt(sdSum / numItems);
+                    }
+                    value = sd;
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown feature " + stage.getFeature());
+            }
+
+            if (value < stage.getThreshold())
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Return for every frame of the given cube whether it is considered empty.
+     * <p>
+     * The cascade is evaluated stage by stage for all frames of the cube at once, so every feature is computed in one
+     * sweep through the cube, and only for the frames not rejected by the previous stages. The results are the same as
+     * the results of {@link #rejects(Product)} called on every frame.
+     * 
+     * @param cube The cube of the original ionograms (not the resampled ones).
+     * @return For every frame whether it is empty and the detection can be skipped.
+     */
+    public boolean[] rejects(IonogramCube cube)
+    {
+        final boolean[] result = new boolean[cube.getNumFrames()];
+        if (stages.isEmpty())
+            return result;
+
+        final float[] means = cube.getMeans();
+        float[] maxima = null, sds = null;
+        for (Stage stage : stages) {
+            final float[] values;
+            switch (stage.getFeature()) {
+                case MEAN:
+                    values = means;
+                    break;
+                case MAX:
+                    if (maxima == null)
+                        maxima = cube.getMaxima();
+                    values = maxima;
+                    break;
+                case STANDARD_DEVIATION:
+                    if (sds == null)
+                        sds = cube.getStandardDeviations(means, result);
+                    values = sds;
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown feature " + stage.getFeature());
+            }
+
+            for (int f = 0; f < result.length; f++) {
+                if (values[f] < stage.getThreshold())
+                    result[f] = true;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Compute the cascade from the statistics written by the <code>IonogramStatistics</code> tool.
+     * <p>
+     * The statistics directory should contain the files <code>mean</code>, <code>sd</code> and <code>max</code> (the
+     * missing ones are skipped), each line consisting of the value of the feature and a label (1 if the ionogram
+     * contains some features, 0 otherwise). The false negative budget is divided evenly among the features, and a
+     * feature not rejecting any empty ionogram isn't used at all.
+     * 
+     * @param statisticsDir The directory with the statistics.
+     * @param falseNegativeBudget The maximum ratio of rejected ionograms containing some features (0 to 1).
+     * @return The calibrated cascade.
+     * 
+     * @throws IOException If the statistics cannot be read.
+     */
+    public static RejectionCascade calibrate(File statisticsDir, double falseNegativeBudget) throws IOException
+    {
+        if (falseNegativeBudget < 0 || falseNegativeBudget > 1)
+            throw new IllegalArgumentException("The false negative budget has to be between 0 and 1.");
+
+        final Map<Feature, float[][]> samples = new EnumMap<>(Feature.class);
+        for (Feature feature : Feature.values()) {
+            final File file = new File(statisticsDir, feature.getStatisticsFileName());
+            if (file.exists())
+                samples.put(feature, readStatistics(file));
+        }
+
+        if (samples.isEmpty())
+            throw new IOException("No statistics found in " + statisticsDir);
+
+        final double featureBudget = falseNegativeBudget / samples.size();
+        final List<Stage> stages = new ArrayList<>(samples.size());
+        final List<Integer> rejectedEmpty = new ArrayList<>(samples.size());
+        for (Map.Entry<Feature, float[][]> entry : samples.entrySet()) {
+            final float[] positive = entry.getValue()[0];
+            final float[] negative = entry.getValue()[1];
+            if (positive.length == 0)
+                continue;
+
+            Arrays.sort(positive);
+            // at most this number of positive samples is lower than the threshold
+            final int allowedFalseNegatives = (int) Math.floor(featureBudget * positive.length);
+            final float threshold = positive[Math.min(allowedFalseNegatives, positive.length - 1)];
+
+            int rejected = 0;
+            for (float value : negative) {
+                if (value < threshold)
+                    rejected++;
+            }
+
+            if (rejected > 0) {
+                // order the stages by the number of rejected empty ionograms
+                int i = 0;
+                while (i < rejectedEmpty.size() && rejectedEmpty.get(i) >= rejected)
+                    i++;
+                stages.add(i, new Stage(entry.getKey(), threshold));
+                rejectedEmpty.add(i, rejected);
+            }
+        }
+
+        return new RejectionCascade(stages);
+    }
+
+    /**
+     * Read the statistics of one feature.
+     * 
+     * @param file The file with the statistics.
+     * @return Two arrays, the first one with the values of ionograms with features, the second one with the values of
+     *         empty ionograms.
+     * 
+     * @throws IOException If the file cannot be read.
+     */
+    private static float[][] readStatistics(File file) throws IOException
+    {
+        final List<Float> positive = new ArrayList<>();
+        final List<Float> negative = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty())
+                    continue;
+
+                final String[] parts = line.split("\\s+");
+                if (parts.length < 2)
+                    throw new IOException("Invalid line in " + file + ": " + line);
+
+                try {
+                    final float value = Float.parseFloat(parts[0]);
+                    if ("1".equals(parts[1]))
+                        positive.add(value);
+                    else
+                        negative.add(value);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid line in " + file + ": " + line, e);
+                }
+            }
+        }
+
+        return new float[][] { toArray(positive), toArray(negative) };
+    }
+
+    /**
+     * @param list The list.
+     * @return The list converted to an array.
+     */
+    private static float[] toArray(List<Float> list)
+    {
+        final float[] result = new float[list.size()];
+        int i = 0;
+        for (Float f : list)
+            result[i++] = f;
+        return result;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Rejection cascade " + stages;
+    }
+
+    /**
+     * The statistical features of ionograms. They are computed the same way as the <code>IonogramStatistics</code>
+     * tool computes them.
+     * 
+     * @author Martin Pecka
+     */
+    public enum Feature
+    {
+        /** The mean value. */
+        MEAN("mean"),
+        /** The standard deviation. */
+        STANDARD_DEVIATION("sd"),
+        /** The maximum value. */
+        MAX("max");
+
+        /** Name of the file the <code>IonogramStatistics</code> tool writes the feature to. */
+        private final String statisticsFileName;
+
+        /**
+         * @param statisticsFileName Name of the file the <code>IonogramStatistics</code> tool writes the feature to.
+         */
+        private Feature(String statisticsFileName)
+        {
+            this.statisticsFileName = statisticsFileName;
+        }
+
+        /**
+         * @return Name of the file the <code>IonogramStatistics</code> tool writes the feature to.
+         */
+        public String getStatisticsFileName()
+        {
+            return statisticsFileName;
+        }
+    }
+
+    /**
+     * A stage of the cascade.
+     * 
+     * @author Martin Pecka
+     */
+    public static class Stage
+    {
+        /** The tested feature. */
+        private final Feature feature;
+        /** Ionograms with the feature lower than this threshold are rejected. */
+        private final float   threshold;
+
+        /**
+         * @param feature The tested feature.
+         * @param threshold Ionograms with the feature lower than this threshold are rejected.
+         */
+        public Stage(Feature feature, float threshold)
+        {
+            this.feature = feature;
+            this.threshold = threshold;
+        }
+
+        /**
+         * @return The tested feature.
+         */
+        public Feature getFeature()
+        {
+            return feature;
+        }
+
+        /**
+         * @return Ionograms with the feature lower than this threshold are rejected.
+         */
+        public float getThreshold()
+        {
+            return threshold;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format(Locale.ENGLISH, "%s < %e", feature, threshold);
+        }
+    }
+}
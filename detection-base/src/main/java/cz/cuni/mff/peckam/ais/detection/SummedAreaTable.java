@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+/**
+ * Summed-area table (integral image) of 2D data stored in a flat array.
+ * <p>
+ * The table is built in a single pass over the data and then the sum of any axis-aligned rectangle is computed from
+ * four lookups. The sums are accumulated in double precision, because the values of ionograms span many orders of
+ * magnitude and float partial sums over the whole image would swallow the small values.
+ * <p>
+ * All ranges are given as <code>from</code> (inclusive) and <code>to</code> (exclusive) and are clipped to the
+ * size of the data.
+ * 
+ * @author Martin Pecka
+ */
+public class SummedAreaTable
+{
+    /** Width of the data. */
+    private final int      width;
+
+    /** Height of the data. */
+    private final int      height;
+
+    /** Height of a column of the table (one more than the height of the data). */
+    private final int      stride;
+
+    /**
+     * The sums. The value at <code>[x * stride + y]</code> is the sum of all data with coordinates lower than
+     * <code>x</code> and <code>y</code>.
+     */
+    private final double[] table;
+
+    /**
+     * @param data The data in a flat array.
+     * @param width Width of the data.
+     * @param height Height of the data.
+     */
+    public SummedAreaTable(float[] data, int width, int height)
+    {
+        this.width = width;
+        this.height = height;
+        this.stride = height + 1;
+        this.table = new double[(width + 1) * stride];
+
+        for (int x = 0; x < width; x++) {
+            final int src = x * height, prev = x * stride, dst = prev + stride;
+            double columnSum = 0;
+            for (int y = 0; y < height; y++) {
+                columnSum += data[src + y];
+                table[dst + y + 1] = table[prev + y + 1] + columnSum;
+            }
+        }
+    }
+
+    /**
+     * @return Width of the data.
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * @return Height of the data.
+     */
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Return the sum of the data in the given rectangle.
+     * 
+     * @param fromX The first column (inclusive).
+     * @param fromY The first row (inclusive).
+     * @param toX The last column (exclusive).
+     * @param toY The last row (exclusive).
+     * @return The sum.
+     */
+    public double getSum(int fromX, int fromY, int toX, int toY)
+    {
+        final int x0 = clip(fromX, width), x1 = clip(toX, width);
+        final int y0 = clip(fromY, height), y1 = clip(toY, height);
+        if (x0 >= x1 || y0 >= y1)
+            return 0;
+        return table[x1 * stride + y1] - table[x0 * stride + y1] - table[x1 * stride + y0] + table[x0 * stride + y0];
+    }
+
+    /**
+     * @return The sum of all the data.
+     */
+    public double getSum()
+    {
+        return table[width * stride + height];
+    }
+
+    /**
+     * Return the mean of the data in the given rectangle.
+     * 
+     * @param fromX The first column (inclusive).
+     * @param fromY The first row (inclusive).
+     * @param toX The last column (exclusive).
+     * @param toY The last row (exclusive).
+     * @return The mean. <code>NaN</code> if the rectangle is empty.
+     */
+    public double getMean(int fromX, int fromY, int toX, int toY)
+    {
+        return getSum(fromX, fromY, toX, toY) / getArea(fromX, fromY, toX, toY);
+    }
+
+    /**
+     * @return The mean of all the data.
+     */
+    public double getMean()
+    {
+        return getSum() / ((long) width * height);
+    }
+
+    /**
+     * Return the number of data values in the given rectangle.
+     * 
+     * @param fromX The first column (inclusive).
+     * @param fromY The first row (inclusive).
+     * @param toX The last column (exclusive).
+     * @param toY The last row (exclusive).
+     * @return The number of values in the rectangle after clipping it to the data.
+     */
+    public int getArea(int fromX, int fromY, int toX, int toY)
+    {
+        final int w = clip(toX, width) - clip(fromX, width), h = clip(toY, height) - clip(fromY, height);
+        return (w > 0 && h > 0) ? w * h : 0;
+    }
+
+    /**
+     * Return the sums of all rows in the given range of columns.
+     * 
+     * @param fromX The first column to sum (inclusive).
+     * @param toX The last column to sum (exclusive).
+     * @return The row sums (one value for every row).
+     */
+    public float[] getRowSums(int fromX, int toX)
+    {
+        final float[] result = new float[height];
+        final int x0 = clip(fromX, width) * stride, x1 = clip(toX, width) * stride;
+        if (x0 >= x1)
+            return result;
+        for (int y = 0; y < height; y++)
+            result[y] = (float) (table[x1 + y + 1] - table[x0 + y + 1] - table[x1 + y] + table[x0 + y]);
+        return result;
+    }
+
+    /**
+     * Return the sums of the whole columns in the given range of columns.
+     * 
+     * @param fromX The first column to sum (inclusive).
+     * @param toX The last column to sum (exclusive).
+     * @return The column sums (one value for every column in the range).
+     */
+    public float[] getColumnSums(int fromX, int toX)
+    {
+        final float[] result = new float[Math.max(toX - fromX, 0)];
+        for (int x = Math.max(fromX, 0); x < Math.min(toX, width); x++)
+            result[x - fromX] = (float) getSum(x, 0, x + 1, height);
+        return result;
+    }
+
+    /**
+     * @param value The value to clip.
+     * @param max The maximal allowed value.
+     * @return The value clipped to <code>&lt;0; max&gt;</code>.
+     */
+    private static int clip(int value, int max)
+    {
+        return Math.max(0, Math.min(max, value));
+    }
+}
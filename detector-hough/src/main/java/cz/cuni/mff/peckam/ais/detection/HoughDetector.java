@@ -0,0 +1,308 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import static cz.cuni.mff.peckam.ais.detection.VectorizationDetector.invokeInParallel;
+import static cz.cuni.mff.peckam.ais.detection.VectorizationDetector.processLinesInParallel;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinTask;
+
+import cz.cuni.mff.peckam.ais.AISLBLProductReader;
+import cz.cuni.mff.peckam.ais.EvenlySampledIonogram;
+import cz.cuni.mff.peckam.ais.Ionogram;
+import cz.cuni.mff.peckam.ais.Tuple;
+import cz.cuni.mff.peckam.ais.detection.VectorizationDetector.LineProcessor;
+
+/**
+ * Detector of the repeating lines using the Hough transform.
+ * <p>
+ * The left half of the data is thinned the same way the thinning strategy of {@link VectorizationDetector} does it, and
+ * only the runs of the ridge pixels along the lines vote for the families of equally spaced lines in a
+ * {@link PeriodAccumulator}. The plasma harmonics are found among the vertical runs and the cyclotron echoes among the
+ * horizontal ones; both searches run in parallel. The ground echo is left to {@link FloatFeatureDetector}.
+ * 
+ * @author Martin Pecka
+ */
+public class HoughDetector extends FloatFeatureDetector
+{
+    /** The number of columns on each side a value has to be the maximum of to be a pixel of a vertical ridge. */
+    private static final int   HORIZONTAL_THINNING_RADIUS = 3;
+    /** The number of rows on each side a value has to be the maximum of to be a pixel of a horizontal ridge. */
+    private static final int   VERTICAL_THINNING_RADIUS   = 10;
+    /** The minimum number of pixels of a vertical run of ridge pixels that votes for the plasma harmonics. */
+    private static final int   MIN_VERTICAL_RUN_LENGTH    = 16;
+    /** The minimum number of pixels of a horizontal run of ridge pixels that votes for the cyclotron echoes. */
+    private static final int   MIN_HORIZONTAL_RUN_LENGTH  = 6;
+    /** The shortest searched period in pixels. */
+    private static final float MIN_PERIOD                 = 4;
+    /** The minimum number of lines of a family that fit in the searched part of the data. */
+    private static final int   MIN_REPEATS                = 3;
+    /** The number of searched periods per pixel. */
+    private static final int   PERIOD_RESOLUTION          = 4;
+    /**
+     * The maximal distance of the runs voting for a line from the line (the lines snap to the original samples). The
+     * short periods use less, see {@link PeriodAccumulator#findPeak(int, float)}.
+     */
+    private static final int   LINE_TOLERANCE             = 4;
+    /** The minimum ratio of the votes for a family of lines and the votes it would get from uniformly spread runs. */
+    private static final float MIN_VOTE_RATIO             = 2;
+
+    @Override
+    protected List<DetectedFeature> detectFeaturesImpl(final DetectionContext context)
+    {
+        final float[][] data = context.getData();
+
+        // both searches only read the data
+        final ForkJoinTask<DetectedFeature> hPeriod = ForkJoinTask.adapt(new Callable<DetectedFeature>() {
+            @Override
+            public DetectedFeature call()
+            {
+                return detectHPeriod(data, context);
+            }
+        });
+        final ForkJoinTask<DetectedFeature> vPeriod = ForkJoinTask.adapt(new Callable<DetectedFeature>() {
+            @Override
+            public DetectedFeature call()
+            {
+                return detectVPeriod(data, context);
+            }
+        });
+        invokeInParallel(hPeriod, vPeriod);
+
+        final List<DetectedFeature> result = new LinkedList<>();
+        if (hPeriod.join() != null)
+            result.add(hPeriod.join());
+        if (vPeriod.join() != null)
+            result.add(vPeriod.join());
+        return result;
+    }
+
+    /**
+     * Find the plasma harmonics among the vertical ridges of the left half of the data.
+     * 
+     * @param data The data.
+     * @param context The context of the product (used for publishing diagnostics).
+     * @return The plasma harmonics. <code>null</code> if there are none.
+     */
+    private static DetectedFeature detectHPeriod(float[][] data, DetectionContext context)
+    {
+        final int w = data.length / 2, h = data[0].length;
+        final float[][] thinned = new float[w][];
+        for (int x = 0; x < w; x++)
+            thinned[x] = data[x].clone();
+
+        processLinesInParallel(0, h, new LineProcessor() {
+            @Override
+            public void process(int from, int to)
+            {
+                new NonMaximumSuppression(HORIZONTAL_THINNING_RADIUS).suppressAlongX(thinned, from, to);
+            }
+        });
+        context.publishDiagnostics("houghHorizThinned", thinned);
+
+        final RidgeMap ridges = new RidgeMap(thinned);
+        final Runs runs = new Runs();
+        for (int x = 0; x < w; x++)
+            runs.addRuns(x, ridges.getColumn(x), MIN_VERTICAL_RUN_LENGTH);
+        // the resampling spreads the original columns to plateaus, which the thinning leaves as several ridges
+        runs.merge(HORIZONTAL_THINNING_RADIUS + 1);
+
+        final Tuple<Integer, Double> peak = runs.findPeak(w);
+        if (peak == null)
+            return null;
+        return new ElectronPlasmaOscillation(peak.getX(), peak.getY(), runs.getEnd(peak));
+    }
+
+    /**
+     * Find the cyclotron echoes among the horizontal ridges of the left half of the data.
+     * 
+     * @param data The data.
+     * @param context The context of the product (used for publishing diagnostics).
+     * @return The cyclotron echoes. <code>null</code> if there are none.
+     */
+    private static DetectedFeature detectVPeriod(float[][] data, DetectionContext context)
+    {
+        final int w = data.length / 2, h = data[0].length;
+        final float[][] thinned = new float[w][];
+        for (int x = 0; x < w; x++)
+            thinned[x] = data[x].clone();
+
+        processLinesInParallel(0, w, new LineProcessor() {
+            @Override
+            public void process(int from, int to)
+            {
+                new NonMaximumSuppression(VERTICAL_THINNING_RADIUS).suppressAlongY(thinned, from, to);
+            }
+        });
+        context.publishDiagnostics("houghVertThinned", thinned);
+
+        final RidgeMap ridges = new RidgeMap(thinned);
+        final Runs runs = new Runs();
+        for (int y = 0; y < h; y++)
+            runs.addRuns(y, ridges.getRow(y), MIN_HORIZONTAL_RUN_LENGTH);
+
+        final Tuple<Integer, Double> peak = runs.findPeak(h);
+        if (peak == null)
+            return null;
+        return new ElectronCyclotronEchoes(peak.getX(), peak.getY(), runs.getEnd(peak));
+    }
+
+    /**
+     * The runs of ridge pixels along the searched lines. Each run is a vote for the lines at its position weighted by
+     * the number of its pixels.
+     * 
+     * @author Martin Pecka
+     */
+    private static class Runs
+    {
+        /** Positions of the runs across the lines. */
+        private float[] positions = new float[64];
+        /** Numbers of pixels of the runs. */
+        private float[] lengths   = new float[64];
+        /** Positions of the ends of the runs along the lines. */
+        private int[]   ends      = new int[64];
+        /** The number of runs. */
+        private int     count;
+
+        /**
+         * Add the runs of consecutive ridge pixels that are long enough.
+         * 
+         * @param position Position of the line of pixels across the searched lines.
+         * @param pixels Sorted indices of the ridge pixels in the line.
+         * @param minLength The minimum number of pixels of a run.
+         */
+        void addRuns(int position, int[] pixels, int minLength)
+        {
+            for (int start = 0, end = 1; start < pixels.length; start = end++) {
+                while (end < pixels.length && pixels[end] == pixels[end - 1] + 1)
+                    end++;
+
+                if (end - start >= minLength) {
+                    if (count == positions.length) {
+                        positions = Arrays.copyOf(positions, 2 * count);
+                        lengths = Arrays.copyOf(lengths, 2 * count);
+                        ends = Arrays.copyOf(ends, 2 * count);
+                    }
+                    positions[count] = position;
+                    lengths[count] = end - start;
+                    ends[count] = pixels[end - 1];
+                    count++;
+                }
+            }
+        }
+
+        /**
+         * Merge the runs closer to each other than the given distance (across the lines) to a single run at their
+         * weighted mean position. The runs have to be added in the order of their positions.
+         * 
+         * @param maxDistance The maximal distance of two neighboring merged runs.
+         */
+        void merge(int maxDistance)
+        {
+            int merged = -1;
+            float last = Float.NEGATIVE_INFINITY;
+            for (int i = 0; i < count; i++) {
+                final float position = positions[i];
+                if (merged >= 0 && position - last <= maxDistance) {
+                    final float length = lengths[merged] + lengths[i];
+                    positions[merged] = (positions[merged] * lengths[merged] + position * lengths[i]) / length;
+                    lengths[merged] = length;
+                    ends[merged] = Math.max(ends[merged], ends[i]);
+                } else {
+                    merged++;
+                    positions[merged] = position;
+                    lengths[merged] = lengths[i];
+                    ends[merged] = ends[i];
+                }
+                last = position;
+            }
+            count = merged + 1;
+        }
+
+        /**
+         * Find the best family of lines the runs vote for.
+         * 
+         * @param length The size of the searched part of the data across the lines.
+         * @return The offset and period of the lines. <code>null</code> if there are none.
+         */
+        Tuple<Integer, Double> findPeak(int length)
+        {
+            if (count == 0)
+                return null;
+
+            final PeriodAccumulator accumulator = new PeriodAccumulator(MIN_PERIOD, (float) length / MIN_REPEATS,
+                    PERIOD_RESOLUTION);
+            accumulator.vote(positions, lengths, count);
+            return accumulator.findPeak(LINE_TOLERANCE, MIN_VOTE_RATIO);
+        }
+
+        /**
+         * @param lines The offset and period of the lines.
+         * @return The furthest end of the runs voting for the lines.
+         */
+        int getEnd(Tuple<Integer, Double> lines)
+        {
+            final int offset = lines.getX();
+            final double period = lines.getY();
+            int result = 0;
+            for (int i = 0; i < count; i++) {
+                final double phase = (positions[i] - offset) % period;
+                final double distance = Math.min(Math.abs(phase), period - Math.abs(phase));
+                if (distance <= LINE_TOLERANCE && ends[i] > result)
+                    result = ends[i];
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Test the detector on the given ionogram.
+     * 
+     * @param args 0 =&gt; Orbit file, 1 =&gt; position of the ionogram in the file.
+     * 
+     * @throws IOException On IO exception.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        final File orbitFile = new File(args[0]);
+        final int position = Integer.parseInt(args[1]);
+
+        final Ionogram ionogram = new EvenlySampledIonogram(new AISLBLProductReader().readFile(orbitFile)[position]);
+        System.out.println(new HoughDetector().detectFeatures(ionogram));
+    }
+
+}
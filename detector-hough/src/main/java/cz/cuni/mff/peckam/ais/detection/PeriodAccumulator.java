@@ -0,0 +1,322 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import static cz.cuni.mff.peckam.ais.detection.VectorizationDetector.invokeInParallel;
+
+import java.util.concurrent.RecursiveAction;
+
+import cz.cuni.mff.peckam.ais.Tuple;
+
+/**
+ * Hough accumulator for families of equally spaced lines.
+ * <p>
+ * A family of lines is given by its period and by the offset of its first line, which is the phase of the lines
+ * within the period. Each period is split into one-pixel phase bins, so the accumulator only has <code>period</code>
+ * cells for every tested period. A vote at the given position goes to the bin of its phase, shared linearly by the two
+ * nearest bins (so that the lines with a non-integer period don't spread over the neighboring bins). If the period is
+ * not an integer, the last bin is only as far from the first one as the fractional part of the period.
+ * <p>
+ * The cells of all the periods are stored in a single flat array. The rows of different periods are independent, so
+ * they are voted into in parallel.
+ * 
+ * @author Martin Pecka
+ */
+final class PeriodAccumulator
+{
+    /** Minimum number of periods voted into by a single task. */
+    private static final int MIN_PERIODS_PER_TASK = 64;
+
+    /** The smallest tested period. */
+    private final float      minPeriod;
+
+    /** The number of tested periods per pixel. */
+    private final int        resolution;
+
+    /** The number of tested periods. */
+    private final int        numPeriods;
+
+    /** Index of the first cell of each period; the last value is the number of cells. */
+    private final int[]      rowStarts;
+
+    /** The votes. */
+    private final float[]    cells;
+
+    /** The sum of weights of all votes. */
+    private float            total;
+
+    /**
+     * @param minPeriod The smallest tested period (at least 1).
+     * @param maxPeriod The largest tested period.
+     * @param resolution The number of tested periods per pixel.
+     */
+    PeriodAccumulator(float minPeriod, float maxPeriod, int resolution)
+    {
+        if (minPeriod < 1)
+            throw new IllegalArgumentException("The periods have to be at least 1 px long.");
+
+        this.minPeriod = minPeriod;
+        this.resolution = resolution;
+        this.numPeriods = Math.max((int) ((maxPeriod - minPeriod) * resolution) + 1, 0);
+        this.rowStarts = new int[numPeriods + 1];
+        for (int i = 0; i < numPeriods; i++)
+            rowStarts[i + 1] = rowStarts[i] + (int) Math.ceil(getPeriod(i));
+        this.cells = new float[rowStarts[numPeriods]];
+    }
+
+    /**
+     * @param index Index of the tested period.
+     * @return The period.
+     */
+    float getPeriod(int index)
+    {
+        return minPeriod + (float) index / resolution;
+    }
+
+    /**
+     * @return The number of tested periods.
+     */
+    int getNumPeriods()
+    {
+        return numPeriods;
+    }
+
+    /**
+     * Vote for all the families of lines passing through the given positions.
+     * 
+     * @param positions The positions of the votes.
+     * @param weights The weights of the votes.
+     * @param count The number of votes to use from the arrays.
+     */
+    void vote(float[] positions, float[] weights, int count)
+    {
+        for (int i = 0; i < count; i++)
+            total += weights[i];
+        invokeInParallel(new VoteAction(positions, weights, count, 0, numPeriods));
+    }
+
+    /**
+     * Find the family of lines that has got the most votes above the votes expected if they were distributed uniformly
+     * (the longer periods collect less votes in their bins). The votes in the bins closer than <code>tolerance</code>
+     * to the offset are counted for the lines, so that lines that are not exactly equally spaced are found, too. All
+     * the cells are visited only once, the sums of the bins around the offsets are updated as a sliding window.
+     * <p>
+     * The lines can't get more votes than all the votes, so the counted bins of the short periods have to cover less
+     * than <code>1 / minVoteRatio</code> of the period; they are limited to a half of it. The lines of a period have
+     * all the votes of the lines of its multiples, so the found lines are replaced by the lines of their double or
+     * triple period if some of the lines of the found period have got (nearly) no votes.
+     * 
+     * @param tolerance The maximal distance (in bins) of the counted votes from the lines.
+     * @param minVoteRatio The minimum ratio of the votes of the lines and the votes expected for them.
+     * @return The offset and period of the best family of lines. <code>null</code> if no family got at least
+     *         <code>minVoteRatio</code> times more votes than expected.
+     */
+    Tuple<Integer, Double> findPeak(int tolerance, float minVoteRatio)
+    {
+        float bestScore = 0;
+        int bestPeriod = -1, bestOffset = -1;
+        for (int i = 0; i < numPeriods; i++) {
+            final float period = getPeriod(i);
+            final int start = rowStarts[i], bins = rowStarts[i + 1] - start;
+            final int radius = getRadius(i, tolerance, minVoteRatio);
+            // the first and last bins only cover the half of the (possibly shorter) gap between them
+            final float edgeWidth = (1 + period - (bins - 1)) / 2;
+
+            float window = 0, width = 0;
+            for (int bin = -radius; bin <= radius; bin++) {
+                window += cells[start + (bin + bins) % bins];
+                width += getBinWidth((bin + bins) % bins, bins, edgeWidth);
+            }
+
+            for (int bin = 0; bin < bins; bin++) {
+                final float score = window - minVoteRatio * width * total / period;
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestPeriod = i;
+                    bestOffset = bin;
+                }
+                final int in = (bin + radius + 1) % bins, out = (bin - radius + bins) % bins;
+                window += cells[start + in] - cells[start + out];
+                width += getBinWidth(in, bins, edgeWidth) - getBinWidth(out, bins, edgeWidth);
+            }
+        }
+
+        if (bestPeriod < 0)
+            return null;
+
+        boolean replaced = true;
+        while (replaced) {
+            replaced = false;
+            final float period = getPeriod(bestPeriod);
+            // the bilinear votes of a line spread over two bins
+            final int radius = Math.max(getRadius(bestPeriod, tolerance, minVoteRatio), 1);
+            for (int multiple = 2; multiple <= 3 && !replaced; multiple++) {
+                final int index = Math.round((multiple * period - minPeriod) * resolution);
+                if (index >= numPeriods)
+                    break;
+
+                final int bins = rowStarts[index + 1] - rowStarts[index];
+                float sum = 0, weakest = Float.MAX_VALUE, strongest = -1;
+                int strongestOffset = -1;
+                for (int line = 0; line < multiple; line++) {
+                    final int offset = Math.round(bestOffset + line * period) % bins;
+                    final float window = getWindow(index, offset, radius);
+                    sum += window;
+                    weakest = Math.min(weakest, window);
+                    if (window > strongest) {
+                        strongest = window;
+                        strongestOffset = offset;
+                    }
+                }
+
+                if (weakest < sum / (multiple * minVoteRatio)) {
+                    bestPeriod = index;
+                    bestOffset = strongestOffset;
+                    replaced = true;
+                }
+            }
+        }
+
+        return new Tuple<>(bestOffset, (double) getPeriod(bestPeriod));
+    }
+
+    /**
+     * @param index Index of the tested period.
+     * @param tolerance The maximal distance (in bins) of the counted votes from the lines.
+     * @param minVoteRatio The minimum ratio of the votes of the lines and the votes expected for them.
+     * @return The distance (in bins) of the counted votes from the lines of the period.
+     */
+    private int getRadius(int index, int tolerance, float minVoteRatio)
+    {
+        return Math.max(Math.min(tolerance, (int) ((getPeriod(index) / (2 * minVoteRatio) - 1) / 2)), 0);
+    }
+
+    /**
+     * @param index Index of the tested period.
+     * @param offset The offset of the lines.
+     * @param radius The distance (in bins) of the counted votes from the lines.
+     * @return The votes in the bins closer than <code>radius</code> to the offset.
+     */
+    private float getWindow(int index, int offset, int radius)
+    {
+        final int start = rowStarts[index], bins = rowStarts[index + 1] - start;
+        float window = 0;
+        for (int bin = offset - radius; bin <= offset + radius; bin++)
+            window += cells[start + (bin % bins + bins) % bins];
+        return window;
+    }
+
+    /**
+     * @param bin The bin.
+     * @param bins The number of bins of the period.
+     * @param edgeWidth The width of the first and last bins.
+     * @return The part of the period the votes of the bin come from.
+     */
+    private static float getBinWidth(int bin, int bins, float edgeWidth)
+    {
+        return bin == 0 || bin == bins - 1 ? edgeWidth : 1;
+    }
+
+    /**
+     * Action voting into a range of periods, split in halves processed in parallel until they are not longer than
+     * {@link #MIN_PERIODS_PER_TASK}.
+     * 
+     * @author Martin Pecka
+     */
+    private class VoteAction extends RecursiveAction
+    {
+        /**  */
+        private static final long serialVersionUID = -3641856293415792203L;
+
+        /** The positions of the votes. */
+        private final float[]     positions;
+        /** The weights of the votes. */
+        private final float[]     weights;
+        /** The number of votes. */
+        private final int         count;
+        /** The first period to vote into (inclusive). */
+        private final int         from;
+        /** The last period to vote into (exclusive). */
+        private final int         to;
+
+        /**
+         * @param positions The positions of the votes.
+         * @param weights The weights of the votes.
+         * @param count The number of votes.
+         * @param from The first period to vote into (inclusive).
+         * @param to The last period to vote into (exclusive).
+         */
+        VoteAction(float[] positions, float[] weights, int count, int from, int to)
+        {
+            this.positions = positions;
+            this.weights = weights;
+            this.count = count;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from > MIN_PERIODS_PER_TASK) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new VoteAction(positions, weights, count, from, middle), new VoteAction(positions,
+                        weights, count, middle, to));
+                return;
+            }
+
+            for (int i = from; i < to; i++) {
+                final float period = getPeriod(i), inverse = 1 / period;
+                final int start = rowStarts[i], bins = rowStarts[i + 1] - start;
+                final float lastGap = period - (bins - 1);
+                for (int v = 0; v < count; v++) {
+                    // the floating point remainder is much slower than the multiplication (the positions are positive)
+                    float phase = positions[v] - period * (int) (positions[v] * inverse);
+                    if (phase < 0)
+                        phase += period;
+                    else if (phase >= period)
+                        phase -= period;
+                    final int bin = (int) phase;
+                    if (bin + 1 < bins) {
+                        final float fraction = phase - bin;
+                        cells[start + bin] += weights[v] * (1 - fraction);
+                        cells[start + bin + 1] += weights[v] * fraction;
+                    } else {
+                        // the first bin is only lastGap away
+                        final float fraction = (phase - bin) / lastGap;
+                        cells[start + bin] += weights[v] * (1 - fraction);
+                        cells[start] += weights[v] * fraction;
+                    }
+                }
+            }
+        }
+    }
+}
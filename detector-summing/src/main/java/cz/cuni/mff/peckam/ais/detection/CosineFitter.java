@@ -0,0 +1,362 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import static java.lang.Math.PI;
+import static java.lang.Math.atan2;
+import static java.lang.Math.cos;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.sin;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Weighted least squares fitting of the function <code>cos(freq * x + phase)</code> to a series sampled at
+ * <code>x = 0, 1, ...</code> or at arbitrary increasing positions.
+ * <p>
+ * The initial frequency and phase are taken from a coarse grid of frequencies: for each of them, the phase correlating
+ * best with the data is computed in closed form and the frequency with the highest correlation is used. The estimate
+ * is then refined by the Levenberg-Marquardt method with the frequency kept in the given bounds. The number of
+ * iterations is limited, so the time needed for a fit is bounded by the length of the series.
+ * <p>
+ * An instance can be reused for any number of fits, but it must not be used by more threads at once. The work done
+ * by the last fit of an instance is reported by its getters, and the work done by all the fits since the last
+ * {@link #resetTotals()} by the static getters.
+ * 
+ * @author Martin Pecka
+ */
+public final class CosineFitter
+{
+    /** The maximum number of Levenberg-Marquardt iterations of a fit. */
+    static final int            MAX_ITERATIONS  = 30;
+
+    /** The fitting stops when the relative decrease of the cost is lower than this. */
+    private static final double COST_TOLERANCE  = 1E-10;
+
+    /** The initial damping of the Levenberg-Marquardt method. */
+    private static final double INITIAL_DAMPING = 1E-3;
+
+    /** The fitting stops when the damping exceeds this value. */
+    private static final double MAX_DAMPING     = 1E10;
+
+    /** Number of fits of all instances. */
+    private static final AtomicLong totalFits        = new AtomicLong();
+
+    /** Number of evaluations of the cost function during the fits of all instances. */
+    private static final AtomicLong totalEvaluations = new AtomicLong();
+
+    /** Number of Levenberg-Marquardt iterations of the fits of all instances. */
+    private static final AtomicLong totalIterations  = new AtomicLong();
+
+    /** The weights of the samples. */
+    private double[]            weights         = new double[0];
+
+    /** Number of the samples of the current fit. */
+    private int                 length;
+
+    /** Positions of the samples of the current fit. <code>null</code> if they are sampled at 0, 1, ... */
+    private double[]            positions;
+
+    /** The fitted values. */
+    private float[]             values;
+
+    /** Number of evaluations of the cost function (on the whole series) during the last fit. */
+    private int                 evaluations;
+
+    /** Number of Levenberg-Marquardt iterations of the last fit. */
+    private int                 iterations;
+
+    /** Number of frequencies tested when looking for the initial guess during the last fit. */
+    private int                 gridSize;
+
+    /** Cost at the last evaluated point. */
+    private double              cost;
+
+    /** Elements of the (symmetric) approximate Hessian at the last evaluated point. */
+    private double              hFF, hFP, hPP;
+
+    /** Elements of the gradient at the last evaluated point. */
+    private double              gF, gP;
+
+    /**
+     * Fit the function to the given values.
+     * 
+     * @param values The values to fit.
+     * @param weights Weights of the values. Must be positive.
+     * @param minFreq The minimum frequency.
+     * @param maxFreq The maximum frequency.
+     * @param initialGuess The frequency and phase to start with. If <code>null</code>, they are found on a grid of
+     *            frequencies.
+     * @return The fitted frequency and phase. <code>null</code> if <code>minFreq &gt; maxFreq</code>.
+     */
+    double[] fit(float[] values, float[] weights, double minFreq, double maxFreq, double[] initialGuess)
+    {
+        return fit(values, weights, null, minFreq, maxFreq, initialGuess);
+    }
+
+    /**
+     * Fit the function to the given values sampled at the given positions.
+     * 
+     * @param values The values to fit.
+     * @param weights Weights of the values. Must be positive.
+     * @param positions Increasing positions of the values. If <code>null</code>, the values are sampled at
+     *            <code>0, 1, ...</code>.
+     * @param minFreq The minimum frequency.
+     * @param maxFreq The maximum frequency.
+     * @param initialGuess The frequency and phase to start with. If <code>null</code>, they are found on a grid of
+     *            frequencies.
+     * @return The fitted frequency and phase. <code>null</code> if <code>minFreq &gt; maxFreq</code>.
+     */
+    double[] fit(float[] values, float[] weights, double[] positions, double minFreq, double maxFreq,
+            double[] initialGuess)
+    {
+        evaluations = 0;
+        iterations = 0;
+        gridSize = 0;
+
+        if (!(minFreq <= maxFreq) || values.length == 0)
+            return null;
+
+        this.values = values;
+        this.length = values.length;
+        this.positions = positions;
+        if (this.weights.length < length)
+            this.weights = new double[length];
+        for (int i = 0; i < length; i++)
+            this.weights[i] = weights[i];
+
+        double freq, phase;
+        if (initialGuess != null) {
+            freq = min(max(initialGuess[0], minFreq), maxFreq);
+            phase = initialGuess[1];
+        } else {
+            final double[] guess = guess(minFreq, maxFreq);
+            freq = guess[0];
+            phase = guess[1];
+        }
+
+        double damping = INITIAL_DAMPING;
+        evaluate(freq, phase);
+        while (iterations < MAX_ITERATIONS && damping <= MAX_DAMPING) {
+            iterations++;
+
+            // solve (H + damping * diag(H)) * delta = -g
+            final double a = hFF * (1 + damping), b = hFP, d = hPP * (1 + damping);
+            final double det = a * d - b * b;
+            if (det == 0 || Double.isNaN(det))
+                break;
+            final double deltaF = (-gF * d + gP * b) / det;
+            final double deltaP = (-gP * a + gF * b) / det;
+
+            final double newFreq = min(max(freq + deltaF, minFreq), maxFreq);
+            final double newPhase = phase + deltaP;
+
+            final double oldCost = cost;
+            final double oldFF = hFF, oldFP = hFP, oldPP = hPP, oldGF = gF, oldGP = gP;
+            evaluate(newFreq, newPhase);
+            if (cost < oldCost) {
+                freq = newFreq;
+                phase = newPhase;
+                damping /= 10;
+                if (oldCost - cost <= COST_TOLERANCE * oldCost)
+                    break;
+            } else {
+                // reject the step and restore the state at the current point
+                cost = oldCost;
+                hFF = oldFF;
+                hFP = oldFP;
+                hPP = oldPP;
+                gF = oldGF;
+                gP = oldGP;
+                damping *= 10;
+            }
+        }
+
+        this.values = null;
+        this.positions = null;
+
+        totalFits.incrementAndGet();
+        totalEvaluations.addAndGet(evaluations);
+        totalIterations.addAndGet(iterations);
+
+        return new double[] { freq, phase };
+    }
+
+    /**
+     * Find the initial frequency and phase on a grid of frequencies.
+     * 
+     * @param minFreq The minimum frequency.
+     * @param maxFreq The maximum frequency.
+     * @return The frequency and phase.
+     */
+    private double[] guess(double minFreq, double maxFreq)
+    {
+        // the step is a half of the distance of the frequencies of the discrete Fourier transform
+        final double span = (positions != null) ? positions[length - 1] - positions[0] + 1 : length;
+        final double step = PI / span;
+
+        double bestFreq = minFreq, bestPhase = 0, bestCorrelation = -1;
+        for (double freq = minFreq; freq <= maxFreq; freq += step) {
+            gridSize++;
+            double cosSum = 0, sinSum = 0;
+            for (int i = 0; i < length; i++) {
+                if (values[i] == 0)
+                    continue;
+                final double wy = weights[i] * values[i];
+                final double x = position(i);
+                cosSum += wy * cos(freq * x);
+                sinSum += wy * sin(freq * x);
+            }
+            // maximize sum(w * y * cos(freq * x + phase)) = cosSum * cos(phase) - sinSum * sin(phase)
+            final double correlation = cosSum * cosSum + sinSum * sinSum;
+            if (correlation > bestCorrelation) {
+                bestCorrelation = correlation;
+                bestFreq = freq;
+                bestPhase = atan2(-sinSum, cosSum);
+            }
+        }
+
+        return new double[] { bestFreq, bestPhase };
+    }
+
+    /**
+     * Evaluate the weighted sum of squared residuals, its gradient and the Gauss-Newton approximation of its Hessian
+     * (all of them halved) at the given point.
+     * 
+     * @param freq The frequency.
+     * @param phase The phase.
+     */
+    private void evaluate(double freq, double phase)
+    {
+        evaluations++;
+        double c = 0, ff = 0, fp = 0, pp = 0, f = 0, p = 0;
+        for (int i = 0; i < length; i++) {
+            final double x = position(i);
+            final double angle = freq * x + phase;
+            final double model = cos(angle);
+            final double dPhase = -sin(angle); // derivative of the model by phase
+            final double dFreq = dPhase * x; // derivative of the model by frequency
+            final double w = weights[i];
+            final double residual = values[i] - model;
+
+            c += w * residual * residual;
+            ff += w * dFreq * dFreq;
+            fp += w * dFreq * dPhase;
+            pp += w * dPhase * dPhase;
+            f -= w * residual * dFreq;
+            p -= w * residual * dPhase;
+        }
+        cost = 0.5 * c;
+        hFF = ff;
+        hFP = fp;
+        hPP = pp;
+        gF = f;
+        gP = p;
+    }
+
+    /**
+     * @param i Index of a sample.
+     * @return Position of the sample.
+     */
+    private double position(int i)
+    {
+        return (positions != null) ? positions[i] : i;
+    }
+
+    /**
+     * @return Number of evaluations of the cost function (on the whole series) during the last fit.
+     */
+    public int getEvaluations()
+    {
+        return evaluations;
+    }
+
+    /**
+     * @return Number of Levenberg-Marquardt iterations of the last fit.
+     */
+    public int getIterations()
+    {
+        return iterations;
+    }
+
+    /**
+     * @return Number of frequencies tested when looking for the initial guess during the last fit.
+     */
+    public int getGridSize()
+    {
+        return gridSize;
+    }
+
+    /**
+     * @return The weighted sum of squared residuals of the last fit (halved).
+     */
+    public double getCost()
+    {
+        return cost;
+    }
+
+    /**
+     * @return Number of fits of all instances since the last {@link #resetTotals()}.
+     */
+    public static long getTotalFits()
+    {
+        return totalFits.get();
+    }
+
+    /**
+     * @return Number of evaluations of the cost function (on the whole series) during the fits of all instances since
+     *         the last {@link #resetTotals()}.
+     */
+    public static long getTotalEvaluations()
+    {
+        return totalEvaluations.get();
+    }
+
+    /**
+     * @return Number of Levenberg-Marquardt iterations of the fits of all instances since the last
+     *         {@link #resetTotals()}.
+     */
+    public static long getTotalIterations()
+    {
+        return totalIterations.get();
+    }
+
+    /**
+     * Reset the totals of all instances.
+     */
+    public static void resetTotals()
+    {
+        totalFits.set(0);
+        totalEvaluations.set(0);
+        totalIterations.set(0);
+    }
+}
@@ -0,0 +1,458 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import static java.lang.Math.PI;
+import static java.lang.Math.atan;
+import static java.lang.Math.cos;
+import static java.lang.Math.sin;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Periodogram as defined in (Scargle, 1982) evaluated at all the frequencies <code>2 * PI * n / t</code> at once.
+ * <p>
+ * The sums of the values multiplied by the sines and cosines are the discrete Fourier transform of the series, which
+ * is computed by a single FFT (Bluestein's algorithm for lengths that are not powers of two) and only shifted by the
+ * phase <code>tau</code> for each frequency. The sums of squared sines and cosines follow from the sums used for
+ * computing <code>tau</code>. The phase <code>tau</code> itself is computed in the same way as by the per-frequency
+ * evaluation, so the periodogram values only differ by rounding errors.
+ * <p>
+ * Everything except the values of the series only depends on its length, so all the sines and cosines are computed
+ * once for each length (see {@link #forLength(int)}) and the evaluation itself only consists of multiplications and
+ * additions. The series analyzed by the detectors only have a few different lengths given by the resampling, so the
+ * instances for all the lengths are kept.
+ * 
+ * @author Martin Pecka
+ */
+public final class FastPeriodogram
+{
+    /** The values lower than this are considered zero. */
+    private static final double                                 EPSILON   = 10E-15;
+
+    /** The instances for the lengths of the series that have already been analyzed. */
+    private static final ConcurrentMap<Integer, FastPeriodogram> instances = new ConcurrentHashMap<>();
+
+    /** Per-thread buffers for the transform: real and imaginary parts of the data and of the Bluestein's sequence. */
+    private static final ThreadLocal<double[][]>                 scratch   = new ThreadLocal<double[][]>() {
+                                                                              @Override
+                                                                              protected double[][] initialValue()
+                                                                              {
+                                                                                  return new double[4][0];
+                                                                              }
+                                                                          };
+
+    /** Length of the series. */
+    private final int                                           length;
+
+    /** Cosine of the frequency of <code>n</code>. Indexed by <code>n</code> up to <code>length / 2</code>. */
+    private final double[]                                      shiftCos;
+    /** Sine of the frequency of <code>n</code>. */
+    private final double[]                                      shiftSin;
+    /** Cosine of the frequency of <code>n</code> multiplied by its <code>tau</code>. */
+    private final double[]                                      tauCos;
+    /** Sine of the frequency of <code>n</code> multiplied by its <code>tau</code>. */
+    private final double[]                                      tauSin;
+    /** Sums of the squared cosines. Zero if the periodogram value is zero for every series. */
+    private final double[]                                      cosSums;
+    /** Sums of the squared sines. */
+    private final double[]                                      sinSums;
+
+    /** Length of the FFT (a power of two). */
+    private final int                                           fftLength;
+    /** Real parts of the twiddle factors of all FFT stages. Stage of length 2h starts at index h-1. */
+    private final double[]                                      twiddleRe;
+    /** Imaginary parts of the twiddle factors. */
+    private final double[]                                      twiddleIm;
+    /** Real parts of the chirp of Bluestein's algorithm. <code>null</code> if the length is a power of two. */
+    private final double[]                                      chirpRe;
+    /** Imaginary parts of the chirp. */
+    private final double[]                                      chirpIm;
+    /** Real parts of the FFT of the convolution kernel of Bluestein's algorithm. */
+    private final double[]                                      kernelRe;
+    /** Imaginary parts of the FFT of the convolution kernel. */
+    private final double[]                                      kernelIm;
+
+    /**
+     * Precompute the tables for series of the given length.
+     * 
+     * @param length Length of the series.
+     */
+    private FastPeriodogram(int length)
+    {
+        this.length = length;
+        final int t = length;
+
+        final int numN = length / 2 + 1;
+        shiftCos = new double[numN];
+        shiftSin = new double[numN];
+        tauCos = new double[numN];
+        tauSin = new double[numN];
+        cosSums = new double[numN];
+        sinSums = new double[numN];
+        for (int n = 0; n < numN; n++) {
+            // for n = 0 and n = t/2 all the sines are zero, and so is the periodogram
+            if (t == 0 || (2 * n) % t == 0)
+                continue;
+
+            final double freq = 2 * PI * n / t;
+
+            double tau_sinSum = 0;
+            double tau_cosSum = 0;
+            for (int i = 1; i <= t; i++) {
+                tau_sinSum += sin(2 * freq * i);
+                tau_cosSum += cos(2 * freq * i);
+            }
+
+            double tau;
+            if (tau_cosSum <= EPSILON) {
+                tau = 0;
+            } else {
+                final double tan_tau = tau_sinSum / tau_cosSum;
+                tau = atan(tan_tau) / (2 * PI);
+            }
+
+            shiftCos[n] = cos(freq);
+            shiftSin[n] = sin(freq);
+            tauCos[n] = cos(freq * tau);
+            tauSin[n] = sin(freq * tau);
+
+            final double squaresDiff = cos(2 * freq * tau) * tau_cosSum + sin(2 * freq * tau) * tau_sinSum;
+            final double cos_sum = 0.5 * (t + squaresDiff);
+            final double sin_sum = 0.5 * (t - squaresDiff);
+            if (cos_sum <= EPSILON || sin_sum <= EPSILON)
+                continue;
+            cosSums[n] = cos_sum;
+            sinSums[n] = sin_sum;
+        }
+
+        if (length <= 1 || (length & (length - 1)) == 0) {
+            fftLength = Math.max(length, 1);
+            chirpRe = chirpIm = kernelRe = kernelIm = null;
+        } else {
+            // Bluestein's algorithm: n * k = (n^2 + k^2 - (n - k)^2) / 2, so the transform is a convolution with a
+            // chirp
+            int m = 1;
+            while (m < 2 * length - 1)
+                m <<= 1;
+            fftLength = m;
+
+            chirpRe = new double[length];
+            chirpIm = new double[length];
+            for (int k = 0; k < length; k++) {
+                // k^2 modulo 2*length keeps the angle small and precise
+                final long kk = ((long) k * k) % (2L * length);
+                final double angle = PI * kk / length;
+                chirpRe[k] = cos(angle);
+                chirpIm[k] = -sin(angle);
+            }
+
+            kernelRe = new double[m];
+            kernelIm = new double[m];
+            kernelRe[0] = chirpRe[0];
+            kernelIm[0] = -chirpIm[0];
+            for (int k = 1; k < length; k++) {
+                kernelRe[k] = kernelRe[m - k] = chirpRe[k];
+                kernelIm[k] = kernelIm[m - k] = -chirpIm[k];
+            }
+        }
+
+        twiddleRe = new double[fftLength];
+        twiddleIm = new double[fftLength];
+        for (int len = 2; len <= fftLength; len <<= 1) {
+            final double angle = -2 * PI / len;
+            final int half = len >> 1;
+            for (int k = 0; k < half; k++) {
+                twiddleRe[half - 1 + k] = cos(angle * k);
+                twiddleIm[half - 1 + k] = sin(angle * k);
+            }
+        }
+
+        if (kernelRe != null)
+            fft(kernelRe, kernelIm);
+    }
+
+    /**
+     * Return the periodogram for series of the given length.
+     * 
+     * @param length Length of the series.
+     * @return The periodogram.
+     */
+    public static FastPeriodogram forLength(int length)
+    {
+        FastPeriodogram result = instances.get(length);
+        if (result == null) {
+            result = new FastPeriodogram(length);
+            final FastPeriodogram previous = instances.putIfAbsent(length, result);
+            if (previous != null)
+                result = previous;
+        }
+        return result;
+    }
+
+    /**
+     * Compute the periodogram of the given series for frequencies <code>2 * PI * n / values.length</code>.
+     * 
+     * @param values The series.
+     * @param fromN The lowest <code>n</code> (inclusive). Must be nonnegative.
+     * @param toN The highest <code>n</code> (inclusive). Must not be greater than <code>values.length / 2</code>.
+     * @return The periodogram values; the value for <code>n</code> is at index <code>n - fromN</code>.
+     */
+    public static double[] compute(float[] values, int fromN, int toN)
+    {
+        return forLength(values.length).evaluate(values, fromN, toN);
+    }
+
+    /**
+     * Compute the periodogram of the given series for frequencies <code>2 * PI * n / values.length</code>.
+     * 
+     * @param values The series. Its length has to be the length of this periodogram.
+     * @param fromN The lowest <code>n</code> (inclusive). Must be nonnegative.
+     * @param toN The highest <code>n</code> (inclusive). Must not be greater than <code>values.length / 2</code>.
+     * @return The periodogram values; the value for <code>n</code> is at index <code>n - fromN</code>.
+     */
+    public double[] evaluate(float[] values, int fromN, int toN)
+    {
+        final double[] result = new double[Math.max(0, toN - fromN + 1)];
+        evaluate(values, fromN, toN, result);
+        return result;
+    }
+
+    /**
+     * Compute the periodogram of the given series for frequencies <code>2 * PI * n / values.length</code>.
+     * <p>
+     * No arrays are allocated when the same thread evaluates series of this length repeatedly.
+     * 
+     * @param values The series. Its length has to be the length of this periodogram.
+     * @param fromN The lowest <code>n</code> (inclusive). Must be nonnegative.
+     * @param toN The highest <code>n</code> (inclusive). Must not be greater than <code>values.length / 2</code>.
+     * @param result The array to store the periodogram values to; the value for <code>n</code> is stored at index
+     *            <code>n - fromN</code>. Its length has to be at least <code>toN - fromN + 1</code>.
+     */
+    public void evaluate(float[] values, int fromN, int toN, double[] result)
+    {
+        if (values.length != length)
+            throw new IllegalArgumentException("Expected a series of length " + length + ", got " + values.length);
+
+        if (toN < fromN)
+            return;
+
+        final double[][] buffers = scratch.get();
+        if (buffers[0].length < length) {
+            buffers[0] = new double[length];
+            buffers[1] = new double[length];
+        }
+        final double[] re = buffers[0], im = buffers[1];
+        for (int i = 0; i < length; i++) {
+            re[i] = values[i];
+            im[i] = 0;
+        }
+        dft(re, im, toN + 1, buffers);
+
+        for (int n = fromN; n <= toN; n++) {
+            final double cos_sum = cosSums[n], sin_sum = sinSums[n];
+            if (cos_sum == 0) {
+                result[n - fromN] = 0;
+                continue;
+            }
+
+            // the series is indexed from 1, so the transform has to be shifted by one sample
+            final double valCos = re[n] * shiftCos[n] + im[n] * shiftSin[n]; // sum of values[i-1] * cos(freq * i)
+            final double valSin = re[n] * shiftSin[n] - im[n] * shiftCos[n]; // sum of values[i-1] * sin(freq * i)
+
+            double cos_valSum = valCos * tauCos[n] + valSin * tauSin[n];
+            double sin_valSum = valSin * tauCos[n] - valCos * tauSin[n];
+
+            if (cos_valSum <= EPSILON)
+                cos_valSum = 0;
+            if (sin_valSum <= EPSILON)
+                sin_valSum = 0;
+            result[n - fromN] = 0.5 * (cos_valSum * cos_valSum / cos_sum + sin_valSum * sin_valSum / sin_sum);
+        }
+    }
+
+    /**
+     * Return <code>n</code>s of the highest periodogram values in descending order of the values.
+     * <p>
+     * Equal periodogram values are treated as a single candidate represented by the highest <code>n</code> having
+     * this value.
+     * 
+     * @param periodogram The periodogram values as returned by {@link #compute(float[], int, int)}.
+     * @param fromN The <code>n</code> of the first periodogram value.
+     * @param k The maximum number of candidates to return.
+     * @return The <code>n</code>s of the candidates.
+     */
+    public static int[] topCandidates(double[] periodogram, int fromN, int k)
+    {
+        return topCandidates(periodogram, periodogram.length, fromN, k);
+    }
+
+    /**
+     * Return <code>n</code>s of the highest periodogram values in descending order of the values.
+     * <p>
+     * Equal periodogram values are treated as a single candidate represented by the highest <code>n</code> having
+     * this value.
+     * 
+     * @param periodogram The periodogram values as returned by {@link #compute(float[], int, int)}.
+     * @param length Number of the periodogram values to use.
+     * @param fromN The <code>n</code> of the first periodogram value.
+     * @param k The maximum number of candidates to return.
+     * @return The <code>n</code>s of the candidates.
+     */
+    public static int[] topCandidates(double[] periodogram, int length, int fromN, int k)
+    {
+        final double[] bestValues = new double[k];
+        final int[] bestNs = new int[k];
+        int count = 0;
+
+        for (int i = 0; i < length; i++) {
+            final double value = periodogram[i];
+
+            // the sorted position of the value
+            int pos = count;
+            while (pos > 0 && Double.compare(bestValues[pos - 1], value) < 0)
+                pos--;
+
+            if (pos > 0 && Double.compare(bestValues[pos - 1], value) == 0) {
+                bestNs[pos - 1] = fromN + i;
+                continue;
+            }
+            if (pos == k)
+                continue;
+
+            final int moved = Math.min(count, k - 1) - pos;
+            System.arraycopy(bestValues, pos, bestValues, pos + 1, moved);
+            System.arraycopy(bestNs, pos, bestNs, pos + 1, moved);
+            bestValues[pos] = value;
+            bestNs[pos] = fromN + i;
+            if (count < k)
+                count++;
+        }
+
+        final int[] result = new int[count];
+        System.arraycopy(bestNs, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * Compute the discrete Fourier transform <code>sum(x[k] * exp(-2 * PI * i * n * k / length))</code> in place.
+     * 
+     * @param re The real parts of the data.
+     * @param im The imaginary parts of the data.
+     * @param numCoefficients Only the first <code>numCoefficients</code> coefficients are needed. The other ones are
+     *            undefined on return.
+     * @param buffers The per-thread buffers (see {@link #scratch}).
+     */
+    private void dft(double[] re, double[] im, int numCoefficients, double[][] buffers)
+    {
+        if (length <= 1)
+            return;
+
+        if (chirpRe == null) {
+            fft(re, im);
+            return;
+        }
+
+        final int m = fftLength;
+        if (buffers[2].length < m) {
+            buffers[2] = new double[m];
+            buffers[3] = new double[m];
+        }
+        final double[] aRe = buffers[2], aIm = buffers[3];
+        for (int k = 0; k < length; k++) {
+            aRe[k] = re[k] * chirpRe[k] - im[k] * chirpIm[k];
+            aIm[k] = re[k] * chirpIm[k] + im[k] * chirpRe[k];
+        }
+        for (int k = length; k < m; k++) {
+            aRe[k] = 0;
+            aIm[k] = 0;
+        }
+
+        fft(aRe, aIm);
+        for (int i = 0; i < m; i++) {
+            final double r = aRe[i] * kernelRe[i] - aIm[i] * kernelIm[i];
+            aIm[i] = -(aRe[i] * kernelIm[i] + aIm[i] * kernelRe[i]); // conjugated for the inverse transform
+            aRe[i] = r;
+        }
+        fft(aRe, aIm);
+
+        final int num = Math.min(numCoefficients, length);
+        for (int n = 0; n < num; n++) {
+            final double r = aRe[n] / m, i = -aIm[n] / m;
+            re[n] = r * chirpRe[n] - i * chirpIm[n];
+            im[n] = r * chirpIm[n] + i * chirpRe[n];
+        }
+    }
+
+    /**
+     * In-place radix-2 FFT.
+     * 
+     * @param re The real parts of the data. Only the first {@link #fftLength} values are transformed.
+     * @param im The imaginary parts of the data.
+     */
+    private void fft(double[] re, double[] im)
+    {
+        final int n = fftLength;
+
+        // bit-reversal permutation
+        for (int i = 1, j = 0; i < n; i++) {
+            int bit = n >> 1;
+            for (; (j & bit) != 0; bit >>= 1)
+                j ^= bit;
+            j ^= bit;
+            if (i < j) {
+                double tmp = re[i];
+                re[i] = re[j];
+                re[j] = tmp;
+                tmp = im[i];
+                im[i] = im[j];
+                im[j] = tmp;
+            }
+        }
+
+        for (int len = 2; len <= n; len <<= 1) {
+            final int half = len >> 1;
+            for (int k = 0; k < half; k++) {
+                final double wRe = twiddleRe[half - 1 + k], wIm = twiddleIm[half - 1 + k];
+                for (int i = k; i < n; i += len) {
+                    final int j = i + half;
+                    final double tRe = re[j] * wRe - im[j] * wIm;
+                    final double tIm = re[j] * wIm + im[j] * wRe;
+                    re[j] = re[i] - tRe;
+                    im[j] = im[i] - tIm;
+                    re[i] += tRe;
+                    im[i] += tIm;
+                }
+            }
+        }
+    }
+}
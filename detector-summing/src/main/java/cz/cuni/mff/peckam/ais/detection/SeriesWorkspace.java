@@ -0,0 +1,360 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+/**
+ * Per-thread buffers used for the analysis of row/column sums, so that processing a series of an already seen length
+ * doesn't allocate any arrays.
+ * <p>
+ * The arrays returned by the methods are only valid until the next call of the same method in the same thread.
+ * 
+ * @author Martin Pecka
+ */
+final class SeriesWorkspace
+{
+    /** The workspaces of the threads. */
+    private static final ThreadLocal<SeriesWorkspace> workspaces = new ThreadLocal<SeriesWorkspace>() {
+                                                                     @Override
+                                                                     protected SeriesWorkspace initialValue()
+                                                                     {
+                                                                         return new SeriesWorkspace();
+                                                                     }
+                                                                 };
+
+    /** The multiplier used for splitting a double into two halves (2^27 + 1). */
+    private static final double                       SPLIT_FACTOR = 0x1.0p27 + 1;
+
+    /** The modified weights of the peaks. */
+    private float[]                                   fitWeights   = new float[0];
+    /** Scratch space for the selection algorithm. */
+    private float[]                                   selection    = new float[0];
+    /** Distances of the peaks. */
+    private float[]                                   distances    = new float[0];
+    /** Weights of the distances of the peaks. */
+    private float[]                                   distWeights  = new float[0];
+    /** The distances selected for the weighted sum. */
+    private double[]                                  selected     = new double[0];
+    /** Weights of the selected distances. */
+    private double[]                                  selWeights   = new double[0];
+    /** Periodogram values. */
+    private double[]                                  periodogram  = new double[0];
+    /** Cosines and sines of the trigonometric recurrence of {@link UnevenPeriodogram}. */
+    private final double[][]                          recurrence   = new double[4][0];
+    /** The fitter of the harmonic function. */
+    private final CosineFitter                        cosineFitter = new CosineFitter();
+
+    /**
+     * Use {@link #get()}.
+     */
+    private SeriesWorkspace()
+    {
+    }
+
+    /**
+     * @return The workspace of the current thread.
+     */
+    static SeriesWorkspace get()
+    {
+        return workspaces.get();
+    }
+
+    /**
+     * @param length Length of the series.
+     * @return Array for the modified weights of the peaks of exactly the given length. The contents are undefined.
+     */
+    float[] getFitWeights(int length)
+    {
+        if (fitWeights.length != length)
+            fitWeights = new float[length];
+        return fitWeights;
+    }
+
+    /**
+     * @param length The minimum length.
+     * @return Array for the distances of peaks of at least the given length. The contents are undefined.
+     */
+    float[] getDistances(int length)
+    {
+        if (distances.length < length)
+            distances = new float[length];
+        return distances;
+    }
+
+    /**
+     * @param length The minimum length.
+     * @return Array for the weights of the distances of at least the given length. The contents are undefined.
+     */
+    float[] getDistanceWeights(int length)
+    {
+        if (distWeights.length < length)
+            distWeights = new float[length];
+        return distWeights;
+    }
+
+    /**
+     * @param length The minimum length.
+     * @return Array for the distances selected for the weighted sum of at least the given length. The contents are
+     *         undefined.
+     */
+    double[] getSelected(int length)
+    {
+        if (selected.length < length)
+            selected = new double[length];
+        return selected;
+    }
+
+    /**
+     * @param length The minimum length.
+     * @return Array for the weights of the selected distances of at least the given length. The contents are
+     *         undefined.
+     */
+    double[] getSelectedWeights(int length)
+    {
+        if (selWeights.length < length)
+            selWeights = new double[length];
+        return selWeights;
+    }
+
+    /**
+     * @param length The minimum length.
+     * @return Array for the periodogram values of at least the given length. The contents are undefined.
+     */
+    double[] getPeriodogram(int length)
+    {
+        if (periodogram.length < length)
+            periodogram = new double[length];
+        return periodogram;
+    }
+
+    /**
+     * @param length The minimum length.
+     * @return Four arrays for the trigonometric recurrence of {@link UnevenPeriodogram} of at least the given length.
+     *         The contents are undefined.
+     */
+    double[][] getRecurrenceBuffers(int length)
+    {
+        if (recurrence[0].length < length) {
+            for (int i = 0; i < recurrence.length; i++)
+                recurrence[i] = new double[length];
+        }
+        return recurrence;
+    }
+
+    /**
+     * @return The fitter of the harmonic function.
+     */
+    CosineFitter getCosineFitter()
+    {
+        return cosineFitter;
+    }
+
+    /**
+     * Compute the percentile of the first <code>length</code> values.
+     * <p>
+     * The percentile is estimated in the same way as Commons Math 3.1 <code>Percentile</code> does: it is interpolated
+     * between the values at positions <code>floor(p * (length + 1) / 100)</code> and the following one of the sorted
+     * values. The values are not sorted, but the two order statistics are found by quickselect.
+     * 
+     * @param values The values. Not modified.
+     * @param length Number of the values to use.
+     * @param p The percentile (in the range (0, 100]).
+     * @return The percentile. {@link Double#NaN} if <code>length</code> is zero.
+     */
+    double percentile(float[] values, int length, double p)
+    {
+        if (length == 0)
+            return Double.NaN;
+        if (length == 1)
+            return values[0];
+
+        final double n = length;
+        final double pos = p * (n + 1) / 100;
+        final double fpos = Math.floor(pos);
+        final int intPos = (int) fpos;
+        final double dif = pos - fpos;
+
+        if (selection.length < length)
+            selection = new float[length];
+        final float[] work = selection;
+        System.arraycopy(values, 0, work, 0, length);
+
+        if (pos < 1)
+            return select(work, length, 0);
+        if (pos >= n)
+            return select(work, length, length - 1);
+
+        final double lower = select(work, length, intPos - 1);
+        // all values right from the selected one are greater or equal, so the next order statistic is their minimum
+        float upper = work[intPos];
+        for (int i = intPos + 1; i < length; i++) {
+            if (work[i] < upper)
+                upper = work[i];
+        }
+        return lower + dif * (upper - lower);
+    }
+
+    /**
+     * Find the <code>k</code>-th smallest value and partially sort the values so that all values left from position
+     * <code>k</code> are not greater and all values right from it are not smaller than it.
+     * 
+     * @param work The values. They get reordered.
+     * @param length Number of the values.
+     * @param k The (zero-based) order of the value.
+     * @return The <code>k</code>-th smallest value.
+     */
+    private static float select(float[] work, int length, int k)
+    {
+        int left = 0, right = length - 1;
+        while (right > left) {
+            // median of three as the pivot
+            final int middle = (left + right) >>> 1;
+            if (work[middle] < work[left])
+                swap(work, middle, left);
+            if (work[right] < work[left])
+                swap(work, right, left);
+            if (work[right] < work[middle])
+                swap(work, right, middle);
+            final float pivot = work[middle];
+
+            int i = left, j = right;
+            while (i <= j) {
+                while (work[i] < pivot)
+                    i++;
+                while (work[j] > pivot)
+                    j--;
+                if (i <= j) {
+                    swap(work, i, j);
+                    i++;
+                    j--;
+                }
+            }
+
+            if (k <= j)
+                right = j;
+            else if (k >= i)
+                left = i;
+            else
+                break;
+        }
+        return work[k];
+    }
+
+    /**
+     * Swap two values in the array.
+     * 
+     * @param data The array.
+     * @param i Index of the first value.
+     * @param j Index of the second value.
+     */
+    private static void swap(float[] data, int i, int j)
+    {
+        final float tmp = data[i];
+        data[i] = data[j];
+        data[j] = tmp;
+    }
+
+    /**
+     * Normalize the first <code>length</code> values so that they sum to one.
+     * 
+     * @param data The values to normalize in place.
+     * @param length Number of the values.
+     */
+    static void normalize(float[] data, int length)
+    {
+        float sum = 0;
+        for (int i = 0; i < length; i++)
+            sum += data[i];
+        for (int i = 0; i < length; i++)
+            data[i] = data[i] / sum;
+    }
+
+    /**
+     * Compute the weighted sum of the values using normalized weights. The result is the same as of
+     * <code>MathArrays.linearCombination(values, MathArrays.normalizeArray(weights, 1))</code> from Commons Math 3.1,
+     * which uses an accurate summation.
+     * 
+     * @param values The values.
+     * @param weights The weights. They get normalized in place.
+     * @param length Number of the values to use. Must be at least 2.
+     * @return The weighted sum.
+     * @throws ArithmeticException If the weights sum to zero.
+     */
+    static double weightedSum(double[] values, double[] weights, int length)
+    {
+        double weightSum = 0;
+        for (int i = 0; i < length; i++) {
+            if (!Double.isNaN(weights[i]))
+                weightSum += weights[i];
+        }
+        if (weightSum == 0)
+            throw new ArithmeticException("Weights sum to zero.");
+        for (int i = 0; i < length; i++) {
+            if (!Double.isNaN(weights[i]))
+                weights[i] = weights[i] * 1 / weightSum;
+        }
+
+        // the products are split into the high and low parts and the high parts are summed using error-free
+        // transformations (Ogita, Rump, Oishi: Accurate sum and dot product, 2005)
+        double prodLowSum = 0;
+        double sHighPrev = 0, sLowSum = 0;
+        for (int i = 0; i < length; i++) {
+            final double ai = values[i];
+            final double ca = SPLIT_FACTOR * ai;
+            final double aHigh = ca - (ca - ai);
+            final double aLow = ai - aHigh;
+            final double bi = weights[i];
+            final double cb = SPLIT_FACTOR * bi;
+            final double bHigh = cb - (cb - bi);
+            final double bLow = bi - bHigh;
+            final double prodHigh = ai * bi;
+            final double prodLow = aLow * bLow - (((prodHigh - aHigh * bHigh) - aLow * bHigh) - aHigh * bLow);
+            prodLowSum += prodLow;
+
+            if (i == 0) {
+                sHighPrev = prodHigh;
+            } else {
+                final double sHighCur = sHighPrev + prodHigh;
+                final double sPrime = sHighCur - prodHigh;
+                sLowSum += (prodHigh - (sHighCur - sPrime)) + (sHighPrev - sPrime);
+                sHighPrev = sHighCur;
+            }
+        }
+
+        double result = sHighPrev + (prodLowSum + sLowSum);
+        if (Double.isNaN(result)) {
+            // infinite or NaN values, rely on the naive computation
+            result = 0;
+            for (int i = 0; i < length; i++)
+                result += values[i] * weights[i];
+        }
+        return result;
+    }
+}
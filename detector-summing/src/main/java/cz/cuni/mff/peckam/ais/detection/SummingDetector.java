@@ -1,659 +1,1129 @@
-/**
- * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
- * All rights reserved.
- * Licensed under the following BSD License.
- * 
- * Redistribution and use in source and binary forms, with or without
- * modification, are permitted provided that the following conditions are met:
- * 
- * Redistributions of source code must retain the above copyright
- * notice, this list of conditions and the following disclaimer.
- * 
- * Redistributions in binary form must reproduce the above copyright
- * notice, this list of conditions and the following disclaimer in the
- * documentation and/or other materials provided with the distribution.
- * 
- * Neither the name Martin Pecka nor the
- * names of contributors may be used to endorse or promote products
- * derived from this software without specific prior written permission.
- * 
- * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
- * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
- * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
- * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
- * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
- * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
- * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
- * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
- * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
- * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
- */
-package cz.cuni.mff.peckam.ais.detection;
-
-import static java.lang.Math.PI;
-import static java.lang.Math.atan;
-import static java.lang.Math.cos;
-import static java.lang.Math.sin;
-
-import java.io.File;
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.NavigableMap;
-import java.util.TreeMap;
-
-import org.apache.commons.math3.analysis.function.HarmonicOscillator.Parametric;
-import org.apache.commons.math3.exception.DimensionMismatchException;
-import org.apache.commons.math3.exception.NullArgumentException;
-import org.apache.commons.math3.fitting.HarmonicFitter;
-import org.apache.commons.math3.optim.nonlinear.vector.jacobian.LevenbergMarquardtOptimizer;
-import org.apache.commons.math3.stat.descriptive.rank.Min;
-import org.apache.commons.math3.stat.descriptive.rank.Percentile;
-import org.apache.commons.math3.util.FastMath;
-import org.apache.commons.math3.util.MathArrays;
-
-import cz.cuni.mff.peckam.ais.AISLBLProductReader;
-import cz.cuni.mff.peckam.ais.EvenlySampledIonogram;
-import cz.cuni.mff.peckam.ais.Ionogram;
-import cz.cuni.mff.peckam.ais.Product;
-import cz.cuni.mff.peckam.ais.Tuple;
-
-/**
- * Detector using sums of rows/columns.
- * 
- * @author Martin Pecka
- */
-public class SummingDetector extends FloatFeatureDetector
-{
-
-    /** The strategy used for computing. */
-    private ComputationStrategy strategy = ComputationStrategy.COMBINED_QUANTILE_PERIODOGRAM;
-
-    /**
-     * The strategy used for computation.
-     * 
-     * @author Martin Pecka
-     */
-    public enum ComputationStrategy
-    {
-        /**
-         * Compute the period using periodogram as defined in (Scargle, 1982).
-         * 
-         * @author Martin Pecka
-         */
-        PERIODOGRAM
-        {
-            @Override
-            Tuple<Integer, Double[]> computePeriod(float[] peaks, float[] weights)
-            {
-                // variable names from (Scargle, 1982)
-                final int n0 = peaks.length, t = n0;
-                final NavigableMap<Double, Double> periodogram = new TreeMap<>();
-                // the selection of n is such that we get periods lower than width/2 and higher than the lowest
-                // detectable period
-                for (int n = (int) (t / getMinPeakDistance(peaks)); n <= n0 / 2; n++) {
-                    final double freq = 2 * PI * n / t;
-                    final double periodogramVal = computePeriodogram(freq, peaks);
-                    periodogram.put(periodogramVal, freq);
-                }
-
-                if (periodogram.size() == 0)
-                    return null;
-
-                final Double[] periods = new Double[Math.min(10, periodogram.size())];
-                int i = 0;
-                for (double freq : periodogram.descendingMap().values()) {
-                    if (i < periods.length) {
-                        periods[i++] = 2 * PI / freq;
-                    }
-                }
-                // bestFreq contains the frequency with the highest periodogram peak, which should correspond to the
-                // most probable frequency
-                return new Tuple<>(null, periods);
-            }
-
-            /**
-             * Compute an improved periodogram value as defined in (Scargle, 1982).
-             * 
-             * @param freq The input frequency.
-             * @param values The values to compute the periodogram for.
-             * @return The periodogram value, P_X(freq)
-             */
-            private double computePeriodogram(double freq, float[] values)
-            {
-                double tau_sinSum = 0;
-                double tau_cosSum = 0;
-                for (int i = 1; i <= values.length; i++) {
-                    tau_sinSum += sin(2 * freq * i);
-                    tau_cosSum += cos(2 * freq * i);
-                }
-
-                double tau;
-                if (tau_cosSum <= 10E-15) {
-                    tau = 0;
-                } else {
-                    final double tan_tau = tau_sinSum / tau_cosSum;
-                    tau = atan(tan_tau) / (2 * PI);
-                }
-
-                double cos_valSum = 0, cos_sum = 0, sin_valSum = 0, sin_sum = 0;
-                for (int i = 1; i <= values.length; i++) {
-                    final double cos = cos(freq * (i - tau));
-                    final double sin = sin(freq * (i - tau));
-                    cos_valSum += values[i - 1] * cos;
-                    cos_sum += cos * cos;
-                    sin_valSum += values[i - 1] * sin;
-                    sin_sum += sin * sin;
-                }
-
-                if (cos_sum <= 10E-15 || sin_sum <= 10E-15)
-                    return 0;
-                if (cos_valSum <= 10E-15)
-                    cos_valSum = 0;
-                if (sin_valSum <= 10E-15)
-                    sin_valSum = 0;
-                return 0.5 * (cos_valSum * cos_valSum / cos_sum + sin_valSum * sin_valSum / sin_sum);
-            }
-
-            @Override
-            public String toString()
-            {
-                return "periodogram";
-            }
-
-        },
-
-        /**
-         * Compute the period using harmonics fitting least squares.
-         * 
-         * @author Martin Pecka
-         */
-        HARMONICS_FITTING
-        {
-
-            @Override
-            Tuple<Integer, Double[]> computePeriod(final float[] peaks, float[] weights)
-            {
-                final HarmonicFitter fitter = new HarmonicFitter(new LevenbergMarquardtOptimizer());
-
-                // square root the weights in order to get them more equal, which helps
-                float[] newWeights = new float[weights.length];
-                for (int i = 0; i < weights.length; i++)
-                    newWeights[i] = (float) FastMath.sqrt(weights[i]);
-                newWeights = normalize(newWeights);
-
-                // register the weighted peak values to the fitter
-                for (int i = 0; i < peaks.length; i++) {
-                    // the fitter requires non-zero weights
-                    fitter.addObservedPoint(newWeights[i] > 0 ? newWeights[i] : 0.001, i, peaks[i]);
-                }
-
-                // the fitter cannot handle parameter constraints, so we extend the Harmonic function to return a big
-                // negative number for all parameters we don't like (frequency is too big/small). We also need this to
-                // be a wave with unit amplitude.
-                final Parametric func = new Parametric() {
-                    /** The maximum period we can detect is half of the data width. */
-                    private final double minFreq = 2 * PI / (peaks.length / 2);
-                    /** The minimum period we can detect. */
-                    // we won't detect periods lower than the minimum distance of two peaks
-                    private final double maxFreq = 2 * PI / getMinPeakDistance(peaks);
-
-                    @Override
-                    public double value(double x, double... param) throws NullArgumentException,
-                            DimensionMismatchException
-                    {
-                        validateParameters(param);
-                        if (param[0] < minFreq || param[0] > maxFreq)
-                            return -1;
-                        return FastMath.cos(x * param[0] + param[1]);
-                    }
-
-                    @Override
-                    public double[] gradient(double x, double... param) throws NullArgumentException,
-                            DimensionMismatchException
-                    {
-                        validateParameters(param);
-                        final double dp = -FastMath.sin(x * param[0] + param[1]);
-                        // try to direct the fitter to the wanted parameter values using the derivative
-                        final double df = param[0] < minFreq ? 1 : param[0] > maxFreq ? -1 : dp * x;
-                        return new double[] { df, dp };
-                    }
-
-                    private void validateParameters(double[] param) throws NullArgumentException,
-                            DimensionMismatchException
-                    {
-                        if (param == null) {
-                            throw new NullArgumentException();
-                        }
-                        if (param.length != 2) {
-                            throw new DimensionMismatchException(param.length, 2);
-                        }
-                    }
-                };
-
-                // guess initial values for the fitting
-                final double[] guess = new HarmonicFitter.ParameterGuesser(fitter.getObservations()).guess();
-
-                // perform the fitting
-                final double[] fit = fitter.fit(func, new double[] { guess[1], guess[2] });
-                final double freq = (fit[0] % (2 * PI) + 2 * PI) % (2 * PI); // to get always positive freq in <0; 2pi)
-                final double period = 2 * PI / freq;
-                final double phase = ((fit[1] % period) + period) % period;
-                // System.err.println("s=Sin[" + freq + "x+" + phase + "];");
-                return new Tuple<>((int) phase, new Double[] { period });
-            }
-
-            @Override
-            public String toString()
-            {
-                return "fitting";
-            }
-        },
-
-        /**
-         * Estimate the period from the quantiles of peak distances.
-         * 
-         * @author Martin Pecka
-         */
-        QUANTILE_PEAK_DISTANCE_ESTIMATION
-        {
-
-            @Override
-            Tuple<Integer, Double[]> computePeriod(float[] peaks, float[] weights)
-            {
-                // compute peak distances and interpolate weights for them
-                final List<Integer> dists = new ArrayList<>();
-                final List<Float> selectedWeights = new ArrayList<>();
-                int prevPeak = -1;
-                for (int i = 0; i < peaks.length; i++) {
-                    if (peaks[i] == 0)
-                        continue;
-                    if (prevPeak >= 0) {
-                        dists.add(i - prevPeak);
-                        selectedWeights.add((weights[i] + weights[prevPeak]) / 2);
-                    }
-                    prevPeak = i;
-                }
-
-                if (dists.size() == 0)
-                    return null;
-                else if (dists.size() == 1)
-                    return new Tuple<>(null, new Double[] { (double) dists.get(0) });
-
-                // convert to double[] for use with Commons Math
-                final double[] distances = new double[dists.size()];
-                final double[] newWeightsArr = new double[dists.size()];
-                for (int i = 0; i < distances.length; i++) {
-                    distances[i] = dists.get(i);
-                    newWeightsArr[i] = selectedWeights.get(i);
-                }
-
-                // take the 0- and 65-percentils of distances, which means throw away big values;
-                final double low = new Min().evaluate(distances), high = new Percentile(65)
-                        .evaluate(distances);
-                final double[] nearMedians = new double[distances.length / 2];
-                final double[] nearMedianWeights = new double[distances.length / 2];
-                for (int i = 0, j = 0; i < distances.length && j < nearMedians.length; i++) {
-                    if (distances[i] >= low && distances[i] <= high) {
-                        nearMedians[j] = distances[i];
-                        nearMedianWeights[j] = newWeightsArr[i];
-                        j++;
-                    }
-                }
-
-                // perform a weighted sum of all the distances left after the previous step
-                final double period = nearMedians.length > 1 ? MathArrays.linearCombination(nearMedians,
-                        MathArrays.normalizeArray(nearMedianWeights, 1)) : nearMedians[0];
-
-                return new Tuple<>(null, new Double[] { period });
-            }
-
-            @Override
-            public String toString()
-            {
-                return "quantile";
-            }
-        },
-
-        /**
-         * Combined results of the quantile peak estimation and the periodogram method.
-         * 
-         * @author Martin Pecka
-         */
-        COMBINED_QUANTILE_PERIODOGRAM
-        {
-
-            @Override
-            Tuple<Integer, Double[]> computePeriod(float[] peaks, float[] weights)
-            {
-                final Tuple<Integer, Double[]> perResult = PERIODOGRAM.computePeriod(peaks, weights);
-                if (perResult == null || perResult.getY().length == 0)
-                    return null;
-
-                final Tuple<Integer, Double[]> quantResult = QUANTILE_PEAK_DISTANCE_ESTIMATION.computePeriod(peaks,
-                        weights);
-                if (quantResult == null || quantResult.getY().length == 0)
-                    return null;
-
-                double periodPer = perResult.getY()[0];
-                double periodQuant = quantResult.getY()[0];
-
-                // the whole multiplier of periodPer which gets it nearest to periodQuant
-                int multiplier = (int) Math.round(periodQuant / periodPer);
-                return new Tuple<>(null, new Double[] { 0.5 * periodQuant + 0.5 * periodPer * multiplier });
-            }
-
-            @Override
-            public String toString()
-            {
-                return "combined";
-            }
-
-        };
-
-        /**
-         * Compute the period of the peaks possibly taking into account their weights.
-         * 
-         * @param peaks The normalized peaks and zeros elsewhere.
-         * @param weights Weights of the peaks.
-         * @return The period of the peaks. <code>null</code> if no period is present. More possible periods may be
-         *         returned.
-         */
-        abstract Tuple<Integer, Double[]> computePeriod(float[] peaks, float[] weights);
-    }
-
-    @Override
-    protected List<DetectedFeature> detectFeaturesImpl(Product<Float, ?, ?> product)
-    {
-        final List<DetectedFeature> result = new LinkedList<>();
-
-        final float[][] data = prepareData(product.getData());
-
-        {
-            final Tuple<Integer, Double> horizRepeat = detectRepetition(getColumnSums(data));
-            if (horizRepeat != null) {
-                int offset = horizRepeat.getX() != null ? horizRepeat.getX() : 0;
-                result.add(new ElectronPlasmaOscillation(offset, horizRepeat.getY(), 8));
-            }
-        }
-
-        {
-            final Tuple<Integer, Double> vertRepeat = detectRepetition(getRowSums(data));
-            if (vertRepeat != null) {
-                int offset = vertRepeat.getX() != null ? vertRepeat.getX() : 0;
-                result.add(new ElectronCyclotronEchoes(offset, vertRepeat.getY(), 8));
-            }
-        }
-
-        return result;
-    }
-
-    /**
-     * Detect repetition in the given row/column sums.
-     * 
-     * @param sums The row/column sums.
-     * 
-     * @return <code>null</code> if no pattern has been found. Otherwise, the first entry in the tuple means offset,
-     *         while the other entry means period of repetition.
-     */
-    private Tuple<Integer, Double> detectRepetition(float[] sums)
-    {
-        final int n0 = sums.length, t = n0;
-        final float[] peaks = new float[t];
-        final double quantile = new Percentile(60).evaluate(asDouble(sums));
-        for (int i = 0; i < peaks.length; i++) {
-            if (sums[i] >= quantile)
-                peaks[i] = sums[i];
-        }
-
-        // only local maxima should remain in peaks
-        filterPeaks(peaks);
-
-        // make the peaks uniform and normalize their weights
-        float[] weights = new float[peaks.length];
-        System.arraycopy(peaks, 0, weights, 0, peaks.length);
-        weights = normalize(weights);
-        for (int i = 0; i < peaks.length; i++) {
-            if (peaks[i] > 0) {
-                peaks[i] = 1;
-            }
-        }
-
-        final Tuple<Integer, Double[]> strategyResult = strategy.computePeriod(peaks, weights);
-        if (strategyResult != null)
-            return pickBestResult(strategyResult, sums);
-        return null;
-    }
-
-    /**
-     * Pick the best result.
-     * 
-     * @param results The results.
-     * @param sums The sums.
-     * @return The best result.
-     */
-    private Tuple<Integer, Double> pickBestResult(Tuple<Integer, Double[]> results, float[] sums)
-    {
-        if (results.getY().length == 1)
-            return new Tuple<>(results.getX(), results.getY()[0]);
-
-        final Double[] ys = results.getY();
-        final Integer offset = results.getX();
-
-        double bestY = 0;
-        double bestValue = 0;
-        for (double y : ys) {
-            final double value = getPeriodQuality(offset != null ? offset : 0, y, sums);
-            if (value > bestValue) {
-                bestValue = value;
-                bestY = y;
-            }
-        }
-
-        return new Tuple<>(offset, bestY);
-    }
-
-    /**
-     * @param offset offset
-     * @param period period
-     * @param sums sums
-     * @return quality
-     */
-    private double getPeriodQuality(int offset, double period, float[] sums)
-    {
-        int repeats = 0;
-        double sum = 0;
-        int prevI = Integer.MIN_VALUE;
-        for (double i = offset; i < sums.length; i += period) {
-            if (i >= 0 && ((int) i) != prevI) { // offset may be negative
-                repeats++;
-                prevI = (int) i;
-                sum += sums[(int) i];
-            }
-        }
-
-        if (repeats == 0)
-            return 0;
-
-        return sum / repeats;
-    }
-
-    /**
-     * Leave only local maxima in the data, put zeros elsewhere.
-     * 
-     * @param peaks The data to filter.
-     */
-    private void filterPeaks(float[] peaks)
-    {
-        // filter out all values that are not local maxima
-        for (int i = 0; i < peaks.length - 1; i++) {
-            if ((i == 0 || peaks[i - 1] <= peaks[i]) && peaks[i + 1] <= peaks[i]) {
-                if (i > 0) { // set j to the leftmost end of a nonincreasing part left from i
-                    int j = i - 1;
-                    while (j > 0 && peaks[j] > 0 && peaks[j] <= peaks[j + 1])
-                        j--;
-                    for (; j < i; j++)
-                        peaks[j] = 0;
-                }
-
-                { // here we process to the right until the sequence is nonincreasing
-                  // we intentionally increase the iteration variable i!
-                    final int peakI = i;
-                    i++;
-                    for (; i < peaks.length - 1 && peaks[i] > 0 && peaks[i] >= peaks[i + 1]; i++)
-                        peaks[i] = 0;
-                    peaks[peakI + 1] = 0;
-                }
-            }
-        }
-    }
-
-    /**
-     * Process the input data and do whatever is needed to be able to work on them.
-     * 
-     * @param data The data.
-     * @return The processed data.
-     */
-    private float[][] prepareData(Float[][] data)
-    {
-        final int w = data.length, h = data[0].length;
-        final float[][] result = new float[w][h];
-        for (int x = 0; x < w; x++) {
-            for (int y = 0; y < h; y++) {
-                result[x][y] = data[x][y];
-            }
-        }
-
-        return result;
-    }
-
-    /**
-     * Return the row sums of the given data.
-     * 
-     * @param data The data to sum up.
-     * @return The row sums
-     */
-    private float[] getRowSums(float[][] data)
-    {
-        final int w = data.length / 2, h = data[0].length;
-
-        final float[] result = new float[h];
-        for (int y = 0; y < h; y++) {
-            float sum = 0;
-            for (int x = 0; x < w; x++) {
-                sum += data[x][y];
-            }
-            result[y] = sum;
-        }
-        return result;
-    }
-
-    /**
-     * Return the column sums of the given data.
-     * 
-     * @param data The data to sum up.
-     * @return The column sums
-     */
-    private float[] getColumnSums(float[][] data)
-    {
-        final int w = data.length / 2, h = data[0].length;
-
-        final float[] result = new float[w];
-        for (int x = 0; x < w; x++) {
-            float sum = 0;
-            for (int y = 0; y < h; y++) {
-                sum += data[x][y];
-            }
-            result[x] = sum;
-        }
-        return result;
-    }
-
-    /**
-     * Set the computation strategy.
-     * 
-     * @param strategy The strategy to use.
-     */
-    public void setStrategy(ComputationStrategy strategy)
-    {
-        this.strategy = strategy;
-    }
-
-    /**
-     * @return The computation strategy.
-     */
-    public ComputationStrategy getStrategy()
-    {
-        return strategy;
-    }
-
-    /**
-     * Normalize the data.
-     * 
-     * @param data The data to normalize.
-     * @return The normalized copy of data.
-     */
-    private static float[] normalize(float[] data)
-    {
-        float sum = 0;
-        for (float f : data)
-            sum += f;
-        final float[] result = new float[data.length];
-        for (int i = 0; i < result.length; i++)
-            result[i] = data[i] / sum;
-        return result;
-    }
-
-    /**
-     * Return the minimal horizontal distance between peaks.
-     * 
-     * @param peaks The peaks array.
-     * @return The minimal distance between peaks.
-     */
-    private static float getMinPeakDistance(float[] peaks)
-    {
-        float minPeakDistance = Float.MAX_VALUE;
-        int prevPeak = -1;
-        for (int i = 0; i < peaks.length; i++) {
-            if (peaks[i] == 0)
-                continue;
-            if (prevPeak >= 0) {
-                if (i - prevPeak < minPeakDistance)
-                    minPeakDistance = i - prevPeak;
-            }
-            prevPeak = i;
-        }
-        return minPeakDistance;
-    }
-
-    /**
-     * Test the detector on the given ionogram.
-     * 
-     * @param args 0 =&gt; Orbit file, 1 =&gt; position of the ionogram in the file.
-     * 
-     * @throws IOException On IO exception.
-     */
-    public static void main(String[] args) throws IOException
-    {
-        final File orbitFile = new File(args[0]);
-        final int position = Integer.parseInt(args[1]);
-
-        final Ionogram ionogram = new EvenlySampledIonogram(new AISLBLProductReader().readFile(orbitFile)[position]);
-        System.out.println(new SummingDetector().detectFeatures(ionogram));
-    }
-
-
-    /**
-     * @param a the array
-     * @return the array
-     */
-    private static double[] asDouble(float[] a)
-    {
-        final double[] r = new double[a.length];
-        for (int i = 0; i < a.length; i++) {
-            r[i] = a[i];
-        }
-        return r;
-    }
-}
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import static java.lang.Math.PI;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.commons.math3.util.FastMath;
+
+import cz.cuni.mff.peckam.ais.AISLBLProductReader;
+import cz.cuni.mff.peckam.ais.AISProduct;
+import cz.cuni.mff.peckam.ais.EvenlySampledIonogram;
+import cz.cuni.mff.peckam.ais.Ionogram;
+import cz.cuni.mff.peckam.ais.IonogramCube;
+import cz.cuni.mff.peckam.ais.Tuple;
+
+/**
+ * Detector using sums of rows/columns.
+ * 
+ * @author Martin Pecka
+ */
+public class SummingDetector extends FloatFeatureDetector
+{
+
+    /** The strategy used for computing. */
+    private volatile ComputationStrategy strategy   = ComputationStrategy.COMBINED_QUANTILE_PERIODOGRAM;
+
+    /** Whether the sums should be computed from the original frequency columns of ionograms. */
+    private volatile boolean             nativeGrid = false;
+
+    /**
+     * The strategy used for computation.
+     * 
+     * @author Martin Pecka
+     */
+    public enum ComputationStrategy
+    {
+        /**
+         * Compute the period using periodogram as defined in (Scargle, 1982).
+         * 
+         * @author Martin Pecka
+         */
+        PERIODOGRAM
+        {
+            @Override
+            Tuple<Integer, Double[]> computePeriod(float[] peaks, float[] weights)
+            {
+                final int n0 = peaks.length;
+                // the selection of n is such that we get periods lower than width/2 and higher than the lowest
+                // detectable period
+                return computePeriod(peaks, (int) (n0 / getMinPeakDistance(peaks)), n0 / 2);
+            }
+
+            @Override
+            Tuple<Integer, Double[]> computePeriod(float[] peaks, float[] weights, RepeatingLine prior)
+            {
+                final int n0 = peaks.length, t = n0;
+                final int minN = (int) (t / getMinPeakDistance(peaks)), maxN = n0 / 2;
+
+                if (!isPriorUsable(prior, n0))
+                    return computePeriod(peaks, minN, maxN);
+
+                // only search the frequencies near the prior one
+                final int fromN = Math.max(minN, (int) Math.floor(t / (prior.getPeriod() * (1 + PRIOR_TOLERANCE))));
+                final int toN = Math.min(maxN, (int) Math.ceil(t / (prior.getPeriod() * (1 - PRIOR_TOLERANCE))));
+                if (fromN > toN)
+                    return computePeriod(peaks, minN, maxN);
+
+                final Tuple<Integer, Double[]> result = computePeriod(peaks, fromN, toN);
+
+                // if the best frequency is at the border of the narrowed range, the real peak of the periodogram may
+                // be outside of it
+                if (result == null)
+                    return computePeriod(peaks, minN, maxN);
+                final long bestN = Math.round(t / result.getY()[0]);
+                if ((bestN <= fromN && fromN > minN) || (bestN >= toN && toN < maxN))
+                    return computePeriod(peaks, minN, maxN);
+
+                return result;
+            }
+
+            @Override
+            Tuple<Integer, Double[]> computePeriod(PeakSeries series)
+            {
+                final double[] positions = series.getPositions();
+                if (positions == null)
+                    return super.computePeriod(series);
+
+                // the same range of periods as for an evenly sampled series (the shortest period spans two samples),
+                // but more frequencies are tested, because the samples are much sparser than the pixels of the product
+                double minSpacing = Double.MAX_VALUE;
+                for (int i = 1; i < positions.length; i++) {
+                    if (positions[i] > positions[i - 1])
+                        minSpacing = Math.min(minSpacing, positions[i] - positions[i - 1]);
+                }
+                final float[] peaks = series.getPeaks();
+                final double t = series.getLength() * NATIVE_GRID_OVERSAMPLING;
+                final int fromN = (int) (t / getMinPeakDistance(peaks, positions));
+                final int toN = (int) (t / (2 * minSpacing));
+                if (fromN > toN)
+                    return null;
+
+                final double[] periodogram = SeriesWorkspace.get().getPeriodogram(toN - fromN + 1);
+                UnevenPeriodogram.evaluate(positions, peaks, 2 * PI * fromN / t, 2 * PI / t, toN - fromN + 1,
+                        periodogram);
+                final int[] bestNs = FastPeriodogram.topCandidates(periodogram, toN - fromN + 1, fromN, 10);
+
+                final Double[] periods = new Double[bestNs.length];
+                for (int i = 0; i < periods.length; i++)
+                    periods[i] = t / bestNs[i];
+                return new Tuple<>(null, periods);
+            }
+
+            /**
+             * Compute the periods with the highest periodogram values.
+             * 
+             * @param peaks The normalized peaks and zeros elsewhere.
+             * @param fromN The lowest number of periods in the data to test.
+             * @param toN The highest number of periods in the data to test.
+             * @return The most probable periods. <code>null</code> if no period has been tested.
+             */
+            private Tuple<Integer, Double[]> computePeriod(float[] peaks, int fromN, int toN)
+            {
+                // variable names from (Scargle, 1982)
+                final int t = peaks.length;
+                if (fromN > toN)
+                    return null;
+
+                final double[] periodogram = SeriesWorkspace.get().getPeriodogram(toN - fromN + 1);
+                FastPeriodogram.forLength(t).evaluate(peaks, fromN, toN, periodogram);
+                final int[] bestNs = FastPeriodogram.topCandidates(periodogram, toN - fromN + 1, fromN, 10);
+
+                final Double[] periods = new Double[bestNs.length];
+                for (int i = 0; i < periods.length; i++) {
+                    final double freq = 2 * PI * bestNs[i] / t;
+                    periods[i] = 2 * PI / freq;
+                }
+                // periods[0] contains the period with the highest periodogram peak, which should correspond to the
+                // most probable period
+                return new Tuple<>(null, periods);
+            }
+
+            @Override
+            public String toString()
+            {
+                return "periodogram";
+            }
+
+        },
+
+        /**
+         * Compute the period using harmonics fitting least squares.
+         * 
+         * @author Martin Pecka
+         */
+        HARMONICS_FITTING
+        {
+
+            @Override
+            Tuple<Integer, Double[]> computePeriod(final float[] peaks, float[] weights)
+            {
+                return fit(peaks, weights, null);
+            }
+
+            @Override
+            Tuple<Integer, Double[]> computePeriod(PeakSeries series)
+            {
+                return fit(series.getPeaks(), series.getWeights(), series.getPositions(), series.getLength(), null);
+            }
+
+            @Override
+            Tuple<Integer, Double[]> computePeriod(float[] peaks, float[] weights, RepeatingLine prior)
+            {
+                if (!isPriorUsable(prior, peaks.length))
+                    return fit(peaks, weights, null);
+
+                // start the fitting from the prior period and phase
+                final Tuple<Integer, Double[]> result = fit(peaks, weights, new double[] { 2 * PI / prior.getPeriod(),
+                        prior.getOffset() });
+
+                // the fitting has to converge near the prior
+                if (result == null)
+                    return fit(peaks, weights, null);
+                final double period = result.getY()[0];
+                if (Double.isNaN(period) || Math.abs(period - prior.getPeriod()) > PRIOR_TOLERANCE * prior.getPeriod())
+                    return fit(peaks, weights, null);
+
+                return result;
+            }
+
+            /**
+             * Fit the harmonic function to the peaks.
+             * 
+             * @param peaks The normalized peaks and zeros elsewhere.
+             * @param weights Weights of the peaks.
+             * @param initialGuess The frequency and phase to start the fitting with. If <code>null</code>, they are
+             *            guessed from the data.
+             * @return The period of the peaks.
+             */
+            private Tuple<Integer, Double[]> fit(final float[] peaks, float[] weights, double[] initialGuess)
+            {
+                return fit(peaks, weights, null, peaks.length, initialGuess);
+            }
+
+            /**
+             * Fit the harmonic function to the peaks sampled at the given positions.
+             * 
+             * @param peaks The normalized peaks and zeros elsewhere.
+             * @param weights Weights of the peaks.
+             * @param positions Positions of the samples. <code>null</code> if the peaks are evenly sampled.
+             * @param length Length of the sampled interval.
+             * @param initialGuess The frequency and phase to start the fitting with. If <code>null</code>, they are
+             *            guessed from the data.
+             * @return The period of the peaks.
+             */
+            private Tuple<Integer, Double[]> fit(final float[] peaks, float[] weights, double[] positions, int length,
+                    double[] initialGuess)
+            {
+                final SeriesWorkspace workspace = SeriesWorkspace.get();
+
+                // square root the weights in order to get them more equal, which helps
+                final float[] newWeights = workspace.getFitWeights(weights.length);
+                for (int i = 0; i < weights.length; i++)
+                    newWeights[i] = (float) FastMath.sqrt(weights[i]);
+                SeriesWorkspace.normalize(newWeights, newWeights.length);
+                // the fitter requires non-zero weights
+                for (int i = 0; i < newWeights.length; i++) {
+                    if (!(newWeights[i] > 0))
+                        newWeights[i] = 0.001f;
+                }
+
+                // the maximum period we can detect is half of the data width
+                final double minFreq = 2 * PI / (length / 2);
+                // we won't detect periods lower than the minimum distance of two peaks
+                final double maxFreq = 2 * PI / getMinPeakDistance(peaks, positions);
+
+                final double[] fit = workspace.getCosineFitter().fit(peaks, newWeights, positions, minFreq, maxFreq,
+                        initialGuess);
+                if (fit == null)
+                    return null;
+
+                final double freq = (fit[0] % (2 * PI) + 2 * PI) % (2 * PI); // to get always positive freq in <0; 2pi)
+                final double period = 2 * PI / freq;
+                final double phase = ((fit[1] % period) + period) % period;
+                return new Tuple<>((int) phase, new Double[] { period });
+            }
+
+            @Override
+            public String toString()
+            {
+                return "fitting";
+            }
+        },
+
+        /**
+         * Estimate the period from the quantiles of peak distances.
+         * 
+         * @author Martin Pecka
+         */
+        QUANTILE_PEAK_DISTANCE_ESTIMATION
+        {
+
+            @Override
+            Tuple<Integer, Double[]> computePeriod(float[] peaks, float[] weights)
+            {
+                return estimate(peaks, weights, null);
+            }
+
+            @Override
+            Tuple<Integer, Double[]> computePeriod(PeakSeries series)
+            {
+                return estimate(series.getPeaks(), series.getWeights(), series.getPositions());
+            }
+
+            /**
+             * Estimate the period from the distances of the peaks.
+             * 
+             * @param peaks The normalized peaks and zeros elsewhere.
+             * @param weights Weights of the peaks.
+             * @param positions Positions of the samples. <code>null</code> if the peaks are evenly sampled.
+             * @return The period of the peaks.
+             */
+            private Tuple<Integer, Double[]> estimate(float[] peaks, float[] weights, double[] positions)
+            {
+                final SeriesWorkspace workspace = SeriesWorkspace.get();
+
+                // compute peak distances and interpolate weights for them
+                final float[] distances = workspace.getDistances(peaks.length);
+                final float[] distanceWeights = workspace.getDistanceWeights(peaks.length);
+                int numDistances = 0;
+                int prevPeak = -1;
+                for (int i = 0; i < peaks.length; i++) {
+                    if (peaks[i] == 0)
+                        continue;
+                    if (prevPeak >= 0) {
+                        distances[numDistances] = (positions != null) ? (float) (positions[i] - positions[prevPeak])
+                                : i - prevPeak;
+                        distanceWeights[numDistances] = (weights[i] + weights[prevPeak]) / 2;
+                        numDistances++;
+                    }
+                    prevPeak = i;
+                }
+
+                if (numDistances == 0)
+                    return null;
+                else if (numDistances == 1)
+                    return new Tuple<>(null, new Double[] { (double) distances[0] });
+
+                // take the 0- and 65-percentils of distances, which means throw away big values;
+                float low = distances[0];
+                for (int i = 1; i < numDistances; i++)
+                    low = Math.min(low, distances[i]);
+                final double high = workspace.percentile(distances, numDistances, 65);
+
+                final int numNearMedians = numDistances / 2;
+                final double[] nearMedians = workspace.getSelected(numNearMedians);
+                final double[] nearMedianWeights = workspace.getSelectedWeights(numNearMedians);
+                int j = 0;
+                for (int i = 0; i < numDistances && j < numNearMedians; i++) {
+                    if (distances[i] >= low && distances[i] <= high) {
+                        nearMedians[j] = distances[i];
+                        nearMedianWeights[j] = distanceWeights[i];
+                        j++;
+                    }
+                }
+                for (; j < numNearMedians; j++) {
+                    nearMedians[j] = 0;
+                    nearMedianWeights[j] = 0;
+                }
+
+                // perform a weighted sum of all the distances left after the previous step
+                final double period = numNearMedians > 1 ? SeriesWorkspace.weightedSum(nearMedians,
+                        nearMedianWeights, numNearMedians) : nearMedians[0];
+
+                return new Tuple<>(null, new Double[] { period });
+            }
+
+            @Override
+            public String toString()
+            {
+                return "quantile";
+            }
+        },
+
+        /**
+         * Combined results of the quantile peak estimation and the periodogram method.
+         * 
+         * @author Martin Pecka
+         */
+        COMBINED_QUANTILE_PERIODOGRAM
+        {
+
+            @Override
+            Tuple<Integer, Double[]> computePeriod(float[] peaks, float[] weights)
+            {
+                final Tuple<Integer, Double[]> perResult = PERIODOGRAM.computePeriod(peaks, weights);
+                if (perResult == null)
+                    return null;
+                return combine(perResult, QUANTILE_PEAK_DISTANCE_ESTIMATION.computePeriod(peaks, weights));
+            }
+
+            @Override
+            Tuple<Integer, Double[]> computePeriod(float[] peaks, float[] weights, RepeatingLine prior)
+            {
+                final Tuple<Integer, Double[]> perResult = PERIODOGRAM.computePeriod(peaks, weights, prior);
+                if (perResult == null)
+                    return null;
+                return combine(perResult, QUANTILE_PEAK_DISTANCE_ESTIMATION.computePeriod(peaks, weights));
+            }
+
+            @Override
+            Tuple<Integer, Double[]> computePeriod(PeakSeries series)
+            {
+                return combine(series.getPeriod(PERIODOGRAM), series.getPeriod(QUANTILE_PEAK_DISTANCE_ESTIMATION));
+            }
+
+            /**
+             * Combine the given periodogram result with the quantile estimation.
+             * 
+             * @param perResult Result of the periodogram.
+             * @param quantResult Result of the quantile estimation.
+             * @return The combined period.
+             */
+            private Tuple<Integer, Double[]> combine(Tuple<Integer, Double[]> perResult,
+                    Tuple<Integer, Double[]> quantResult)
+            {
+                if (perResult == null || perResult.getY().length == 0)
+                    return null;
+                if (quantResult == null || quantResult.getY().length == 0)
+                    return null;
+
+                double periodPer = perResult.getY()[0];
+                double periodQuant = quantResult.getY()[0];
+
+                // the whole multiplier of periodPer which gets it nearest to periodQuant
+                int multiplier = (int) Math.round(periodQuant / periodPer);
+                return new Tuple<>(null, new Double[] { 0.5 * periodQuant + 0.5 * periodPer * multiplier });
+            }
+
+            @Override
+            public String toString()
+            {
+                return "combined";
+            }
+
+        };
+
+        /**
+         * Compute the period of the peaks possibly taking into account their weights.
+         * 
+         * @param peaks The normalized peaks and zeros elsewhere.
+         * @param weights Weights of the peaks.
+         * @return The period of the peaks. <code>null</code> if no period is present. More possible periods may be
+         *         returned.
+         */
+        abstract Tuple<Integer, Double[]> computePeriod(float[] peaks, float[] weights);
+
+        /**
+         * Compute the period of the peaks using the period detected in a previous (similar) data as a prior. If the
+         * prior cannot be confirmed in the data, the full computation is performed.
+         * 
+         * @param peaks The normalized peaks and zeros elsewhere.
+         * @param weights Weights of the peaks.
+         * @param prior The previously detected repetition. May be <code>null</code>.
+         * @return The period of the peaks. <code>null</code> if no period is present. More possible periods may be
+         *         returned.
+         */
+        Tuple<Integer, Double[]> computePeriod(float[] peaks, float[] weights, RepeatingLine prior)
+        {
+            return computePeriod(peaks, weights);
+        }
+
+        /**
+         * Compute the period of the peaks of the given series. The periods already computed for the series by other
+         * strategies may be reused.
+         * 
+         * @param series The series of peaks.
+         * @return The period of the peaks. <code>null</code> if no period is present. More possible periods may be
+         *         returned.
+         */
+        Tuple<Integer, Double[]> computePeriod(PeakSeries series)
+        {
+            return computePeriod(series.getPeaks(), series.getWeights());
+        }
+    }
+
+    /**
+     * Peaks found in row or column sums, together with the periods the strategies have computed from them.
+     * <p>
+     * The series is stored in the {@link DetectionContext}, so all summing detectors run on one product share the peak
+     * extraction and the results of the strategies. The series is thread-safe.
+     * 
+     * @author Martin Pecka
+     */
+    static final class PeakSeries
+    {
+        /** The row/column sums. */
+        private final float[]                                           sums;
+        /** The normalized peaks and zeros elsewhere. */
+        private final float[]                                           peaks;
+        /** Weights of the peaks. */
+        private final float[]                                           weights;
+        /** Increasing positions of the samples. <code>null</code> if the samples lie at 0, 1, ... */
+        private final double[]                                          positions;
+        /** Length of the sampled interval. */
+        private final int                                               length;
+        /** The periods computed by the strategies (<code>null</code> is a valid computed value). */
+        private final Map<ComputationStrategy, Tuple<Integer, Double[]>> periods = new EnumMap<>(
+                                                                                     ComputationStrategy.class);
+
+        /**
+         * @param sums The row/column sums.
+         * @param peaks The normalized peaks and zeros elsewhere.
+         * @param weights Weights of the peaks.
+         * @param positions Increasing positions of the samples. <code>null</code> if the samples lie at 0, 1, ...
+         * @param length Length of the sampled interval.
+         */
+        PeakSeries(float[] sums, float[] peaks, float[] weights, double[] positions, int length)
+        {
+            this.sums = sums;
+            this.peaks = peaks;
+            this.weights = weights;
+            this.positions = positions;
+            this.length = length;
+        }
+
+        /**
+         * @return The row/column sums.
+         */
+        float[] getSums()
+        {
+            return sums;
+        }
+
+        /**
+         * @return The normalized peaks and zeros elsewhere.
+         */
+        float[] getPeaks()
+        {
+            return peaks;
+        }
+
+        /**
+         * @return Weights of the peaks.
+         */
+        float[] getWeights()
+        {
+            return weights;
+        }
+
+        /**
+         * @return Increasing positions of the samples. <code>null</code> if the samples lie at 0, 1, ...
+         */
+        double[] getPositions()
+        {
+            return positions;
+        }
+
+        /**
+         * @return Length of the sampled interval.
+         */
+        int getLength()
+        {
+            return length;
+        }
+
+        /**
+         * @param position A position in the sampled interval.
+         * @return Index of the sample nearest to the position (the sample the position lies in for evenly sampled
+         *         series).
+         */
+        int getSampleIndex(double position)
+        {
+            if (positions == null)
+                return (int) position;
+
+            final int index = Arrays.binarySearch(positions, position);
+            if (index >= 0)
+                return index;
+            final int next = -index - 1;
+            if (next == 0)
+                return 0;
+            if (next == positions.length)
+                return next - 1;
+            return (position - positions[next - 1] <= positions[next] - position) ? next - 1 : next;
+        }
+
+        /**
+         * Return the period computed by the given strategy. The period is computed only on the first request.
+         * 
+         * @param strategy The strategy.
+         * @return The period of the peaks. <code>null</code> if no period is present. More possible periods may be
+         *         returned.
+         */
+        synchronized Tuple<Integer, Double[]> getPeriod(ComputationStrategy strategy)
+        {
+            if (!periods.containsKey(strategy))
+                periods.put(strategy, strategy.computePeriod(this));
+            return periods.get(strategy);
+        }
+    }
+
+    /** Prefix of the keys of the context attributes containing the peak series. */
+    private static final String PEAKS_KEY_PREFIX         = SummingDetector.class.getName() + ".peaks.";
+
+    /**
+     * How many times more frequencies the periodogram tests in a series sampled at the original frequencies than in an
+     * evenly sampled series of the same length.
+     */
+    static final int            NATIVE_GRID_OVERSAMPLING = 8;
+
+    /** The relative difference of a period from its prior value that is still considered to confirm the prior. */
+    static final double PRIOR_TOLERANCE = 0.25;
+
+    /**
+     * Return true if the given prior can be used for searching periods in data of the given length.
+     * 
+     * @param prior The prior. May be <code>null</code>.
+     * @param length Length of the data.
+     * @return Whether the prior is usable.
+     */
+    static boolean isPriorUsable(RepeatingLine prior, int length)
+    {
+        return prior != null && prior.getPeriod() >= 1 && prior.getPeriod() <= length / 2;
+    }
+
+    @Override
+    protected List<DetectedFeature> detectFeaturesImpl(DetectionContext context)
+    {
+        return detectFeaturesImpl(context, null);
+    }
+
+    @Override
+    protected List<DetectedFeature> detectFeaturesImpl(DetectionContext context, DetectionResult prior)
+    {
+        final List<DetectedFeature> result = new LinkedList<>();
+
+        final ComputationStrategy strategy = this.strategy; // to use the same strategy during the whole detection
+        final boolean nativeGrid = this.nativeGrid && context.getProduct() instanceof Ionogram;
+        // the priors are only supported on evenly sampled series
+        final DetectionResult usedPrior = nativeGrid ? null : prior;
+
+        {
+            final Tuple<Integer, Double> horizRepeat = detectRepetition(getPeakSeries(context, true, nativeGrid),
+                    strategy, getPriorRepetition(usedPrior, ElectronPlasmaOscillation.ID));
+            if (horizRepeat != null) {
+                int offset = horizRepeat.getX() != null ? horizRepeat.getX() : 0;
+                result.add(new ElectronPlasmaOscillation(offset, horizRepeat.getY(), 8));
+            }
+        }
+
+        {
+            final Tuple<Integer, Double> vertRepeat = detectRepetition(getPeakSeries(context, false, nativeGrid),
+                    strategy, getPriorRepetition(usedPrior, ElectronCyclotronEchoes.ID));
+            if (vertRepeat != null) {
+                int offset = vertRepeat.getX() != null ? vertRepeat.getX() : 0;
+                result.add(new ElectronCyclotronEchoes(offset, vertRepeat.getY(), 8));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Detect features in the product of the given context using all the given strategies.
+     * <p>
+     * The peaks in the row/column sums are found only once for all the strategies, and the combined strategy reuses the
+     * periods found by the periodogram and quantile strategies.
+     * 
+     * @param context The context of the product to detect features in.
+     * @param strategies The strategies to use.
+     * @return The detection results of the strategies.
+     */
+    public static Map<ComputationStrategy, DetectionResult> detectWithStrategies(DetectionContext context,
+            Collection<ComputationStrategy> strategies)
+    {
+        final Map<ComputationStrategy, DetectionResult> results = new EnumMap<>(ComputationStrategy.class);
+        for (ComputationStrategy strategy : strategies) {
+            final SummingDetector detector = new SummingDetector();
+            detector.setStrategy(strategy);
+            results.put(strategy, detector.detectFeatures(context));
+        }
+        return results;
+    }
+
+    /**
+     * Return the peak series of the row/column sums of the left half of the product stored in the context. The series
+     * is created if the context doesn't contain it yet.
+     * 
+     * @param context The context of the product.
+     * @param columnSums If true, return the series of column sums, otherwise the series of row sums.
+     * @param nativeGrid Whether to compute the sums from the original frequency columns of the ionogram.
+     * @return The peak series.
+     */
+    private static PeakSeries getPeakSeries(DetectionContext context, boolean columnSums, boolean nativeGrid)
+    {
+        final String key = getPeakSeriesKey(columnSums, nativeGrid);
+        final Object series = context.getAttribute(key);
+        if (series instanceof PeakSeries)
+            return (PeakSeries) series;
+
+        final PeakSeries result;
+        if (nativeGrid) {
+            result = createNativePeakSeries((Ionogram) context.getProduct(), columnSums);
+        } else {
+            final int w = context.getWidth() / 2;
+            final float[] sums = columnSums ? context.getColumnSums(0, w) : context.getRowSums(0, w);
+            result = createPeakSeries(sums, null, sums.length);
+        }
+        context.setAttribute(key, result);
+        return result;
+    }
+
+    /**
+     * @param columnSums If true, return the key of the series of column sums, otherwise the key of the series of row
+     *            sums.
+     * @param nativeGrid Whether the sums are computed from the original frequency columns of the ionogram.
+     * @return Key of the context attribute containing the peak series.
+     */
+    private static String getPeakSeriesKey(boolean columnSums, boolean nativeGrid)
+    {
+        return PEAKS_KEY_PREFIX + (nativeGrid ? "native." : "") + (columnSums ? "columns" : "rows");
+    }
+
+    /**
+     * Compute the row/column sums of all frames of the cube by the batched kernels of the cube and store the peak
+     * series found in them in the contexts of the frames.
+     * <p>
+     * On the original grid, the cube has to consist of the original ionograms; the series of a cube of resampled
+     * ionograms are then computed for each frame separately from their original columns. Nothing is computed if all
+     * the contexts already contain the series (e.g. stored by another summing detector).
+     */
+    @Override
+    protected void prepareContexts(IonogramCube cube, DetectionContext[] contexts)
+    {
+        final boolean nativeGrid = this.nativeGrid;
+        final String columnsKey = getPeakSeriesKey(true, nativeGrid), rowsKey = getPeakSeriesKey(false, nativeGrid);
+        final int numFrames = cube.getNumFrames();
+
+        boolean missing = false;
+        for (int f = 0; f < numFrames && !missing; f++) {
+            missing = contexts[f] != null
+                    && (contexts[f].getAttribute(columnsKey) == null || contexts[f].getAttribute(rowsKey) == null);
+        }
+        if (!missing)
+            return;
+
+        final float[][] columnSums, rowSums;
+        final int[] numColumns = new int[numFrames];
+        if (nativeGrid) {
+            if (cube.getFrame(0) instanceof EvenlySampledIonogram)
+                return;
+            for (int f = 0; f < numFrames; f++)
+                numColumns[f] = getNumLeftColumns(cube.getFrame(f));
+            columnSums = cube.getColumnSums(0, cube.getWidth());
+            rowSums = cube.getRowSums(0, numColumns);
+        } else {
+            final int w = cube.getWidth() / 2;
+            columnSums = cube.getColumnSums(0, w);
+            rowSums = cube.getRowSums(0, w);
+        }
+
+        for (int f = 0; f < numFrames; f++) {
+            if (contexts[f] == null || (contexts[f].getAttribute(columnsKey) != null
+                    && contexts[f].getAttribute(rowsKey) != null))
+                continue;
+
+            final PeakSeries columnSeries, rowSeries;
+            if (nativeGrid) {
+                final Ionogram frame = cube.getFrame(f);
+                columnSeries = createNativePeakSeries(frame, numColumns[f], columnSums[f], true);
+                rowSeries = createNativePeakSeries(frame, numColumns[f], rowSums[f], false);
+            } else {
+                columnSeries = createPeakSeries(columnSums[f], null, columnSums[f].length);
+                rowSeries = createPeakSeries(rowSums[f], null, rowSums[f].length);
+            }
+            contexts[f].setAttribute(columnsKey, columnSeries);
+            contexts[f].setAttribute(rowsKey, rowSeries);
+        }
+    }
+
+    /**
+     * Find the peaks in the row/column sums of the left half of the ionogram computed from its original frequency
+     * columns instead of its data.
+     * <p>
+     * The positions of the samples are expressed in the coordinates of the ionogram's data (e.g. the original column of
+     * frequency <code>f</code> lies at <code>(f - min) / (max - min) * width</code>), so the periods found in the
+     * series are measured in the same units as the periods found in sums of the data.
+     * 
+     * @param ionogram The ionogram.
+     * @param columnSums If true, return the series of column sums, otherwise the series of row sums.
+     * @return The peak series.
+     */
+    private static PeakSeries createNativePeakSeries(Ionogram ionogram, boolean columnSums)
+    {
+        final AISProduct[] columns = ionogram.getColumns();
+        final int numColumns = getNumLeftColumns(ionogram);
+
+        if (columnSums) {
+            final float[] sums = new float[numColumns];
+            for (int x = 0; x < numColumns; x++) {
+                double sum = 0;
+                for (Float value : columns[x].getData()[0])
+                    sum += value;
+                sums[x] = (float) sum;
+            }
+            return createNativePeakSeries(ionogram, numColumns, sums, true);
+        } else {
+            final int height = columns[0].getData()[0].length;
+            final double[] sums = new double[height];
+            for (int x = 0; x < numColumns; x++) {
+                final Float[] column = columns[x].getData()[0];
+                for (int y = 0; y < height; y++)
+                    sums[y] += column[y];
+            }
+            final float[] floatSums = new float[height];
+            for (int y = 0; y < height; y++)
+                floatSums[y] = (float) sums[y];
+            return createNativePeakSeries(ionogram, numColumns, floatSums, false);
+        }
+    }
+
+    /**
+     * Find the peaks in the given row/column sums of the original frequency columns of the left half of the ionogram.
+     * 
+     * @param ionogram The ionogram.
+     * @param numColumns The number of original columns in the left half of the ionogram (see
+     *            {@link #getNumLeftColumns(Ionogram)}).
+     * @param sums The column sums of the original columns (only the first <code>numColumns</code> of them are used), or
+     *            the row sums of the first <code>numColumns</code> original columns.
+     * @param columnSums If true, the sums are column sums, otherwise they are row sums.
+     * @return The peak series.
+     */
+    private static PeakSeries createNativePeakSeries(Ionogram ionogram, int numColumns, float[] sums,
+            boolean columnSums)
+    {
+        if (columnSums) {
+            final Float[] frequencies = ionogram.getOriginalColumnKeys();
+            final double minFreq = ionogram.getMinColumnValue();
+            final double xScale = ionogram.getWidth() / (ionogram.getMaxColumnValue() - minFreq);
+            final double[] positions = new double[numColumns];
+            for (int x = 0; x < numColumns; x++)
+                positions[x] = (frequencies[x] - minFreq) * xScale;
+            return createPeakSeries(Arrays.copyOf(sums, numColumns), positions, ionogram.getWidth() / 2);
+        } else {
+            final int height = sums.length;
+            final double yScale = (double) ionogram.getHeight() / height;
+            final double[] positions = new double[height];
+            for (int y = 0; y < height; y++)
+                positions[y] = y * yScale;
+            return createPeakSeries(sums, positions, ionogram.getHeight());
+        }
+    }
+
+    /**
+     * @param ionogram The ionogram.
+     * @return The number of original frequency columns lying in the left half of the ionogram. The columns are ordered
+     *         by frequency, so these are the first columns.
+     */
+    private static int getNumLeftColumns(Ionogram ionogram)
+    {
+        final Float[] frequencies = ionogram.getOriginalColumnKeys();
+        final double minFreq = ionogram.getMinColumnValue();
+        final double xScale = ionogram.getWidth() / (ionogram.getMaxColumnValue() - minFreq);
+        final int w = ionogram.getWidth() / 2;
+
+        int numColumns = 0;
+        while (numColumns < frequencies.length && (frequencies[numColumns] - minFreq) * xScale < w)
+            numColumns++;
+        return numColumns;
+    }
+
+    /**
+     * Detect repetition in the given peak series.
+     * 
+     * @param series The peak series of the row/column sums.
+     * @param strategy The computation strategy to use.
+     * @param prior The repetition detected in the previous ionogram. May be <code>null</code>.
+     * 
+     * @return <code>null</code> if no pattern has been found. Otherwise, the first entry in the tuple means offset,
+     *         while the other entry means period of repetition.
+     */
+    private Tuple<Integer, Double> detectRepetition(PeakSeries series, ComputationStrategy strategy,
+            RepeatingLine prior)
+    {
+        final Tuple<Integer, Double[]> strategyResult = (prior != null) ? strategy.computePeriod(series.getPeaks(),
+                series.getWeights(), prior) : series.getPeriod(strategy);
+        if (strategyResult != null)
+            return pickBestResult(strategyResult, series);
+        return null;
+    }
+
+    /**
+     * Find the peaks in the given row/column sums.
+     * 
+     * @param sums The row/column sums.
+     * @param positions Increasing positions of the sums. <code>null</code> if they lie at 0, 1, ...
+     * @param length Length of the sampled interval.
+     * @return The peak series.
+     */
+    private static PeakSeries createPeakSeries(float[] sums, double[] positions, int length)
+    {
+        final int n0 = sums.length, t = n0;
+        final float[] peaks = new float[t];
+        final double quantile = SeriesWorkspace.get().percentile(sums, t, 60);
+        for (int i = 0; i < peaks.length; i++) {
+            peaks[i] = (sums[i] >= quantile) ? sums[i] : 0;
+        }
+
+        // only local maxima should remain in peaks
+        filterPeaks(peaks);
+
+        // make the peaks uniform and normalize their weights
+        final float[] weights = new float[t];
+        System.arraycopy(peaks, 0, weights, 0, peaks.length);
+        SeriesWorkspace.normalize(weights, weights.length);
+        for (int i = 0; i < peaks.length; i++) {
+            if (peaks[i] > 0) {
+                peaks[i] = 1;
+            }
+        }
+
+        return new PeakSeries(sums, peaks, weights, positions, length);
+    }
+
+    /**
+     * Return the repetition of the given type from the prior result.
+     * 
+     * @param prior The prior result. May be <code>null</code>.
+     * @param featureId Id of the feature.
+     * @return The repetition. <code>null</code> if there is none.
+     */
+    static RepeatingLine getPriorRepetition(DetectionResult prior, String featureId)
+    {
+        if (prior == null)
+            return null;
+        final DetectedFeature feature = prior.getFeature(featureId);
+        if (feature instanceof RepeatingLine)
+            return (RepeatingLine) feature;
+        return null;
+    }
+
+    /**
+     * Pick the best result.
+     * 
+     * @param results The results.
+     * @param series The series the results have been computed for.
+     * @return The best result.
+     */
+    private static Tuple<Integer, Double> pickBestResult(Tuple<Integer, Double[]> results, PeakSeries series)
+    {
+        if (results.getY().length == 1)
+            return new Tuple<>(results.getX(), results.getY()[0]);
+
+        final Double[] ys = results.getY();
+        final Integer offset = results.getX();
+
+        double bestY = 0;
+        double bestValue = 0;
+        for (double y : ys) {
+            final double value = getPeriodQuality(offset != null ? offset : 0, y, series);
+            if (value > bestValue) {
+                bestValue = value;
+                bestY = y;
+            }
+        }
+
+        return new Tuple<>(offset, bestY);
+    }
+
+    /**
+     * @param offset offset
+     * @param period period
+     * @param series series
+     * @return quality
+     */
+    private static double getPeriodQuality(int offset, double period, PeakSeries series)
+    {
+        final float[] sums = series.getSums();
+        int repeats = 0;
+        double sum = 0;
+        int prevI = Integer.MIN_VALUE;
+        for (double i = offset; i < series.getLength(); i += period) {
+            if (i >= 0 && series.getSampleIndex(i) != prevI) { // offset may be negative
+                repeats++;
+                prevI = series.getSampleIndex(i);
+                sum += sums[prevI];
+            }
+        }
+
+        if (repeats == 0)
+            return 0;
+
+        return sum / repeats;
+    }
+
+    /**
+     * Leave only local maxima in the data, put zeros elsewhere.
+     * 
+     * @param peaks The data to filter.
+     */
+    private static void filterPeaks(float[] peaks)
+    {
+        // filter out all values that are not local maxima
+        for (int i = 0; i < peaks.length - 1; i++) {
+            if ((i == 0 || peaks[i - 1] <= peaks[i]) && peaks[i + 1] <= peaks[i]) {
+                if (i > 0) { // set j to the leftmost end of a nonincreasing part left from i
+                    int j = i - 1;
+                    while (j > 0 && peaks[j] > 0 && peaks[j] <= peaks[j + 1])
+                        j--;
+                    for (; j < i; j++)
+                        peaks[j] = 0;
+                }
+
+                { // here we process to the right until the sequence is nonincreasing
+                  // we intentionally increase the iteration variable i!
+                    final int peakI = i;
+                    i++;
+                    for (; i < peaks.length - 1 && peaks[i] > 0 && peaks[i] >= peaks[i + 1]; i++)
+                        peaks[i] = 0;
+                    peaks[peakI + 1] = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Set the computation strategy.
+     * 
+     * @param strategy The strategy to use.
+     */
+    public void setStrategy(ComputationStrategy strategy)
+    {
+        this.strategy = strategy;
+    }
+
+    /**
+     * @return The computation strategy.
+     */
+    public ComputationStrategy getStrategy()
+    {
+        return strategy;
+    }
+
+    /**
+     * Set whether the row/column sums of ionograms should be computed from their original (unevenly sampled) frequency
+     * columns instead of their data. The sums are then analyzed with the real column frequencies as sample positions,
+     * so the detector doesn't need the ionograms to be resampled (see {@link #acceptsNativeGrid()}). The periods are
+     * still reported in the coordinates of the product the detection runs on.
+     * <p>
+     * Priors are not used for the detection on the original grid.
+     * 
+     * @param nativeGrid Whether to use the original frequency columns.
+     */
+    public void setNativeGrid(boolean nativeGrid)
+    {
+        this.nativeGrid = nativeGrid;
+    }
+
+    /**
+     * @return Whether the row/column sums of ionograms are computed from their original frequency columns.
+     */
+    public boolean isNativeGrid()
+    {
+        return nativeGrid;
+    }
+
+    @Override
+    public boolean acceptsNativeGrid()
+    {
+        return nativeGrid;
+    }
+
+    /**
+     * Return the minimal horizontal distance between peaks.
+     * 
+     * @param peaks The peaks array.
+     * @return The minimal distance between peaks.
+     */
+    private static float getMinPeakDistance(float[] peaks)
+    {
+        return getMinPeakDistance(peaks, null);
+    }
+
+    /**
+     * Return the minimal horizontal distance between peaks.
+     * 
+     * @param peaks The peaks array.
+     * @param positions Positions of the samples. <code>null</code> if the peaks are evenly sampled.
+     * @return The minimal distance between peaks.
+     */
+    private static float getMinPeakDistance(float[] peaks, double[] positions)
+    {
+        float minPeakDistance = Float.MAX_VALUE;
+        int prevPeak = -1;
+        for (int i = 0; i < peaks.length; i++) {
+            if (peaks[i] == 0)
+                continue;
+            if (prevPeak >= 0) {
+                final float distance = (positions != null) ? (float) (positions[i] - positions[prevPeak])
+                        : i - prevPeak;
+                if (distance < minPeakDistance)
+                    minPeakDistance = distance;
+            }
+            prevPeak = i;
+        }
+        return minPeakDistance;
+    }
+
+    /**
+     * Test the detector on the given ionogram.
+     * 
+     * @param args 0 =&gt; Orbit file, 1 =&gt; position of the ionogram in the file.
+     * 
+     * @throws IOException On IO exception.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        final File orbitFile = new File(args[0]);
+        final int position = Integer.parseInt(args[1]);
+
+        final Ionogram ionogram = new EvenlySampledIonogram(new AISLBLProductReader().readFile(orbitFile)[position]);
+        final Map<ComputationStrategy, DetectionResult> results = detectWithStrategies(new DetectionContext(ionogram),
+                EnumSet.allOf(ComputationStrategy.class));
+        for (Entry<ComputationStrategy, DetectionResult> result : results.entrySet())
+            System.out.println(result.getKey() + ": " + result.getValue());
+        System.out.println("Harmonic fitting: " + CosineFitter.getTotalFits() + " fits, "
+                + CosineFitter.getTotalIterations() + " iterations, " + CosineFitter.getTotalEvaluations()
+                + " evaluations");
+    }
+}
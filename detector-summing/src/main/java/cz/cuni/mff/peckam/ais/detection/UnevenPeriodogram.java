@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import static java.lang.Math.PI;
+import static java.lang.Math.atan;
+import static java.lang.Math.cos;
+import static java.lang.Math.sin;
+
+/**
+ * Periodogram as defined in (Scargle, 1982) of a series sampled at arbitrary positions.
+ * <p>
+ * The periodogram is evaluated at evenly spaced frequencies. The sine and cosine of every sample are computed only for
+ * the first frequency; for the following ones they are obtained by the trigonometric recurrence (Press &amp; Rybicki,
+ * 1989), so the evaluation of a frequency only consists of multiplications and additions. The sums over the squared
+ * sines and cosines shifted by <code>tau</code> are expressed using the sums of the unshifted ones.
+ * <p>
+ * The phase <code>tau</code> and the treatment of the near-zero sums follow {@link FastPeriodogram}, so for samples at
+ * positions <code>1..t</code> both give the same values up to rounding errors.
+ * 
+ * @author Martin Pecka
+ */
+final class UnevenPeriodogram
+{
+    /** The values lower than this are considered zero. */
+    private static final double EPSILON = 10E-15;
+
+    /**
+     * Only static methods.
+     */
+    private UnevenPeriodogram()
+    {
+    }
+
+    /**
+     * Compute the periodogram of the given series for frequencies <code>fromFreq + k * step</code>.
+     * 
+     * @param positions Positions of the samples.
+     * @param values Values of the samples.
+     * @param fromFreq The lowest frequency (angular).
+     * @param step The difference of two consecutive frequencies.
+     * @param count Number of the frequencies.
+     * @param result The array to store the periodogram values to; the value of the <code>k</code>-th frequency is
+     *            stored at index <code>k</code>.
+     */
+    static void evaluate(double[] positions, float[] values, double fromFreq, double step, int count, double[] result)
+    {
+        final int n = positions.length;
+
+        // cosine and sine of the current frequency times the position; and of the step times the position
+        final double[][] buffers = SeriesWorkspace.get().getRecurrenceBuffers(n);
+        final double[] cos = buffers[0], sin = buffers[1];
+        final double[] stepCos = buffers[2], stepSin = buffers[3];
+        for (int i = 0; i < n; i++) {
+            cos[i] = cos(fromFreq * positions[i]);
+            sin[i] = sin(fromFreq * positions[i]);
+            stepCos[i] = cos(step * positions[i]);
+            stepSin[i] = sin(step * positions[i]);
+        }
+
+        for (int k = 0; k < count; k++) {
+            double cosSum = 0, sinSum = 0, cosSqSum = 0, cosSinSum = 0;
+            for (int i = 0; i < n; i++) {
+                final double c = cos[i], s = sin[i], x = values[i];
+                cosSum += x * c;
+                sinSum += x * s;
+                cosSqSum += c * c;
+                cosSinSum += c * s;
+
+                // advance to the next frequency
+                cos[i] = c * stepCos[i] - s * stepSin[i];
+                sin[i] = s * stepCos[i] + c * stepSin[i];
+            }
+
+            // sum(sin(2 * freq * t)) and sum(cos(2 * freq * t)); tau is computed from them as in FastPeriodogram
+            final double freq = fromFreq + k * step;
+            final double tau_sinSum = 2 * cosSinSum;
+            final double tau_cosSum = 2 * cosSqSum - n;
+            final double tau = (tau_cosSum <= EPSILON) ? 0 : atan(tau_sinSum / tau_cosSum) / (2 * PI);
+
+            final double squaresDiff = cos(2 * freq * tau) * tau_cosSum + sin(2 * freq * tau) * tau_sinSum;
+            final double cos_sum = 0.5 * (n + squaresDiff);
+            final double sin_sum = 0.5 * (n - squaresDiff);
+            if (cos_sum <= EPSILON || sin_sum <= EPSILON) {
+                result[k] = 0;
+                continue;
+            }
+
+            final double tauCos = cos(freq * tau), tauSin = sin(freq * tau);
+            double cos_valSum = tauCos * cosSum + tauSin * sinSum;
+            double sin_valSum = tauCos * sinSum - tauSin * cosSum;
+            if (cos_valSum <= EPSILON)
+                cos_valSum = 0;
+            if (sin_valSum <= EPSILON)
+                sin_valSum = 0;
+            result[k] = 0.5 * (cos_valSum * cos_valSum / cos_sum + sin_valSum * sin_valSum / sin_sum);
+        }
+    }
+}
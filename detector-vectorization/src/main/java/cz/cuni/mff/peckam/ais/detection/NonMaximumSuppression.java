@@ -0,0 +1,307 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import java.util.Arrays;
+
+/**
+ * Suppression of the values that are not the maxima of their neighborhood along one axis of the data.
+ * <p>
+ * The samples are processed in order and each one is zeroed if it is lower than {@link #ZERO} or if any sample closer
+ * than <code>radius</code> is larger. The preceding samples are compared with their already suppressed values, while
+ * the following ones still have their original values (which is what the in-place thinning in
+ * {@link VectorizationDetector} did by testing the whole neighborhood for each pixel).
+ * <p>
+ * The maxima of the following samples are computed by the van Herk/Gil-Werman algorithm: the line is split into blocks
+ * of <code>radius</code> samples and every window is covered by the suffix of one block and the prefix of the next one.
+ * The preceding samples need no window at all - two samples that both survive closer than <code>radius</code> to each
+ * other have to be equal (each one is not larger than the other), so the largest surviving value in the window is the
+ * value of the last survivor if it is close enough. Each sample thus costs a constant number of comparisons
+ * independent of the radius. NaN samples are never larger than anything, as in the original comparisons.
+ * <p>
+ * The instances hold buffers for the computation and are not thread-safe.
+ * 
+ * @author Martin Pecka
+ */
+public final class NonMaximumSuppression
+{
+    /** The values lower than this are considered zero. */
+    public static final double ZERO            = 1E-15;
+
+    /** The maximal distance of the compared samples. */
+    private final int          radius;
+
+    /** Maxima of the block prefixes. For {@link #suppressAlongX(float[][])} indexed by column in the block and row. */
+    private float[][]          prefixMax       = new float[0][0];
+    /** Maxima of the block suffixes. */
+    private float[][]          suffixMax       = new float[0][0];
+    /** Index of the last non-NaN survivor in each row. */
+    private int[]              lastSurvivors   = new int[0];
+    /** Value of the last non-NaN survivor in each row. */
+    private float[]            lastValues      = new float[0];
+
+    /**
+     * @param radius The maximal distance of the compared samples.
+     */
+    public NonMaximumSuppression(int radius)
+    {
+        if (radius < 1)
+            throw new IllegalArgumentException("Radius has to be positive");
+        this.radius = radius;
+    }
+
+    /**
+     * @return The maximal distance of the compared samples.
+     */
+    public int getRadius()
+    {
+        return radius;
+    }
+
+    /**
+     * Suppress the non-maximal values along the first index of the data (in every row).
+     * <p>
+     * The columns are processed one by one, so that all the data are accessed sequentially. The block maxima are only
+     * kept for the two blocks the window following the current column can span.
+     * 
+     * @param data The data array. This method will change it!
+     */
+    public void suppressAlongX(float[][] data)
+    {
+        suppressAlongX(data, 0, data[0].length);
+    }
+
+    /**
+     * Suppress the non-maximal values along the first index of the data in the given rows.
+     * <p>
+     * The rows are independent, so different ranges of rows may be processed concurrently by different instances.
+     * 
+     * @param data The data array. This method will change it!
+     * @param fromY The first row to process (inclusive).
+     * @param toY The last row to process (exclusive).
+     */
+    public void suppressAlongX(float[][] data, int fromY, int toY)
+    {
+        final int w = data.length;
+        if (prefixMax.length != radius || prefixMax[0].length < toY) {
+            prefixMax = new float[radius][toY];
+            suffixMax = new float[radius][toY];
+        }
+        if (lastSurvivors.length < toY) {
+            lastSurvivors = new int[toY];
+            lastValues = new float[toY];
+        }
+        Arrays.fill(lastSurvivors, fromY, toY, -radius - 1);
+        Arrays.fill(lastValues, fromY, toY, 0);
+
+        int blockStart = 0;
+        computeBlockMaxima(data, blockStart, fromY, toY);
+        for (int x = 0; x < w; x++) {
+            final int first = x + 1, last = Math.min(x + radius, w - 1);
+            if (first == blockStart + radius) {
+                blockStart = first;
+                computeBlockMaxima(data, blockStart, fromY, toY);
+            }
+
+            final float[] column = data[x];
+            final float[] suffix = (first < w) ? suffixMax[first - blockStart] : null;
+            final float[] prefix = (last >= blockStart + radius) ? prefixMax[last - blockStart - radius] : null;
+            for (int y = fromY; y < toY; y++) {
+                final float value = column[y];
+                if (value < ZERO) {
+                    column[y] = 0;
+                    continue;
+                }
+
+                if (suffix != null && (suffix[y] > value || (prefix != null && prefix[y] > value))) {
+                    column[y] = 0;
+                    continue;
+                }
+
+                if (x - lastSurvivors[y] <= radius && lastValues[y] > value) {
+                    column[y] = 0;
+                    continue;
+                }
+
+                if (!Float.isNaN(value)) {
+                    lastSurvivors[y] = x;
+                    lastValues[y] = value;
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute the suffix maxima of the block of columns starting at <code>blockStart</code> and the prefix maxima of
+     * the following block.
+     * 
+     * @param data The data.
+     * @param blockStart Index of the first column of the block.
+     * @param fromY The first row to process (inclusive).
+     * @param toY The last row to process (exclusive).
+     */
+    private void computeBlockMaxima(float[][] data, int blockStart, int fromY, int toY)
+    {
+        final int w = data.length;
+        final int end = Math.min(blockStart + radius, w) - 1;
+        if (end >= blockStart) {
+            Arrays.fill(suffixMax[end - blockStart], fromY, toY, Float.NEGATIVE_INFINITY);
+            for (int x = end; x >= blockStart; x--)
+                max(data[x], (x < end) ? suffixMax[x - blockStart + 1] : suffixMax[x - blockStart],
+                        suffixMax[x - blockStart], fromY, toY);
+        }
+
+        final int nextStart = blockStart + radius, nextEnd = Math.min(nextStart + radius, w) - 1;
+        if (nextEnd >= nextStart) {
+            Arrays.fill(prefixMax[0], fromY, toY, Float.NEGATIVE_INFINITY);
+            for (int x = nextStart; x <= nextEnd; x++)
+                max(data[x], (x > nextStart) ? prefixMax[x - nextStart - 1] : prefixMax[0], prefixMax[x - nextStart],
+                        fromY, toY);
+        }
+    }
+
+    /**
+     * Compute the element-wise maxima of the given arrays not taking NaN values into account.
+     * 
+     * @param values The values.
+     * @param previous The maxima computed so far.
+     * @param result The array to store the result to. May be the same as <code>previous</code>.
+     * @param from The first element to process (inclusive).
+     * @param to The last element to process (exclusive).
+     */
+    private static void max(float[] values, float[] previous, float[] result, int from, int to)
+    {
+        for (int y = from; y < to; y++)
+            result[y] = (values[y] > previous[y]) ? values[y] : previous[y];
+    }
+
+    /**
+     * Suppress the non-maximal values along the second index of the data (in every column).
+     * 
+     * @param data The data array. This method will change it!
+     */
+    public void suppressAlongY(float[][] data)
+    {
+        suppressAlongY(data, 0, data.length);
+    }
+
+    /**
+     * Suppress the non-maximal values along the second index of the data in the given columns.
+     * <p>
+     * The columns are independent, so different ranges of columns may be processed concurrently by different
+     * instances.
+     * 
+     * @param data The data array. This method will change it!
+     * @param fromX The first column to process (inclusive).
+     * @param toX The last column to process (exclusive).
+     */
+    public void suppressAlongY(float[][] data, int fromX, int toX)
+    {
+        for (int x = fromX; x < toX; x++)
+            suppress(data[x], data[x].length);
+    }
+
+    /**
+     * Suppress the non-maximal values in a line of samples.
+     * 
+     * @param values The samples. This method will change them!
+     * @param length The number of samples to process (starting from index 0).
+     */
+    public void suppress(float[] values, int length)
+    {
+        suppress(values, 0, length);
+    }
+
+    /**
+     * Suppress the non-maximal values in a part of a line of samples. The samples outside the part are neither changed
+     * nor compared.
+     * 
+     * @param values The samples. This method will change them!
+     * @param from The first sample to process (inclusive).
+     * @param to The last sample to process (exclusive).
+     */
+    public void suppress(float[] values, int from, int to)
+    {
+        if (prefixMax.length != 1 || prefixMax[0].length < to) {
+            prefixMax = new float[1][to];
+            suffixMax = new float[1][to];
+        }
+        final float[] prefix = prefixMax[0], suffix = suffixMax[0];
+
+        for (int start = from; start < to; start += radius) {
+            final int end = Math.min(start + radius, to) - 1;
+            float max = Float.NEGATIVE_INFINITY;
+            for (int i = start; i <= end; i++) {
+                if (values[i] > max)
+                    max = values[i];
+                prefix[i] = max;
+            }
+            max = Float.NEGATIVE_INFINITY;
+            for (int i = end; i >= start; i--) {
+                if (values[i] > max)
+                    max = values[i];
+                suffix[i] = max;
+            }
+        }
+
+        int lastSurvivor = from - radius - 1;
+        float lastValue = 0;
+        int blockStart = from;
+        for (int i = from; i < to; i++) {
+            final float value = values[i];
+            final int first = i + 1, last = Math.min(i + radius, to - 1);
+            if (first == blockStart + radius)
+                blockStart = first;
+
+            if (value < ZERO) {
+                values[i] = 0;
+                continue;
+            }
+
+            // the window following i is covered by the suffix of the block of its first sample and the prefix of the
+            // next block; the prefix is only valid if the window reaches into it
+            if (first < to && (suffix[first] > value || (last >= blockStart + radius && prefix[last] > value))) {
+                values[i] = 0;
+                continue;
+            }
+
+            if (i - lastSurvivor <= radius && lastValue > value) {
+                values[i] = 0;
+                continue;
+            }
+
+            if (!Float.isNaN(value)) {
+                lastSurvivor = i;
+                lastValue = value;
+            }
+        }
+    }
+}
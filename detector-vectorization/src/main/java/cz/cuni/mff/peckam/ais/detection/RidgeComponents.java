@@ -0,0 +1,478 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Connected components of the ridges in a range of columns of a {@link RidgeMap}.
+ * <p>
+ * The ridge pixels are labeled by a union-find structure in one sweep over the sorted column lists: each pixel is
+ * joined with its 8-neighbors in the same and in the previous column. Gaps in the ridges can then be bridged the way
+ * the echo tracing did it - the last pixel of each component is joined with the strongest ridge pixel in a box to the
+ * right of it (see {@link #bridgeGaps(RidgeMaxIndex, int)}). The components with their statistics are created once
+ * all the joining is done (see {@link #getComponents()}).
+ * <p>
+ * The instances are not thread-safe.
+ * 
+ * @author Martin Pecka
+ */
+public final class RidgeComponents
+{
+    /** The labeled ridges. */
+    private final RidgeMap  ridges;
+
+    /** The first labeled column (inclusive). */
+    private final int       fromX;
+    /** The last labeled column (exclusive). */
+    private final int       toX;
+
+    /** Index of the first pixel of each column. The pixels are numbered column by column, from the top. */
+    private final int[]     columnOffsets;
+
+    /** The parent of each pixel in the union-find structure. */
+    private final int[]     parents;
+    /** The number of pixels in the tree of each root. */
+    private final int[]     sizes;
+
+    /** The components. <code>null</code> until they are requested. */
+    private List<Component> components = null;
+
+    /**
+     * Label the ridge pixels in the given columns.
+     * 
+     * @param ridges The ridges.
+     * @param fromX The first column to label (inclusive).
+     * @param toX The last column to label (exclusive).
+     */
+    public RidgeComponents(RidgeMap ridges, int fromX, int toX)
+    {
+        this.ridges = ridges;
+        this.fromX = fromX;
+        this.toX = toX;
+
+        this.columnOffsets = new int[toX - fromX + 1];
+        for (int x = fromX; x < toX; x++)
+            columnOffsets[x - fromX + 1] = columnOffsets[x - fromX] + ridges.getColumn(x).length;
+
+        final int numPixels = columnOffsets[toX - fromX];
+        this.parents = new int[numPixels];
+        this.sizes = new int[numPixels];
+        for (int i = 0; i < numPixels; i++) {
+            parents[i] = i;
+            sizes[i] = 1;
+        }
+
+        for (int x = fromX; x < toX; x++) {
+            final int[] column = ridges.getColumn(x);
+            final int offset = columnOffsets[x - fromX];
+            for (int i = 1; i < column.length; i++) {
+                if (column[i] - column[i - 1] == 1)
+                    union(offset + i - 1, offset + i);
+            }
+
+            if (x == fromX)
+                continue;
+
+            // join with the pixels at most one row away in the previous column; both lists are sorted
+            final int[] previous = ridges.getColumn(x - 1);
+            final int previousOffset = columnOffsets[x - 1 - fromX];
+            int first = 0;
+            for (int i = 0; i < column.length; i++) {
+                while (first < previous.length && previous[first] < column[i] - 1)
+                    first++;
+                for (int j = first; j < previous.length && previous[j] <= column[i] + 1; j++)
+                    union(previousOffset + j, offset + i);
+            }
+        }
+    }
+
+    /**
+     * Join each component with the strongest ridge pixel in the box to the right of its last pixel (the box spans
+     * <code>gapWidth</code> columns and the rows searched by the index).
+     * <p>
+     * Each component is only extended from the last pixel it had before this call.
+     * 
+     * @param index The index of the ridges.
+     * @param gapWidth The maximal width of the bridged gaps.
+     */
+    public void bridgeGaps(RidgeMaxIndex index, int gapWidth)
+    {
+        if (components != null)
+            throw new IllegalStateException("The components have already been created.");
+
+        // the pixels are numbered by columns, so the last pixel of each tree is the one with the highest number
+        final int numPixels = parents.length;
+        final int[] lastPixels = new int[numPixels];
+        for (int i = 0; i < numPixels; i++)
+            lastPixels[find(i)] = i;
+
+        // collect the last pixels first, the joining changes the trees
+        int numComponents = 0;
+        final int[] ends = new int[numPixels];
+        for (int i = 0; i < numPixels; i++) {
+            if (parents[i] == i)
+                ends[numComponents++] = lastPixels[i];
+        }
+
+        for (int i = 0; i < numComponents; i++) {
+            final int last = ends[i];
+            final int lastX = findColumn(last);
+            if (lastX + 1 >= toX)
+                continue;
+
+            final int lastY = ridges.getColumn(lastX)[last - columnOffsets[lastX - fromX]];
+            final Point next = index.findStrongest(lastX + 1, Math.min(lastX + gapWidth, toX - 1), lastY);
+            if (next != null)
+                union(last, columnOffsets[next.x - fromX] + ridges.findInColumn(next.x, next.y));
+        }
+    }
+
+    /**
+     * @return The components ordered by their first pixel (the leftmost column first).
+     */
+    public List<Component> getComponents()
+    {
+        if (components != null)
+            return components;
+
+        // number the components in the order of their first pixels
+        final int numPixels = parents.length;
+        final int[] labels = new int[numPixels];
+        final int[] rootLabels = new int[numPixels];
+        Arrays.fill(rootLabels, -1);
+        final int[] counts = new int[numPixels];
+        int numComponents = 0;
+        for (int i = 0; i < numPixels; i++) {
+            final int root = find(i);
+            if (rootLabels[root] < 0)
+                rootLabels[root] = numComponents++;
+            labels[i] = rootLabels[root];
+            counts[labels[i]]++;
+        }
+
+        // the pixels are visited by columns, so the pixels of each component get sorted by columns, too
+        final int[][] pixelXs = new int[numComponents][];
+        final int[][] pixelYs = new int[numComponents][];
+        for (int c = 0; c < numComponents; c++) {
+            pixelXs[c] = new int[counts[c]];
+            pixelYs[c] = new int[counts[c]];
+        }
+        final int[] filled = new int[numComponents];
+        for (int x = fromX; x < toX; x++) {
+            final int[] column = ridges.getColumn(x);
+            final int offset = columnOffsets[x - fromX];
+            for (int i = 0; i < column.length; i++) {
+                final int c = labels[offset + i];
+                pixelXs[c][filled[c]] = x;
+                pixelYs[c][filled[c]++] = column[i];
+            }
+        }
+
+        final List<Component> result = new ArrayList<>(numComponents);
+        for (int c = 0; c < numComponents; c++)
+            result.add(new Component(ridges.getData(), pixelXs[c], pixelYs[c]));
+        components = Collections.unmodifiableList(result);
+        return components;
+    }
+
+    /**
+     * @param pixel Number of a pixel.
+     * @return The column of the pixel.
+     */
+    private int findColumn(int pixel)
+    {
+        int low = 0, high = toX - fromX - 1;
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (columnOffsets[middle] <= pixel)
+                low = middle;
+            else
+                high = middle - 1;
+        }
+        return fromX + low;
+    }
+
+    /**
+     * @param pixel Number of a pixel.
+     * @return The root of the tree of the pixel.
+     */
+    private int find(int pixel)
+    {
+        int i = pixel;
+        while (parents[i] != i) {
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
+        return i;
+    }
+
+    /**
+     * Join the trees of the given pixels.
+     * 
+     * @param a Number of a pixel.
+     * @param b Number of another pixel.
+     */
+    private void union(int a, int b)
+    {
+        int rootA = find(a), rootB = find(b);
+        if (rootA == rootB)
+            return;
+        if (sizes[rootA] < sizes[rootB]) {
+            final int tmp = rootA;
+            rootA = rootB;
+            rootB = tmp;
+        }
+        parents[rootB] = rootA;
+        sizes[rootA] += sizes[rootB];
+    }
+
+    /**
+     * A connected component of the ridges with its statistics.
+     * 
+     * @author Martin Pecka
+     */
+    public static final class Component
+    {
+        /** The data the ridges have been found in. */
+        private final float[][] data;
+
+        /** Columns of the pixels. Sorted. */
+        private final int[]     pixelXs;
+        /** Rows of the pixels. Sorted in each column. */
+        private final int[]     pixelYs;
+
+        /** The leftmost column. */
+        private final int       minX;
+        /** The rightmost column. */
+        private final int       maxX;
+        /** The topmost row. */
+        private final int       minY;
+        /** The bottommost row. */
+        private final int       maxY;
+
+        /** Mean of the values of the pixels. */
+        private final double    meanIntensity;
+        /** Slope of the least-squares line fitted through the pixels (rows per column). */
+        private final double    slope;
+
+        /** The number of pixels in each row, indexed from {@link #minY}. */
+        private final int[]     rowHistogram;
+
+        /**
+         * @param data The data the ridges have been found in.
+         * @param pixelXs Columns of the pixels. Sorted.
+         * @param pixelYs Rows of the pixels. Sorted in each column.
+         */
+        Component(float[][] data, int[] pixelXs, int[] pixelYs)
+        {
+            this.data = data;
+            this.pixelXs = pixelXs;
+            this.pixelYs = pixelYs;
+
+            final int n = pixelXs.length;
+            int minY = Integer.MAX_VALUE, maxY = Integer.MIN_VALUE;
+            double sum = 0, sumX = 0, sumY = 0, sumXX = 0, sumXY = 0;
+            for (int i = 0; i < n; i++) {
+                final int x = pixelXs[i], y = pixelYs[i];
+                minY = Math.min(minY, y);
+                maxY = Math.max(maxY, y);
+                sum += data[x][y];
+                sumX += x;
+                sumY += y;
+                sumXX += (double) x * x;
+                sumXY += (double) x * y;
+            }
+
+            this.minX = pixelXs[0];
+            this.maxX = pixelXs[n - 1];
+            this.minY = minY;
+            this.maxY = maxY;
+            this.meanIntensity = sum / n;
+            final double denominator = n * sumXX - sumX * sumX;
+            this.slope = (denominator > 0) ? (n * sumXY - sumX * sumY) / denominator : 0;
+
+            this.rowHistogram = new int[maxY - minY + 1];
+            for (int y : pixelYs)
+                rowHistogram[y - minY]++;
+        }
+
+        /**
+         * @return The number of pixels.
+         */
+        public int getNumPixels()
+        {
+            return pixelXs.length;
+        }
+
+        /**
+         * @return The leftmost column.
+         */
+        public int getMinX()
+        {
+            return minX;
+        }
+
+        /**
+         * @return The rightmost column.
+         */
+        public int getMaxX()
+        {
+            return maxX;
+        }
+
+        /**
+         * @return The topmost row.
+         */
+        public int getMinY()
+        {
+            return minY;
+        }
+
+        /**
+         * @return The bottommost row.
+         */
+        public int getMaxY()
+        {
+            return maxY;
+        }
+
+        /**
+         * @return Mean of the values of the pixels.
+         */
+        public double getMeanIntensity()
+        {
+            return meanIntensity;
+        }
+
+        /**
+         * @return Slope of the least-squares line fitted through the pixels (rows per column). 0 if all the pixels are
+         *         in a single column.
+         */
+        public double getSlope()
+        {
+            return slope;
+        }
+
+        /**
+         * @param y The row.
+         * @return The number of pixels in the row.
+         */
+        public int getRowCount(int y)
+        {
+            return (y < minY || y > maxY) ? 0 : rowHistogram[y - minY];
+        }
+
+        /**
+         * Find the row with the most pixels.
+         * 
+         * @param fromY The first row to search (inclusive).
+         * @param toY The last row to search (exclusive).
+         * @return The first of the rows with the most pixels, or -1 if there are no pixels in the rows.
+         */
+        public int getPeakRow(int fromY, int toY)
+        {
+            int peakRow = -1, peakCount = 0;
+            for (int y = Math.max(fromY, minY); y < Math.min(toY, maxY + 1); y++) {
+                if (rowHistogram[y - minY] > peakCount) {
+                    peakCount = rowHistogram[y - minY];
+                    peakRow = y;
+                }
+            }
+            return peakRow;
+        }
+
+        /**
+         * @return The pixels ordered by columns (and by rows in each column).
+         */
+        public List<Point> getPixels()
+        {
+            final List<Point> pixels = new ArrayList<>(pixelXs.length);
+            for (int i = 0; i < pixelXs.length; i++)
+                pixels.add(new Point(pixelXs[i], pixelYs[i]));
+            return pixels;
+        }
+
+        /**
+         * Convert the component to a trace with a single point in each column.
+         * <p>
+         * From each column, the pixel closest to the row of the previous point of the trace is taken (the stronger
+         * one of the equally close pixels, and the upper one of the equally strong).
+         * 
+         * @param fromY The first row to take the pixels from (inclusive).
+         * @param toY The last row to take the pixels from (exclusive).
+         * @param startY The row the trace starts from (the row "before" the first point).
+         * @return The points of the trace ordered by columns. Empty if there are no pixels in the rows.
+         */
+        public PackedTrace getTrace(int fromY, int toY, int startY)
+        {
+            final PackedTrace points = new PackedTrace();
+            int previousY = startY;
+            int bestX = -1, bestY = -1;
+            for (int i = 0; i < pixelXs.length; i++) {
+                final int x = pixelXs[i], y = pixelYs[i];
+                if (y < fromY || y >= toY)
+                    continue;
+
+                if (bestX >= 0 && bestX != x) {
+                    points.add(bestX, bestY);
+                    previousY = bestY;
+                    bestX = -1;
+                }
+                if (bestX < 0 || isBetter(x, y, bestY, previousY)) {
+                    bestX = x;
+                    bestY = y;
+                }
+            }
+            if (bestX >= 0)
+                points.add(bestX, bestY);
+            return points;
+        }
+
+        /**
+         * @param x The column of the pixels.
+         * @param y Row of the tested pixel.
+         * @param bestY Row of the best pixel so far. It is above the tested pixel.
+         * @param previousY Row of the previous point of the trace.
+         * @return Whether the tested pixel is closer to the previous point than the best pixel, or stronger if they
+         *         are equally close.
+         */
+        private boolean isBetter(int x, int y, int bestY, int previousY)
+        {
+            final int distance = Math.abs(y - previousY), bestDistance = Math.abs(bestY - previousY);
+            return distance < bestDistance || (distance == bestDistance && data[x][y] > data[x][bestY]);
+        }
+    }
+}
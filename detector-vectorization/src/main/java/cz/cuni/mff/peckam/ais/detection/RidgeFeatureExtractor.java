@@ -0,0 +1,475 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import static cz.cuni.mff.peckam.ais.detection.VectorizationDetector.invokeInParallel;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinTask;
+
+import cz.cuni.mff.peckam.ais.Tuple;
+
+/**
+ * Extraction of the features from the ridges of the data found by the strategies of {@link VectorizationDetector}.
+ * <p>
+ * The plasma oscillation is found in the ridges running along the frequency axis in the left half of the data (the
+ * vertical lines). The cyclotron echoes, the ground echo and the ionospheric echo are found in the ridges running along
+ * the time axis (the horizontal lines).
+ * 
+ * @author Martin Pecka
+ */
+final class RidgeFeatureExtractor
+{
+    /** The number of rows around the prior echo trace to search for the new trace in. */
+    private static final int PRIOR_TRACE_MARGIN      = 10;
+    /** The number of rows above and below the last point of an echo searched for its continuation. */
+    private static final int ECHO_SEARCH_RADIUS      = 10;
+    /** The number of columns in a block of the index used for searching the continuation of echoes. */
+    private static final int ECHO_SEARCH_BLOCK_WIDTH = 8;
+
+    /**
+     * No instances.
+     */
+    private RidgeFeatureExtractor()
+    {
+    }
+
+    /**
+     * Compute the ridges and extract the features from them. The two kinds of ridges are computed and processed in
+     * parallel.
+     * 
+     * @param verticalLines Computation of the ridges of the left half of the data running along the frequency axis.
+     * @param horizontalLines Computation of the ridges of the data running along the time axis.
+     * @param prior Result of the detection in the previous frame of the same size. May be <code>null</code>.
+     * @param groundEchoFromY The first row the ground echo may be found at (inclusive).
+     * @param groundEchoToY The last row the ground echo may be found at (exclusive).
+     * @return The detected features.
+     */
+    static List<DetectedFeature> extract(final Callable<RidgeMap> verticalLines,
+            final Callable<RidgeMap> horizontalLines, final DetectionResult prior, final int groundEchoFromY,
+            final int groundEchoToY)
+    {
+        final ForkJoinTask<DetectedFeature> vertical = ForkJoinTask.adapt(new Callable<DetectedFeature>() {
+            @Override
+            public DetectedFeature call() throws Exception
+            {
+                return detectHPeriod(verticalLines.call(),
+                        SummingDetector.getPriorRepetition(prior, ElectronPlasmaOscillation.ID));
+            }
+        });
+        final ForkJoinTask<DetectedFeature[]> horizontal = ForkJoinTask.adapt(new Callable<DetectedFeature[]>() {
+            @Override
+            public DetectedFeature[] call() throws Exception
+            {
+                final RidgeMap ridges = horizontalLines.call();
+                final RidgeMaxIndex echoIndex = new RidgeMaxIndex(ridges, ECHO_SEARCH_RADIUS, ECHO_SEARCH_BLOCK_WIDTH);
+
+                // the detections only read the ridges
+                final ForkJoinTask<DetectedFeature> vPeriod = ForkJoinTask.adapt(new Callable<DetectedFeature>() {
+                    @Override
+                    public DetectedFeature call()
+                    {
+                        return detectVPeriod(ridges);
+                    }
+                });
+                final ForkJoinTask<DetectedFeature> ground = ForkJoinTask.adapt(new Callable<DetectedFeature>() {
+                    @Override
+                    public DetectedFeature call()
+                    {
+                        return detectGroundEcho(echoIndex, groundEchoFromY, groundEchoToY,
+                                getPriorCurve(prior, GroundEcho.ID));
+                    }
+                });
+                final ForkJoinTask<DetectedFeature> iono = ForkJoinTask.adapt(new Callable<DetectedFeature>() {
+                    @Override
+                    public DetectedFeature call()
+                    {
+                        return detectIonoEcho(echoIndex, getPriorCurve(prior, IonosphericEcho.ID));
+                    }
+                });
+                ForkJoinTask.invokeAll(vPeriod, ground, iono);
+
+                return new DetectedFeature[] { vPeriod.join(), ground.join(), iono.join() };
+            }
+        });
+        invokeInParallel(vertical, horizontal);
+
+        final List<DetectedFeature> result = new LinkedList<>();
+        if (vertical.join() != null)
+            result.add(vertical.join());
+        for (DetectedFeature feature : horizontal.join()) {
+            if (feature != null)
+                result.add(feature);
+        }
+
+        return result;
+    }
+
+    private static GeneralCurve getPriorCurve(DetectionResult prior, String featureId)
+    {
+        if (prior == null)
+            return null;
+        final DetectedFeature feature = prior.getFeature(featureId);
+        if (feature instanceof GeneralCurve && !((GeneralCurve) feature).getTrace().isEmpty())
+            return (GeneralCurve) feature;
+        return null;
+    }
+
+    private static DetectedFeature detectHPeriod(RidgeMap ridges, RepeatingLine prior)
+    {
+        final float[][] values = ridges.getData();
+        final float[] colSums = new float[values.length];
+        final int[] colCounts = new int[values.length];
+        for (int x = 0; x < values.length; x++) {
+            for (int y : ridges.getColumn(x))
+                colSums[x] += values[x][y];
+            colCounts[x] = ridges.getColumn(x).length;
+        }
+
+        // do some smoothing
+        final int smoothingLength = 4;
+        for (int x = 0; x < values.length - smoothingLength; x++) {
+            if (colSums[x] > 0) {
+                inner: for (int i = 1; i <= smoothingLength; i++) {
+                    if (colSums[x + i] > colSums[x]) {
+                        colSums[x + i] += colSums[x];
+                        colCounts[x + i] += colCounts[x];
+                        colSums[x] = 0;
+                        colCounts[x] = 0;
+                        break inner;
+                    }
+                }
+            }
+        }
+
+        final float[] peaks = new float[values.length];
+        float sum = 0;
+        int offset = -1, end = 0;
+        // remove columns shorter than 20 px and not having a value at the first 4 pixels
+        for (int x = 0; x < values.length; x++) {
+            if (colCounts[x] > 0 && colCounts[x] < 20 && values[x][0] == 0 && values[x][1] == 0
+                    && values[x][2] == 0 && values[x][3] == 0) {
+                colSums[x] = 0;
+            } else {
+                if (colCounts[x] > 0) {
+                    peaks[x] = 1;
+                    sum += colSums[x];
+                    if (offset == -1)
+                        offset = x;
+                    end = x;
+                }
+            }
+        }
+
+        // normalize the weights
+        for (int x = 0; x < values.length; x++) {
+            colSums[x] = colSums[x] / sum;
+        }
+
+        // final Tuple<Integer, Double[]> result =
+        // SummingDetector.ComputationStrategy.COMBINED_QUANTILE_PERIODOGRAM
+        final Tuple<Integer, Double[]> result = SummingDetector.ComputationStrategy.PERIODOGRAM
+                .computePeriod(peaks, colSums, prior);
+        if (result == null || result.getY().length == 0)
+            return new ElectronPlasmaOscillation(0, 0, 0);
+
+        return new ElectronPlasmaOscillation(offset, result.getY()[0], end);
+    }
+
+    private static DetectedFeature detectVPeriod(RidgeMap ridges)
+    {
+        final float[][] values = ridges.getData();
+        // we only take the first fourth into account, which is sufficient
+        final boolean[] possibleEchoes = new boolean[ridges.getHeight()];
+        for (int y : ridges.getColumn(0))
+            possibleEchoes[y] = true;
+
+        // only retain echoes that go over 2E-15 in the 20px strip at the left; this should rule out some noise
+        for (int y = 0; y < possibleEchoes.length; y++) {
+            if (possibleEchoes[y]) {
+                possibleEchoes[y] = false;
+                inner: for (int x : ridges.getRow(y)) {
+                    if (x >= 20)
+                        break inner;
+                    if (values[x][y] > 2E-15) {
+                        possibleEchoes[y] = true;
+                        break inner;
+                    }
+                }
+            }
+        }
+
+        int echoCount = 0;
+        int firstEcho = -1;
+        for (int y = 0; y < possibleEchoes.length; y++) {
+            if (possibleEchoes[y]) {
+                echoCount++;
+                if (firstEcho == -1)
+                    firstEcho = y;
+            }
+        }
+
+        // no vPeriod
+        if (echoCount == 0)
+            return new ElectronCyclotronEchoes(0, 0, 0);
+
+        // since we have 80 time bins, we cannot detect more than 40 harmonics
+        // mainly this should rule out cases with the first hPeriod line at the left
+        if (echoCount > 40)
+            return new ElectronCyclotronEchoes(0, 0, 0);
+
+        // if the first echo is in the lower half, then there will be only one harmonic line and the period
+        // estimation could fail; instead, we just return the position of this echo as the period
+        if (firstEcho > possibleEchoes.length / 2) {
+            return new ElectronCyclotronEchoes(0, firstEcho, firstEcho);
+        }
+
+        // if the only echo is in the upper half, it is probably an erroneous detection
+        if (echoCount == 1)
+            return new ElectronCyclotronEchoes(0, 0, 0);
+
+        // now we have at least two echoes and can perform period estimation
+
+        final float[] peaks = new float[possibleEchoes.length];
+        final float[] weights = new float[possibleEchoes.length];
+        int end = 0;
+        // we give the echoes equal weights because they are often really short and the weights may not be of
+        // great value
+        final float weight = 1 / (float) echoCount;
+        for (int y = 0; y < possibleEchoes.length; y++) {
+            if (possibleEchoes[y]) {
+                peaks[y] = 1;
+                weights[y] = weight;
+                end = y;
+            }
+        }
+
+        final Tuple<Integer, Double[]> result = SummingDetector.ComputationStrategy.QUANTILE_PEAK_DISTANCE_ESTIMATION
+                .computePeriod(peaks, weights);
+        if (result == null || result.getY().length == 0)
+            return new ElectronCyclotronEchoes(0, 0, 0);
+
+        return new ElectronCyclotronEchoes(0, result.getY()[0], end);
+    }
+
+    private static DetectedFeature detectGroundEcho(RidgeMaxIndex echoIndex, int fromY, int toY, GeneralCurve prior)
+    {
+        final int w = echoIndex.getRidges().getWidth();
+        final PackedTrace points = traceEcho(echoIndex, w / 2, w - w / 2, fromY, toY, 40, 80, prior);
+        if (points == null)
+            return null;
+
+        return new GroundEcho(points);
+    }
+
+    private static DetectedFeature detectIonoEcho(RidgeMaxIndex echoIndex, GeneralCurve prior)
+    {
+        final RidgeMap ridges = echoIndex.getRidges();
+        final PackedTrace points = traceEcho(echoIndex, 0, ridges.getWidth() / 2, 20, ridges.getHeight(), 20,
+                40, prior);
+        if (points == null)
+            return null;
+
+        return new IonosphericEcho(points);
+    }
+
+    /**
+     * Find the echo in the given columns among the connected components of the ridges.
+     *
+     * @param echoIndex The index of the ridges of the vertically thinned data.
+     * @param xoffset The first column of the echo.
+     * @param xlength Number of columns of the echo.
+     * @param startY The first row the echo may be found at (inclusive).
+     * @param endY The last row the echo may be found at (exclusive).
+     * @param minRowCount The minimum number of pixels of the echo in its most populated row.
+     * @param searchRectangleWidth The maximal width of the gaps in the echo.
+     * @param prior The echo detected in the previous frame. May be <code>null</code>.
+     * @return The points of the echo, or <code>null</code> if there is no echo.
+     */
+    private static PackedTrace traceEcho(RidgeMaxIndex echoIndex, int xoffset, int xlength, int startY, int endY,
+            int minRowCount, int searchRectangleWidth, GeneralCurve prior)
+    {
+        final int h = echoIndex.getRidges().getHeight();
+        final RidgeComponents components = new RidgeComponents(echoIndex.getRidges(), xoffset, xoffset
+                + xlength);
+        components.bridgeGaps(echoIndex, searchRectangleWidth);
+
+        // the echo usually doesn't move much between neighboring frames, so first look for it near the prior
+        if (prior != null) {
+            final PackedTrace priorTrace = prior.getTrace();
+            int minY = Integer.MAX_VALUE, maxY = Integer.MIN_VALUE;
+            for (int i = 0; i < priorTrace.size(); i++) {
+                minY = min(minY, priorTrace.getY(i));
+                maxY = max(maxY, priorTrace.getY(i));
+            }
+            final int fromY = max(startY, minY - PRIOR_TRACE_MARGIN);
+            final int toY = min(endY, maxY + PRIOR_TRACE_MARGIN + 1);
+            final RidgeComponents.Component component = findBestComponent(components, fromY, toY,
+                    minRowCount);
+
+            // accept the trace only if it spans at least a half of the frequencies the prior one spans
+            if (component != null) {
+                final PackedTrace points = getEchoPoints(component, component.getPeakRow(fromY, toY), h);
+                final int priorSpan = priorTrace.getX(priorTrace.size() - 1) - priorTrace.getX(0);
+                if (points != null && 2 * (points.getX(points.size() - 1) - points.getX(0)) >= priorSpan)
+                    return points;
+            }
+        }
+
+        final RidgeComponents.Component component = findBestComponent(components, startY, endY, minRowCount);
+
+        // if we got too few points in the best line, nothing is probably present
+        if (component == null)
+            return null;
+
+        return getEchoPoints(component, component.getPeakRow(startY, endY), h);
+    }
+
+    /**
+     * Find the component with the most populated row.
+     * <p>
+     * If more components have equally populated rows, the one with the upper row is taken, and then the one
+     * with the higher mean intensity.
+     *
+     * @param components The components of the ridges.
+     * @param fromY The first row to search (inclusive).
+     * @param toY The last row to search (exclusive).
+     * @param minRowCount The minimum number of pixels in the row.
+     * @return The component, or <code>null</code> if no component has a row with at least
+     *         <code>minRowCount</code> pixels.
+     */
+    private static RidgeComponents.Component findBestComponent(RidgeComponents components, int fromY, int toY,
+            int minRowCount)
+    {
+        RidgeComponents.Component best = null;
+        int bestRow = -1, bestCount = 0;
+        for (RidgeComponents.Component component : components.getComponents()) {
+            final int row = component.getPeakRow(fromY, toY);
+            if (row < 0)
+                continue;
+
+            final int count = component.getRowCount(row);
+            if (count > bestCount
+                    || (count == bestCount && (row < bestRow || (row == bestRow && component
+                            .getMeanIntensity() > best.getMeanIntensity())))) {
+                best = component;
+                bestRow = row;
+                bestCount = count;
+            }
+        }
+
+        if (bestCount < minRowCount)
+            return null;
+        return best;
+    }
+
+    /**
+     * @param component The component of the echo.
+     * @param row The most populated row of the echo.
+     * @param h Height of the data.
+     * @return The points of the echo - the points of the component not further than 60 px from the given row
+     *         (so that the echo doesn't run up a false perpendicular line). <code>null</code> if there are no
+     *         such points.
+     */
+    private static PackedTrace getEchoPoints(RidgeComponents.Component component, int row, int h)
+    {
+        final PackedTrace points = component.getTrace(max(row - 60, 0), min(row + 61, h), row);
+        if (points.isEmpty())
+            return null;
+        return points;
+    }
+
+    /**
+     * Remove the vertical runs of nonzero values shorter than 16 px from the given columns.
+     *
+     * @param data The data array. This method will change it!
+     * @param fromX The first column to process (inclusive).
+     * @param toX The last column to process (exclusive).
+     */
+    static void removeShortVerticalRuns(float[][] data, int fromX, int toX)
+    {
+        final int h = data[0].length;
+
+        for (int x = fromX; x < toX; x++) {
+            yLoop: for (int y = 0; y < h; y++) {
+                if (data[x][y] == 0)
+                    continue;
+
+                for (int i = 1; i <= 15; i++) {
+                    if (y + i < h && data[x][y + i] == 0) {
+                        final int badI = i;
+                        for (; i >= 0; i--) {
+                            data[x][y + i] = 0;
+                        }
+
+                        y = y + badI - 1;
+                        continue yLoop;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove the horizontal runs of nonzero values shorter than 6 px from the given rows.
+     *
+     * @param data The data array. This method will change it!
+     * @param fromY The first row to process (inclusive).
+     * @param toY The last row to process (exclusive).
+     */
+    static void removeShortHorizontalRuns(float[][] data, int fromY, int toY)
+    {
+        final int w = data.length;
+
+        for (int y = fromY; y < toY; y++) {
+            xLoop: for (int x = 0; x < w; x++) {
+                if (data[x][y] == 0)
+                    continue;
+
+                for (int i = 1; i <= 5; i++) {
+                    if (x + i < w && data[x + i][y] == 0) {
+                        final int badI = i;
+                        for (; i >= 0; i--) {
+                            data[x + i][y] = 0;
+                        }
+
+                        x = x + badI - 1;
+                        continue xLoop;
+                    }
+                }
+            }
+        }
+    }
+}
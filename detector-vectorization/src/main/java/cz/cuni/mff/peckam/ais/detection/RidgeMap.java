@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import java.util.Arrays;
+
+/**
+ * Sparse representation of the ridges of thinned data (the pixels with positive values).
+ * <p>
+ * Only a small fraction of the thinned pixels is nonzero, so the ridge pixels are kept in sorted lists for every
+ * column and every row. The occupancy of each row is kept in a bitset, which answers the point queries and from which
+ * the sorted rows are built.
+ * 
+ * @author Martin Pecka
+ */
+public final class RidgeMap
+{
+    /** The thinned data. */
+    private final float[][] data;
+
+    /** Width of the data. */
+    private final int       width;
+    /** Height of the data. */
+    private final int       height;
+
+    /** Sorted indices of the rows of the ridge pixels in each column. */
+    private final int[][]   columns;
+    /** Sorted indices of the columns of the ridge pixels in each row. */
+    private final int[][]   rows;
+    /** Occupancy of each row. Bit <code>x % 64</code> of word <code>x / 64</code> is set if the pixel is a ridge. */
+    private final long[][]  rowBits;
+
+    /**
+     * Create the map of the ridges in the given data.
+     * 
+     * @param data The thinned data. The array is shared by the map and must not be modified afterwards.
+     */
+    public RidgeMap(float[][] data)
+    {
+        this.data = data;
+        this.width = data.length;
+        this.height = data[0].length;
+        this.columns = new int[width][];
+        this.rows = new int[height][];
+        this.rowBits = new long[height][(width + 63) >>> 6];
+
+        final int[] column = new int[height];
+        final int[] rowCounts = new int[height];
+        for (int x = 0; x < width; x++) {
+            final float[] values = data[x];
+            final int word = x >>> 6;
+            final long bit = 1L << x;
+            int count = 0;
+            for (int y = 0; y < height; y++) {
+                if (values[y] > 0) {
+                    column[count++] = y;
+                    rowBits[y][word] |= bit;
+                    rowCounts[y]++;
+                }
+            }
+            columns[x] = Arrays.copyOf(column, count);
+        }
+
+        for (int y = 0; y < height; y++) {
+            final int[] row = new int[rowCounts[y]];
+            final long[] bits = rowBits[y];
+            int count = 0;
+            for (int word = 0; word < bits.length; word++) {
+                for (long remaining = bits[word]; remaining != 0; remaining &= remaining - 1)
+                    row[count++] = (word << 6) + Long.numberOfTrailingZeros(remaining);
+            }
+            rows[y] = row;
+        }
+    }
+
+    /**
+     * @return The thinned data. The array is shared and must not be modified.
+     */
+    public float[][] getData()
+    {
+        return data;
+    }
+
+    /**
+     * @return Width of the data.
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * @return Height of the data.
+     */
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /**
+     * @param x Index of the column.
+     * @param y Index of the row.
+     * @return Whether the pixel is a ridge pixel (has a positive value).
+     */
+    public boolean contains(int x, int y)
+    {
+        return (rowBits[y][x >>> 6] & (1L << x)) != 0;
+    }
+
+    /**
+     * @param x Index of the column.
+     * @return Sorted indices of the rows of the ridge pixels in the column. The array is shared and must not be
+     *         modified.
+     */
+    public int[] getColumn(int x)
+    {
+        return columns[x];
+    }
+
+    /**
+     * @param y Index of the row.
+     * @return Sorted indices of the columns of the ridge pixels in the row. The array is shared and must not be
+     *         modified.
+     */
+    public int[] getRow(int y)
+    {
+        return rows[y];
+    }
+
+    /**
+     * Find the first ridge pixel of the column not above the given row.
+     * 
+     * @param x Index of the column.
+     * @param fromY Index of the row.
+     * @return Index into {@link #getColumn(int)} of the first ridge pixel with row index at least <code>fromY</code>.
+     *         Length of the column if there is no such pixel.
+     */
+    public int findInColumn(int x, int fromY)
+    {
+        final int index = Arrays.binarySearch(columns[x], fromY);
+        return (index >= 0) ? index : -index - 1;
+    }
+}
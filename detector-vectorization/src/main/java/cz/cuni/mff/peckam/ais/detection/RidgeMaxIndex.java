@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import java.awt.Point;
+
+/**
+ * Index of the maxima of the ridge values in rectangles of a fixed height, used to find the continuation of echo
+ * traces.
+ * <p>
+ * The columns of the ridge map are grouped into blocks and for each block and row the index keeps the maximum of the
+ * ridge values of the block in the rows at most <code>radius</code> away. A rectangle query then only has to look at
+ * the individual columns at its ends and in the block containing the maximum, so its cost doesn't grow with the
+ * width of the rectangle. The block maxima are computed by the van Herk/Gil-Werman algorithm, so building the index
+ * costs a constant number of operations per block row.
+ * 
+ * @author Martin Pecka
+ */
+public final class RidgeMaxIndex
+{
+    /** The indexed ridges. */
+    private final RidgeMap  ridges;
+
+    /** The maximal distance of the rows of the rectangles from their center row. */
+    private final int       radius;
+
+    /** The number of columns in a block. */
+    private final int       blockWidth;
+
+    /** Maxima of the ridge values of the blocks in the rows around each row. Indexed by block and row. */
+    private final float[][] blockMax;
+
+    /**
+     * Build the index.
+     * 
+     * @param ridges The indexed ridges.
+     * @param radius The maximal distance of the rows of the rectangles from their center row.
+     * @param blockWidth The number of columns in a block.
+     */
+    public RidgeMaxIndex(RidgeMap ridges, int radius, int blockWidth)
+    {
+        if (radius < 0 || blockWidth < 1)
+            throw new IllegalArgumentException("Invalid radius or block width");
+
+        this.ridges = ridges;
+        this.radius = radius;
+        this.blockWidth = blockWidth;
+
+        final int w = ridges.getWidth(), h = ridges.getHeight();
+        final float[][] data = ridges.getData();
+        this.blockMax = new float[(w + blockWidth - 1) / blockWidth][h];
+
+        for (int x = 0; x < w; x++) {
+            final float[] rowMax = blockMax[x / blockWidth];
+            for (int y : ridges.getColumn(x)) {
+                if (data[x][y] > rowMax[y])
+                    rowMax[y] = data[x][y];
+            }
+        }
+
+        // the rows are padded by zeros, so that all windows have the same length and never span more than two blocks
+        final int window = 2 * radius + 1;
+        final float[] padded = new float[h + 2 * radius];
+        final float[] prefixMax = new float[padded.length];
+        final float[] suffixMax = new float[padded.length];
+        for (float[] rowMax : blockMax) {
+            System.arraycopy(rowMax, 0, padded, radius, h);
+            for (int start = 0; start < padded.length; start += window) {
+                final int end = Math.min(start + window, padded.length) - 1;
+                float max = 0;
+                for (int i = start; i <= end; i++) {
+                    if (padded[i] > max)
+                        max = padded[i];
+                    prefixMax[i] = max;
+                }
+                max = 0;
+                for (int i = end; i >= start; i--) {
+                    if (padded[i] > max)
+                        max = padded[i];
+                    suffixMax[i] = max;
+                }
+            }
+            // row y is the center of the window starting at padded index y
+            for (int y = 0; y < h; y++)
+                rowMax[y] = Math.max(suffixMax[y], prefixMax[y + window - 1]);
+        }
+    }
+
+    /**
+     * @return The indexed ridges.
+     */
+    public RidgeMap getRidges()
+    {
+        return ridges;
+    }
+
+    /**
+     * @return The maximal distance of the rows of the rectangles from their center row.
+     */
+    public int getRadius()
+    {
+        return radius;
+    }
+
+    /**
+     * Find the strongest ridge pixel in the rectangle spanning the given columns and the rows at most
+     * {@link #getRadius()} away from the given one.
+     * <p>
+     * Of the equally strong pixels, the one in the column closest to <code>fromX</code> is taken, and of those the one
+     * in the row closest to <code>y</code>, the one above it going before the one below it.
+     * 
+     * @param fromX The first column of the rectangle. The columns are ordered from this one.
+     * @param toX The last column of the rectangle (inclusive). May be lower than <code>fromX</code>.
+     * @param y The center row of the rectangle.
+     * @return The strongest pixel, or <code>null</code> if there is no ridge pixel in the rectangle.
+     */
+    public Point findStrongest(int fromX, int toX, int y)
+    {
+        final int w = ridges.getWidth();
+        final int step = (toX >= fromX) ? 1 : -1;
+
+        float max = 0;
+        int bestX = -1;
+        for (int x = fromX; step * (toX - x) >= 0;) {
+            final int block = x / blockWidth;
+            final int blockFirst = block * blockWidth, blockLast = Math.min(blockFirst + blockWidth, w) - 1;
+            final boolean wholeBlock = (step == 1) ? (x == blockFirst && blockLast <= toX)
+                    : (x == blockLast && blockFirst >= toX);
+
+            if (!wholeBlock) {
+                final float columnMax = getColumnMax(x, y);
+                if (columnMax > max) {
+                    max = columnMax;
+                    bestX = x;
+                }
+                x += step;
+                continue;
+            }
+
+            // only look into the block if it contains a stronger pixel; its first strongest column is then the best
+            final int next = (step == 1) ? blockLast + 1 : blockFirst - 1;
+            if (blockMax[block][y] > max) {
+                final float blockValue = blockMax[block][y];
+                for (int xx = x; xx != next; xx += step) {
+                    if (getColumnMax(xx, y) == blockValue) {
+                        max = blockValue;
+                        bestX = xx;
+                        break;
+                    }
+                }
+            }
+            x = next;
+        }
+
+        if (bestX < 0)
+            return null;
+
+        final float[] column = ridges.getData()[bestX];
+        final int h = ridges.getHeight();
+        for (int yDiff = 0; yDiff <= radius; yDiff++) {
+            if (y - yDiff >= 0 && column[y - yDiff] == max && ridges.contains(bestX, y - yDiff))
+                return new Point(bestX, y - yDiff);
+            if (y + yDiff < h && column[y + yDiff] == max && ridges.contains(bestX, y + yDiff))
+                return new Point(bestX, y + yDiff);
+        }
+        throw new IllegalStateException("The strongest pixel has not been found in its column.");
+    }
+
+    /**
+     * @param x The column.
+     * @param y The center row.
+     * @return The maximum of the ridge values in the column at most {@link #getRadius()} rows away from the center row
+     *         (0 if there are none).
+     */
+    private float getColumnMax(int x, int y)
+    {
+        final float[] values = ridges.getData()[x];
+        final int[] column = ridges.getColumn(x);
+        float max = 0;
+        for (int i = ridges.findInColumn(x, y - radius); i < column.length && column[i] <= y + radius; i++) {
+            if (values[column[i]] > max)
+                max = values[column[i]];
+        }
+        return max;
+    }
+}
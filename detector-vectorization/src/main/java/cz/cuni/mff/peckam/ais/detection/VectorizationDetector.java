@@ -1,739 +1,868 @@
-/**
- * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
- * All rights reserved.
- * Licensed under the following BSD License.
- * 
- * Redistribution and use in source and binary forms, with or without
- * modification, are permitted provided that the following conditions are met:
- * 
- * Redistributions of source code must retain the above copyright
- * notice, this list of conditions and the following disclaimer.
- * 
- * Redistributions in binary form must reproduce the above copyright
- * notice, this list of conditions and the following disclaimer in the
- * documentation and/or other materials provided with the distribution.
- * 
- * Neither the name Martin Pecka nor the
- * names of contributors may be used to endorse or promote products
- * derived from this software without specific prior written permission.
- * 
- * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
- * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
- * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
- * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
- * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
- * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
- * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
- * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
- * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
- * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
- */
-package cz.cuni.mff.peckam.ais.detection;
-
-import static java.lang.Math.abs;
-import static java.lang.Math.max;
-import static java.lang.Math.min;
-
-import java.awt.Color;
-import java.awt.Point;
-import java.awt.image.BufferedImage;
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
-
-import javax.imageio.ImageIO;
-
-import cz.cuni.mff.peckam.ais.AISLBLProductReader;
-import cz.cuni.mff.peckam.ais.EvenlySampledIonogram;
-import cz.cuni.mff.peckam.ais.Ionogram;
-import cz.cuni.mff.peckam.ais.Product;
-import cz.cuni.mff.peckam.ais.Tuple;
-
-/**
- * Detector using vectorization techniques.
- * 
- * @author Martin Pecka
- */
-public class VectorizationDetector extends FloatFeatureDetector
-{
-
-    /** The strategy used for computing. */
-    private ComputationStrategy strategy = ComputationStrategy.THINNING;
-
-    /**
-     * The strategy used for computation.
-     * 
-     * @author Martin Pecka
-     */
-    public enum ComputationStrategy
-    {
-
-        /**
-         * Skeletonization method -- does not work!
-         * 
-         * @author Martin Pecka
-         */
-        @Deprecated
-        SKELETONIZATION
-        {
-            @Override
-            List<DetectedFeature> detect(float[][] data)
-            {
-                skeletonize(data);
-                return Collections.emptyList();
-            }
-
-            /**
-             * Perform skeletonization on the data.
-             * 
-             * @param data The data to skeletonize.
-             */
-            private void skeletonize(float[][] data)
-            {
-                final int w = data.length, h = data[0].length;
-
-                final int sigma = 2; // the regularization threshold
-                final int maxIter = 100;
-                final double EPS = 1E-20;
-                final double[][] gradI0x = new double[w][h];
-                final double[][] gradI0y = new double[w][h];
-                final double[][] gradI1x = new double[w][h];
-                final double[][] gradI1y = new double[w][h];
-                final int[][] numRegularized = new int[w][h];
-
-                for (int x = 0; x + 1 < w; x++) {
-                    for (int y = 0; y + 1 < h; y++) {
-                        gradI0x[x][y] = data[x + 1][y] - data[x][y];
-                        gradI0y[x][y] = data[x][y + 1] - data[x][y];
-                    }
-                }
-
-                // print(gradI0y);
-
-                int numIter = 0;
-                double stability = 1;
-                while (numIter <= maxIter && stability != 0) {
-                    stability = 0;
-                    for (int x = 0; x < w; x++) {
-                        for (int y = 0; y < h; y++) {
-                            if (numRegularized[x][y] < sigma || max(abs(gradI0x[x][y]), abs(gradI0y[x][y])) < EPS) {
-                                double gradMx = 0, gradMy = 0;
-                                for (int nx = max(x - 1, 0); nx < min(w, x + 1); nx++) {
-                                    for (int ny = max(y - 1, 0); ny < min(h, y + 1); ny++) {
-                                        if (nx != x || ny != y) {
-                                            gradMx += gradI0x[nx][ny];
-                                            gradMy += gradI0y[nx][ny];
-                                        }
-                                    }
-                                }
-                                gradMx /= 8;
-                                gradMy /= 8;
-
-                                if (abs(gradMx) > EPS && abs(gradMy) > EPS) {
-                                    stability += abs(gradI1x[x][y] - gradMx);
-                                    stability += abs(gradI1y[x][y] - gradMy);
-                                    gradI1x[x][y] = gradMx;
-                                    gradI1y[x][y] = gradMy;
-                                    numRegularized[x][y]++;
-                                }
-                            }
-                        }
-                    }
-
-                    for (int x = 0; x < w; x++) {
-                        for (int y = 0; y < h; y++) {
-                            gradI0x[x][y] = gradI1x[x][y];
-                            gradI0y[x][y] = gradI1y[x][y];
-                        }
-                    }
-
-                    numIter++;
-                }
-
-                final double[][] theta = new double[w][h];
-                for (int x = 0; x < w; x++) {
-                    for (int y = 0; y < h; y++) {
-                        theta[x][y] = Math.atan2(gradI0y[x][y], gradI0x[x][y]);
-                    }
-                }
-                // print(theta);
-                final double[][] skeletonStrength = new double[w][h];
-                for (int x = 0; x < w; x++) {
-                    for (int y = 0; y < h; y++) {
-                        double max = -Double.MAX_VALUE;
-                        if (x - 1 >= 0 && x + 1 < w)
-                            max = max(max, abs(theta[x - 1][y] - theta[x + 1][y]));
-                        if (y - 1 >= 0 && y + 1 < h)
-                            max = max(max, abs(theta[x][y - 1] - theta[x][y + 1]));
-                        if (x - 1 >= 0 && x + 1 < w && y - 1 >= 0 && y + 1 < h) {
-                            max = max(max, abs(theta[x - 1][y - 1] - theta[x + 1][y + 1]));
-                            max = max(max, abs(theta[x + 1][y - 1] - theta[x - 1][y + 1]));
-                        }
-                        // if (max <= Math.PI && max >= (15 / 16 * Math.PI))
-                            skeletonStrength[x][y] = max;
-                    }
-                }
-
-                print(skeletonStrength);
-            }
-
-            private void print(double[][] arr)
-            {
-                try (final BufferedWriter w = new BufferedWriter(new FileWriter("skeleton"));) {
-                    for (int y = arr[0].length - 1; y >= 0; y--) {
-                        for (int x = 0; x < arr.length; x++) {
-                            w.write(arr[x][y] + " ");
-                        }
-                        w.newLine();
-                    }
-                } catch (IOException e) {
-
-                }
-            }
-
-            @Override
-            public String toString()
-            {
-                return "gradient diffusion";
-            }
-
-        },
-
-        /**
-         * Iterative thinning.
-         * 
-         * @author Martin Pecka
-         */
-        THINNING
-        {
-            @Override
-            List<DetectedFeature> detect(float[][] data)
-            {
-                final int w = data.length, h = data[0].length;
-                final float[][] horizThinned = new float[w/2][h];
-                final float[][] vertThinned = new float[w][h];
-                for (int x = 0; x < w; x++) {
-                    for (int y = 0; y < h; y++) {
-                        if (x < w/2) {
-                            horizThinned[x][y] = data[x][y];
-                        }
-                        vertThinned[x][y] = data[x][y];
-                    }
-                }
-                
-                thinHorizontal(horizThinned);
-                thinVertical(vertThinned);
-                
-                final DetectedFeature hPeriod = detectHPeriod(horizThinned);
-                final DetectedFeature vPeriod = detectVPeriod(vertThinned);
-                final DetectedFeature ground = detectGroundEcho(vertThinned);
-                final DetectedFeature iono = detectIonoEcho(vertThinned);
-                
-                final List<DetectedFeature> result = new LinkedList<>();
-                @SuppressWarnings("unused")
-                Object foo;
-                foo = (hPeriod != null) ? result.add(hPeriod) : null;
-                foo = (vPeriod != null) ? result.add(vPeriod) : null;
-                foo = (ground != null) ? result.add(ground) : null;
-                foo = (iono != null) ? result.add(iono) : null;
-                
-                return result;
-            }
-            
-            private DetectedFeature detectHPeriod(float[][] horizThinned)
-            {
-                final float[] colSums = new float[horizThinned.length];
-                final int[] colCounts = new int[horizThinned.length];
-                for (int x = 0; x < horizThinned.length; x++) {
-                    for (int y = 0; y < horizThinned[0].length; y++) {
-                        if (horizThinned[x][y] > 0) {
-                            colSums[x] += horizThinned[x][y];
-                            colCounts[x]++;
-                        }
-                    }
-                }
-                
-                // do some smoothing
-                final int smoothingLength = 4;
-                for (int x = 0; x < horizThinned.length - smoothingLength; x++) {
-                    if (colSums[x] > 0) {
-                        inner: for (int i = 1; i <= smoothingLength; i++) {
-                            if (colSums[x + i] > colSums[x]) {
-                                colSums[x + i] += colSums[x];
-                                colCounts[x + i] += colCounts[x];
-                                colSums[x] = 0;
-                                colCounts[x] = 0;
-                                break inner;
-                            }
-                        }
-                    }
-                }
-
-                final float[] peaks = new float[horizThinned.length];
-                float sum = 0;
-                int offset = -1, end = 0;
-                // remove columns shorter than 20 px and not having a value at the first 4 pixels
-                for (int x = 0; x < horizThinned.length; x++) {
-                    if (colCounts[x] > 0 && colCounts[x] < 20 && horizThinned[x][0] == 0 && horizThinned[x][1] == 0
-                            && horizThinned[x][2] == 0 && horizThinned[x][3] == 0) {
-                        colSums[x] = 0;
-                    } else {
-                        if (colCounts[x] > 0) {
-                            peaks[x] = 1;
-                            sum += colSums[x];
-                            if (offset == -1)
-                                offset = x;
-                            end = x;
-                        }
-                    }
-                }
-
-                // normalize the weights
-                for (int x = 0; x < horizThinned.length; x++) {
-                    colSums[x] = colSums[x] / sum;
-                }
-
-                // final Tuple<Integer, Double[]> result =
-                // SummingDetector.ComputationStrategy.COMBINED_QUANTILE_PERIODOGRAM
-                final Tuple<Integer, Double[]> result = SummingDetector.ComputationStrategy.PERIODOGRAM
-                        .computePeriod(peaks, colSums);
-                if (result == null || result.getY().length == 0)
-                    return new ElectronPlasmaOscillation(0, 0, 0);
-
-                return new ElectronPlasmaOscillation(offset, result.getY()[0], end);
-            }
-
-            private DetectedFeature detectVPeriod(float[][] vertThinned)
-            {
-                // we only take the first fourth into account, which is sufficient
-                final boolean[] possibleEchoes = new boolean[vertThinned[0].length];
-                for (int y = 0; y < possibleEchoes.length; y++) {
-                    if (vertThinned[0][y] > 0)
-                        possibleEchoes[y] = true;
-                }
-
-                // only retain echoes that go over 2E-15 in the 20px strip at the left; this should rule out some noise
-                for (int y = 0; y < possibleEchoes.length; y++) {
-                    if (possibleEchoes[y]) {
-                        possibleEchoes[y] = false;
-                        inner: for (int x = 0; x < 20; x++) {
-                            if (vertThinned[x][y] > 2E-15) {
-                                possibleEchoes[y] = true;
-                                break inner;
-                            }
-                        }
-                    }
-                }
-
-                int echoCount = 0;
-                int firstEcho = -1;
-                for (int y = 0; y < possibleEchoes.length; y++) {
-                    if (possibleEchoes[y]) {
-                        echoCount++;
-                        if (firstEcho == -1)
-                            firstEcho = y;
-                    }
-                }
-
-                // no vPeriod
-                if (echoCount == 0)
-                    return new ElectronCyclotronEchoes(0, 0, 0);
-
-                // since we have 80 time bins, we cannot detect more than 40 harmonics
-                // mainly this should rule out cases with the first hPeriod line at the left
-                if (echoCount > 40)
-                    return new ElectronCyclotronEchoes(0, 0, 0);
-
-                // if the first echo is in the lower half, then there will be only one harmonic line and the period
-                // estimation could fail; instead, we just return the position of this echo as the period
-                if (firstEcho > possibleEchoes.length / 2) {
-                    return new ElectronCyclotronEchoes(0, firstEcho, firstEcho);
-                }
-
-                // if the only echo is in the upper half, it is probably an erroneous detection
-                if (echoCount == 1)
-                    return new ElectronCyclotronEchoes(0, 0, 0);
-
-                // now we have at least two echoes and can perform period estimation
-
-                final float[] peaks = new float[possibleEchoes.length];
-                final float[] weights = new float[possibleEchoes.length];
-                int end = 0;
-                // we give the echoes equal weights because they are often really short and the weights may not be of
-                // great value
-                final float weight = 1 / (float) echoCount;
-                for (int y = 0; y < possibleEchoes.length; y++) {
-                    if (possibleEchoes[y]) {
-                        peaks[y] = 1;
-                        weights[y] = weight;
-                        end = y;
-                    }
-                }
-
-                final Tuple<Integer, Double[]> result = SummingDetector.ComputationStrategy.QUANTILE_PEAK_DISTANCE_ESTIMATION
-                        .computePeriod(peaks, weights);
-                if (result == null || result.getY().length == 0)
-                    return new ElectronCyclotronEchoes(0, 0, 0);
-
-                return new ElectronCyclotronEchoes(0, result.getY()[0], end);
-            }
-
-            private DetectedFeature detectGroundEcho(float[][] vertThinned)
-            {
-                final List<Point> points = traceEcho(vertThinned, vertThinned.length / 2, vertThinned.length
-                        - vertThinned.length / 2, 0, 40, 80);
-                if (points == null)
-                    return null;
-
-                return new GroundEcho(points.toArray(new Point[0]));
-            }
-
-            private DetectedFeature detectIonoEcho(float[][] vertThinned)
-            {
-                final List<Point> points = traceEcho(vertThinned, 0, vertThinned.length / 2, 20, 20, 40);
-                if (points == null)
-                    return null;
-
-                return new IonosphericEcho(points.toArray(new Point[0]));
-            }
-
-            private List<Point> traceEcho(float[][] vertThinned, int xoffset, int xlength, int startY, int minRowCount,
-                    int searchRectangleWidth)
-            {
-                final int[] rowCounts = new int[vertThinned[0].length];
-                int maxCount = 0;
-                int maxCountIndex = -1;
-                for (int y = startY; y < rowCounts.length; y++) {
-                    for (int x = xoffset; x < xoffset + xlength; x++) {
-                        if (vertThinned[x][y] > 0) {
-                            rowCounts[y]++;
-                            if (rowCounts[y] > maxCount) {
-                                maxCount = rowCounts[y];
-                                maxCountIndex = y;
-                            }
-                        }
-                    }
-                }
-
-                // if we got too few points in the best line, nothing is probably present
-                if (maxCount < minRowCount)
-                    return null;
-
-                final List<Point> points = new LinkedList<>();
-                int y = maxCountIndex;
-                int firstX = -1;
-
-                // first find the "center" and go to the left from it
-                for (int x = xoffset + xlength - 1; x >= xoffset; x--) {
-                    if (vertThinned[x][y] > 0) {
-                        points.add(new Point(x, y));
-                        if (firstX == -1)
-                            firstX = x;
-                        continue;
-                    }
-
-                    // until we get to the first point of echo, skip
-                    if (firstX == -1)
-                        continue;
-
-                    final Tuple<Integer, Integer> next = findNextCoords(vertThinned, x, y, xoffset,
-                            searchRectangleWidth, -1);
-
-                    // 60 is a limit for the echo not to run up a false perpendicular line
-                    if (next.getX() < 0 || next.getY() < 0 || abs(next.getY() - maxCountIndex) > 60)
-                        break;
-
-                    x = next.getX();
-                    y = next.getY();
-                }
-
-                Collections.reverse(points);
-
-                // then go from the "center" to the right
-                for (int x = firstX + 1; x < xoffset + xlength; x++) {
-                    if (vertThinned[x][y] > 0) {
-                        points.add(new Point(x, y));
-                        continue;
-                    }
-
-                    final Tuple<Integer, Integer> next = findNextCoords(vertThinned, x, y, xoffset,
-                            searchRectangleWidth, 1);
-
-                    if (next.getX() < 0 || next.getY() < 0 || abs(next.getY() - maxCountIndex) > 60)
-                        break;
-
-                    x = next.getX();
-                    y = next.getY();
-                }
-
-                if (points.size() == 0)
-                    return null;
-
-                return points;
-            }
-
-            private Tuple<Integer, Integer> findNextCoords(float[][] vertThinned, int x, int y, int xoffset,
-                    int searchRectangleWidth, int direction)
-            {
-                float max = 0;
-                int nextY = -1, nextX = -1;
-                // explore a searchRectangleWidth'x'20 box to the left of the last GE point to find the best line's
-                // continuation
-                for (int xx = x; (direction == -1 && xx >= max(x - searchRectangleWidth, xoffset))
-                        || (direction == 1 && xx <= min(x + searchRectangleWidth, vertThinned.length - 1)); xx += direction) {
-                    for (int yDiff = 0; yDiff <= 10; yDiff++) {
-                        for (int sign = -1; sign <= 1; sign += 2) {
-                            final int yy = y + sign * yDiff;
-                            if (yy >= 0 && yy < vertThinned[0].length) {
-                                if (vertThinned[xx][yy] > max) {
-                                    max = vertThinned[xx][yy];
-                                    nextX = xx;
-                                    nextY = yy;
-                                }
-                            }
-                        }
-                    }
-                }
-
-                return new Tuple<>(nextX, nextY);
-            }
-
-            /**
-             * Perform horizontal thinning.
-             * 
-             * @param data The data array. This method will change it!
-             */
-            private void thinHorizontal(float[][] data)
-            {
-                final int w = data.length, h = data[0].length;
-
-                for (int x = 0; x < w; x++) {
-                    yLoop: for (int y = 0; y < h; y++) {
-                        if (data[x][y] < 1E-15)
-                            data[x][y] = 0;
-
-                        for (int i = -3; i <= 3; i++) {
-                            if (x + i >= 0 && x + i < w && data[x + i][y] > data[x][y]) {
-                                data[x][y] = 0;
-                                continue yLoop;
-                            }
-                        }
-                    }
-                }
-
-                for (int x = 0; x < w; x++) {
-                    yLoop: for (int y = 0; y < h; y++) {
-                        if (data[x][y] == 0)
-                            continue;
-
-                        for (int i = 1; i <= 15; i++) {
-                            if (y + i < h && data[x][y + i] == 0) {
-                                final int badI = i;
-                                for (; i >= 0; i--) {
-                                    data[x][y + i] = 0;
-                                }
-
-                                y = y + badI - 1;
-                                continue yLoop;
-                            }
-                        }
-                    }
-                }
-
-                // print(data);
-            }
-
-            /**
-             * Perform vertical thinning.
-             * 
-             * @param data The data array. This method will change it!
-             */
-            private void thinVertical(float[][] data)
-            {
-                final int w = data.length, h = data[0].length;
-
-                for (int y = 0; y < h; y++) {
-                    xLoop: for (int x = 0; x < w; x++) {
-                        if (data[x][y] < 1E-15)
-                            data[x][y] = 0;
-
-                        final int height = 10;
-                        for (int i = -height; i <= height; i++) {
-                            if (y + i >= 0 && y + i < h && data[x][y + i] > data[x][y]) {
-                                data[x][y] = 0;
-                                continue xLoop;
-                            }
-                        }
-                    }
-                }
-
-                for (int y = 0; y < h; y++) {
-                    xLoop: for (int x = 0; x < w; x++) {
-                        if (data[x][y] == 0)
-                            continue;
-
-                        for (int i = 1; i <= 5; i++) {
-                            if (x + i < w && data[x + i][y] == 0) {
-                                final int badI = i;
-                                for (; i >= 0; i--) {
-                                    data[x + i][y] = 0;
-                                }
-
-                                x = x + badI - 1;
-                                continue xLoop;
-                            }
-                        }
-                    }
-                }
-
-                print(data);
-            }
-
-            private void print(float[][] arr)
-            {
-                final BufferedImage im = new BufferedImage(arr.length, arr[0].length, BufferedImage.TYPE_INT_RGB);
-                final int col = Color.white.getRGB();
-                try (final BufferedWriter w = new BufferedWriter(new FileWriter("thin"));) {
-                    for (int y = arr[0].length - 1; y >= 0; y--) {
-                        for (int x = 0; x < arr.length; x++) {
-                            w.write(arr[x][y] + " ");
-                            if (arr[x][y] > 1E-19) {
-                                im.setRGB(x, y, col);
-                            } else {
-                                im.setRGB(x, y, 0);
-                            }
-                        }
-                        w.newLine();
-                    }
-                } catch (IOException e) {
-
-                }
-
-                try {
-                    ImageIO.write(im, "png", new File("thin.png"));
-                } catch (IOException e) {
-                    // TODO Auto-generated catch block
-                    e.printStackTrace();
-                }
-            }
-
-            @Override
-            public float[][] prepareData(Float[][] data)
-            {
-                final int w = data.length, h = data[0].length;
-                final float[][] result = new float[w][h];
-                for (int x = 0; x < w; x++) {
-                    for (int y = 0; y < h; y++) {
-                        result[x][y] = data[x][y];
-                    }
-                }
-
-                return result;
-            }
-
-            @Override
-            public boolean detectsGroundEcho()
-            {
-                return true;
-            }
-
-            @Override
-            public String toString()
-            {
-                return "thinning";
-            }
-
-        };
-
-        /**
-         * Detect features in the data.
-         * 
-         * @param data The data to perform detection on. The algorithm can change the contents of the array.
-         * @return The detected features.
-         */
-        abstract List<DetectedFeature> detect(float[][] data);
-
-        /**
-         * Process the input data and do whatever is needed to be able to work on them.
-         * 
-         * @param data The data.
-         * @return The processed data.
-         */
-        public float[][] prepareData(Float[][] data)
-        {
-            final int w = data.length, h = data[0].length;
-            final float[][] result = new float[w][h];
-            final double coef = Math.log(10);
-            for (int x = 0; x < w; x++) {
-                for (int y = 0; y < h; y++) {
-                    result[x][y] = (float) (Math.log(data[x][y]) / coef);
-                }
-            }
-
-            return result;
-        }
-
-        /**
-         * @return True if GE is computed during the common computation.
-         */
-        public boolean detectsGroundEcho()
-        {
-            return false;
-        }
-    }
-
-    @Override
-    protected List<DetectedFeature> detectFeaturesImpl(Product<Float, ?, ?> product)
-    {
-        final float[][] data = strategy.prepareData(product.getData());
-
-        return strategy.detect(data);
-    }
-
-    @Override
-    protected DetectedFeature detectGroundEcho(Ionogram product, float altitude)
-    {
-        if (strategy.detectsGroundEcho())
-            return null;
-        return super.detectGroundEcho(product, altitude);
-    }
-
-    /**
-     * Set the computation strategy.
-     * 
-     * @param strategy The strategy to use.
-     */
-    public void setStrategy(ComputationStrategy strategy)
-    {
-        this.strategy = strategy;
-    }
-
-    /**
-     * @return The computation strategy.
-     */
-    public ComputationStrategy getStrategy()
-    {
-        return strategy;
-    }
-
-    /**
-     * Test the detector on the given ionogram.
-     * 
-     * @param args 0 =&gt; Orbit file, 1 =&gt; position of the ionogram in the file.
-     * 
-     * @throws IOException On IO exception.
-     */
-    public static void main(String[] args) throws IOException
-    {
-        final File orbitFile = new File(args[0]);
-        final int position = Integer.parseInt(args[1]);
-
-        final Ionogram ionogram = new EvenlySampledIonogram(new AISLBLProductReader().readFile(orbitFile)[position]);
-        System.out.println(new VectorizationDetector().detectFeatures(ionogram));
-    }
-
-}
+/**
+ * Copyright (c) 2013, Martin Pecka (peci1@seznam.cz)
+ * All rights reserved.
+ * Licensed under the following BSD License.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name Martin Pecka nor the
+ * names of contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cz.cuni.mff.peckam.ais.detection;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.awt.Point;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import cz.cuni.mff.peckam.ais.AISLBLProductReader;
+import cz.cuni.mff.peckam.ais.EvenlySampledIonogram;
+import cz.cuni.mff.peckam.ais.FloatKernels;
+import cz.cuni.mff.peckam.ais.Ionogram;
+import cz.cuni.mff.peckam.ais.detection.DetectionContext.GroundEchoBand;
+
+/**
+ * Detector using vectorization techniques.
+ * 
+ * @author Martin Pecka
+ */
+public class VectorizationDetector extends FloatFeatureDetector
+{
+
+    /** Minimum number of lines of the data processed by a single task of the parallel computations. */
+    private static final int             MIN_LINES_PER_TASK = 64;
+
+    /** The strategy used for computing. */
+    private volatile ComputationStrategy strategy           = ComputationStrategy.THINNING;
+
+    /**
+     * The strategy used for computation.
+     * 
+     * @author Martin Pecka
+     */
+    public enum ComputationStrategy
+    {
+
+        /**
+         * Skeletonization of the gradient field of the logarithm of the data.
+         * <p>
+         * The gradient is diffused (averaged over the 8-neighborhood) into the areas where it is weak, and the skeleton
+         * is formed by the pixels the diffused gradient points to from both sides. The features are then extracted
+         * from the skeleton the same way as from the thinned data.
+         * 
+         * @author Martin Pecka
+         */
+        SKELETONIZATION
+        {
+            /** The number of iterations of the diffusion all gradients undergo (to suppress the noise). */
+            private static final int    MIN_DIFFUSION_ITERATIONS   = 2;
+            /** The maximum number of iterations of the diffusion (limits the work done for a single frame). */
+            private static final int    MAX_DIFFUSION_ITERATIONS   = 30;
+            /** The gradients with both components smaller than this are diffused until the diffusion converges. */
+            private static final float  WEAK_GRADIENT              = 1E-2f;
+            /** The diffusion has converged if no gradient component changes more than this. */
+            private static final float  CONVERGENCE_THRESHOLD      = 1E-4f;
+            /** The minimum difference of the gradients on both sides of a skeleton pixel (across the skeleton). */
+            private static final float  MIN_FLIP                   = 1E-3f;
+            /** The minimum number of rows of a connected component of the vertical lines of the skeleton. */
+            private static final int    MIN_VERTICAL_LINE_LENGTH   = 16;
+            /** The minimum number of columns of a connected component of the horizontal lines of the skeleton. */
+            private static final int    MIN_HORIZONTAL_LINE_LENGTH = 6;
+            /** The minimum distance of the columns of two vertical lines of the skeleton. */
+            private static final int    MIN_VERTICAL_LINE_DISTANCE = 4;
+            /** The data are clamped to this value before computing the logarithm, so that zeros don't produce NaNs. */
+            private static final float  MIN_VALUE                  = 1E-20f;
+
+            @Override
+            List<DetectedFeature> detect(float[][] data, DetectionContext context)
+            {
+                return detect(data, context, null);
+            }
+
+            @Override
+            List<DetectedFeature> detect(final float[][] data, final DetectionContext context,
+                    final DetectionResult prior)
+            {
+                final float[][] gradient = diffuseGradient(data);
+
+                // both branches only read the data and the gradient
+                return RidgeFeatureExtractor.extract(new Callable<RidgeMap>() {
+                    @Override
+                    public RidgeMap call()
+                    {
+                        final float[][] horizSkeleton = new float[data.length / 2][data[0].length];
+                        processLinesInParallel(0, horizSkeleton.length, new LineProcessor() {
+                            @Override
+                            public void process(int from, int to)
+                            {
+                                findSkeleton(data, gradient[0], true, horizSkeleton, from, to);
+                            }
+                        });
+                        final float[][] verticalLines = removeShortComponents(horizSkeleton, 1,
+                                MIN_VERTICAL_LINE_LENGTH);
+                        mergeVerticalLines(verticalLines);
+                        context.publishDiagnostics("horizSkeleton", verticalLines);
+                        return new RidgeMap(verticalLines);
+                    }
+                }, new Callable<RidgeMap>() {
+                    @Override
+                    public RidgeMap call()
+                    {
+                        final float[][] vertSkeleton = new float[data.length][data[0].length];
+                        processLinesInParallel(0, vertSkeleton.length, new LineProcessor() {
+                            @Override
+                            public void process(int from, int to)
+                            {
+                                findSkeleton(data, gradient[1], false, vertSkeleton, from, to);
+                            }
+                        });
+                        final float[][] horizontalLines = removeShortComponents(vertSkeleton,
+                                MIN_HORIZONTAL_LINE_LENGTH, 1);
+                        context.publishDiagnostics("vertSkeleton", horizontalLines);
+                        return new RidgeMap(horizontalLines);
+                    }
+                }, prior, 0, data[0].length);
+            }
+
+            /**
+             * Compute the gradient of the logarithm of the data and diffuse it.
+             * 
+             * @param data The data.
+             * @return The x and y components of the diffused gradient in flat arrays (see {@link FloatKernels}).
+             */
+            private float[][] diffuseGradient(final float[][] data)
+            {
+                final int w = data.length, h = data[0].length;
+
+                float[][] current = { new float[w * h], new float[w * h] };
+                float[][] next = { new float[w * h], new float[w * h] };
+
+                final float[] log = next[0];
+                final float[] gradX = current[0], gradY = current[1];
+                processLinesInParallel(0, w, new LineProcessor() {
+                    @Override
+                    public void process(int from, int to)
+                    {
+                        for (int x = from; x < to; x++) {
+                            for (int y = 0; y < h; y++)
+                                log[x * h + y] = (float) Math.log10(max(data[x][y], MIN_VALUE));
+                        }
+                    }
+                });
+                processLinesInParallel(0, w, new LineProcessor() {
+                    @Override
+                    public void process(int from, int to)
+                    {
+                        computeGradient(log, w, h, gradX, gradY, from, to);
+                    }
+                });
+
+                // the per-column maxima of the changes of the gradient in the last iteration
+                final float[] changes = new float[w];
+                for (int iteration = 0; iteration < MAX_DIFFUSION_ITERATIONS; iteration++) {
+                    final float[][] src = current, dst = next;
+                    final boolean diffuseAll = iteration < MIN_DIFFUSION_ITERATIONS;
+                    processLinesInParallel(0, w, new LineProcessor() {
+                        @Override
+                        public void process(int from, int to)
+                        {
+                            diffuse(src, dst, w, h, diffuseAll, changes, from, to);
+                        }
+                    });
+
+                    current = dst;
+                    next = src;
+
+                    float maxChange = 0;
+                    for (float change : changes)
+                        maxChange = max(maxChange, change);
+                    if (!diffuseAll && maxChange < CONVERGENCE_THRESHOLD)
+                        break;
+                }
+
+                return current;
+            }
+
+            /**
+             * Compute the gradient of the data in the given columns using central differences (one-sided at the
+             * borders).
+             * 
+             * @param data The data in a flat array.
+             * @param w Width of the data.
+             * @param h Height of the data.
+             * @param gradX The array to write the x components of the gradient to.
+             * @param gradY The array to write the y components of the gradient to.
+             * @param fromX The first column to process (inclusive).
+             * @param toX The last column to process (exclusive).
+             */
+            private void computeGradient(float[] data, int w, int h, float[] gradX, float[] gradY, int fromX, int toX)
+            {
+                for (int x = fromX; x < toX; x++) {
+                    final int left = max(x - 1, 0), right = min(x + 1, w - 1);
+                    final float xDistance = max(right - left, 1);
+                    for (int y = 0; y < h; y++) {
+                        final int top = max(y - 1, 0), bottom = min(y + 1, h - 1);
+                        gradX[x * h + y] = (data[right * h + y] - data[left * h + y]) / xDistance;
+                        gradY[x * h + y] = (data[x * h + bottom] - data[x * h + top]) / max(bottom - top, 1);
+                    }
+                }
+            }
+
+            /**
+             * Perform one iteration of the diffusion of the gradient in the given columns.
+             * 
+             * @param src The x and y components of the gradient before the iteration.
+             * @param dst The arrays to write the components of the gradient after the iteration to.
+             * @param w Width of the data.
+             * @param h Height of the data.
+             * @param diffuseAll If true, all gradients are diffused. Otherwise only the weak gradients are.
+             * @param changes The array to write the maximum change of the gradient in every processed column to.
+             * @param fromX The first column to process (inclusive).
+             * @param toX The last column to process (exclusive).
+             */
+            private void diffuse(float[][] src, float[][] dst, int w, int h, boolean diffuseAll, float[] changes,
+                    int fromX, int toX)
+            {
+                final float[] srcX = src[0], srcY = src[1], dstX = dst[0], dstY = dst[1];
+
+                // sums of the values in the column and the rows above and below it for the previous, the current and
+                // the next column; the 8-neighborhood sums are then computed from them
+                float[] previousX = new float[h], previousY = new float[h];
+                float[] currentX = new float[h], currentY = new float[h];
+                float[] nextX = new float[h], nextY = new float[h];
+                if (fromX > 0) {
+                    sumRows(srcX, fromX - 1, h, previousX);
+                    sumRows(srcY, fromX - 1, h, previousY);
+                }
+                sumRows(srcX, fromX, h, currentX);
+                sumRows(srcY, fromX, h, currentY);
+
+                for (int x = fromX; x < toX; x++) {
+                    if (x + 1 < w) {
+                        sumRows(srcX, x + 1, h, nextX);
+                        sumRows(srcY, x + 1, h, nextY);
+                    } else {
+                        Arrays.fill(nextX, 0);
+                        Arrays.fill(nextY, 0);
+                    }
+                    final int numColumns = (x > 0 ? 1 : 0) + 1 + (x + 1 < w ? 1 : 0);
+
+                    float change = 0;
+                    for (int y = 0; y < h; y++) {
+                        final int i = x * h + y;
+                        final float gx = srcX[i], gy = srcY[i];
+                        if (!diffuseAll && (abs(gx) >= WEAK_GRADIENT || abs(gy) >= WEAK_GRADIENT)) {
+                            dstX[i] = gx;
+                            dstY[i] = gy;
+                            continue;
+                        }
+
+                        // the mean of the neighbors (without the pixel itself)
+                        final int count = numColumns * ((y > 0 ? 1 : 0) + 1 + (y + 1 < h ? 1 : 0)) - 1;
+                        dstX[i] = (previousX[y] + currentX[y] + nextX[y] - gx) / count;
+                        dstY[i] = (previousY[y] + currentY[y] + nextY[y] - gy) / count;
+
+                        change = max(change, max(abs(dstX[i] - gx), abs(dstY[i] - gy)));
+                    }
+                    changes[x] = change;
+
+                    float[] tmp = previousX;
+                    previousX = currentX;
+                    currentX = nextX;
+                    nextX = tmp;
+                    tmp = previousY;
+                    previousY = currentY;
+                    currentY = nextY;
+                    nextY = tmp;
+                }
+            }
+
+            /**
+             * Compute the sums of each value in the given column with the values above and below it.
+             * 
+             * @param values The values in a flat array.
+             * @param x The column.
+             * @param h Height of the data.
+             * @param sums The array to write the sums to.
+             */
+            private void sumRows(float[] values, int x, int h, float[] sums)
+            {
+                final int offset = x * h;
+                for (int y = 0; y < h; y++) {
+                    float sum = values[offset + y];
+                    if (y > 0)
+                        sum += values[offset + y - 1];
+                    if (y + 1 < h)
+                        sum += values[offset + y + 1];
+                    sums[y] = sum;
+                }
+            }
+
+            /**
+             * Find the pixels of the skeleton in the given columns.
+             * <p>
+             * A pixel belongs to the skeleton if the component of the gradient along the given axis changes its sign
+             * at it (the gradients of its two neighbors along the axis point to it) and the components of the gradients
+             * of the neighbors differ by at least {@link #MIN_FLIP}. The component along the skeleton is not taken
+             * into account, since the echoes often lie on a slope of the background.
+             * 
+             * @param data The data.
+             * @param axisGradient The component of the diffused gradient along the axis.
+             * @param alongX If true, search along the x axis (for vertical lines), otherwise along the y axis.
+             * @param skeleton The array to write the values of the skeleton pixels to (other pixels are left intact).
+             * @param fromX The first column to process (inclusive).
+             * @param toX The last column to process (exclusive).
+             */
+            private void findSkeleton(float[][] data, float[] axisGradient, boolean alongX, float[][] skeleton,
+                    int fromX, int toX)
+            {
+                final int w = data.length, h = data[0].length;
+                final int dx = alongX ? 1 : 0, dy = alongX ? 0 : 1;
+                final int step = dx * h + dy;
+
+                for (int x = max(fromX, dx); x < min(toX, w - dx); x++) {
+                    for (int y = dy; y < h - dy; y++) {
+                        final float value = data[x][y];
+                        final int i = x * h + y, before = i - step, after = i + step;
+                        // the first pixel with non-positive gradient along the axis is the center of the ridge
+                        if (value < NonMaximumSuppression.ZERO || axisGradient[before] <= 0 || axisGradient[i] > 0
+                                || axisGradient[after] >= 0)
+                            continue;
+
+                        if (axisGradient[before] - axisGradient[after] >= MIN_FLIP)
+                            skeleton[x][y] = value;
+                    }
+                }
+            }
+
+            /**
+             * Remove the connected components of the skeleton that are too short.
+             * <p>
+             * Unlike the thinned data, the skeleton is only a single pixel wide, so a line in it rarely stays in a
+             * single row or column for long and the short runs of pixels can't be removed instead.
+             * 
+             * @param skeleton The skeleton.
+             * @param minWidth The minimum number of columns of a retained component.
+             * @param minHeight The minimum number of rows of a retained component.
+             * @return The retained components.
+             */
+            private float[][] removeShortComponents(float[][] skeleton, int minWidth, int minHeight)
+            {
+                final float[][] result = new float[skeleton.length][skeleton[0].length];
+                for (RidgeComponents.Component component : new RidgeComponents(new RidgeMap(skeleton), 0,
+                        skeleton.length).getComponents()) {
+                    if (component.getMaxX() - component.getMinX() + 1 < minWidth
+                            || component.getMaxY() - component.getMinY() + 1 < minHeight)
+                        continue;
+
+                    for (Point pixel : component.getPixels())
+                        result[pixel.x][pixel.y] = skeleton[pixel.x][pixel.y];
+                }
+                return result;
+            }
+
+            /**
+             * Move the pixels of each column to the column with the highest sum closer than
+             * {@link #MIN_VERTICAL_LINE_DISTANCE} (the vertical lines are straight, but their skeleton wanders between
+             * the neighboring columns).
+             * 
+             * @param lines The vertical lines. This method will change them!
+             */
+            private void mergeVerticalLines(float[][] lines)
+            {
+                final int w = lines.length, h = lines[0].length;
+                final float[] columnSums = new float[w];
+                for (int x = 0; x < w; x++) {
+                    for (int y = 0; y < h; y++)
+                        columnSums[x] += lines[x][y];
+                }
+
+                // the strongest column in the neighborhood of each column (the leftmost of the equally strong)
+                final int[] targets = new int[w];
+                for (int x = 0; x < w; x++) {
+                    targets[x] = x;
+                    for (int c = max(x - MIN_VERTICAL_LINE_DISTANCE + 1, 0); c < min(x + MIN_VERTICAL_LINE_DISTANCE,
+                            w); c++) {
+                        if (columnSums[c] > columnSums[targets[x]] || (columnSums[c] == columnSums[targets[x]]
+                                && c < targets[x]))
+                            targets[x] = c;
+                    }
+                }
+
+                for (int x = 0; x < w; x++) {
+                    if (columnSums[x] == 0)
+                        continue;
+
+                    // follow the targets to a column that is the strongest in its neighborhood
+                    int target = x;
+                    while (targets[target] != target)
+                        target = targets[target];
+                    if (target == x)
+                        continue;
+
+                    for (int y = 0; y < h; y++) {
+                        lines[target][y] = max(lines[target][y], lines[x][y]);
+                        lines[x][y] = 0;
+                    }
+                }
+            }
+
+            @Override
+            public float[][] prepareData(float[] data, int width, int height)
+            {
+                return FloatKernels.unflatten(data, width, height);
+            }
+
+            @Override
+            float[][] prepareData(DetectionContext context)
+            {
+                return context.getData();
+            }
+
+            @Override
+            public boolean detectsGroundEcho()
+            {
+                return true;
+            }
+
+            @Override
+            public String toString()
+            {
+                return "skeleton";
+            }
+
+        },
+
+        /**
+         * Iterative thinning.
+         * 
+         * @author Martin Pecka
+         */
+        THINNING
+        {
+            /** The number of columns on each side a value has to be the maximum of to survive horizontal thinning. */
+            private static final int HORIZONTAL_THINNING_RADIUS = 3;
+            /** The number of rows on each side a value has to be the maximum of to survive vertical thinning. */
+            private static final int VERTICAL_THINNING_RADIUS   = 10;
+            /** The number of rows above and below the expected ground echo band searched for the ground echo. */
+            private static final int GROUND_ECHO_MARGIN         = 60;
+            /** The number of rows above and below the searched rows that are thinned with them. */
+            private static final int THINNING_MARGIN            = 4 * VERTICAL_THINNING_RADIUS;
+
+            @Override
+            List<DetectedFeature> detect(float[][] data, DetectionContext context)
+            {
+                return detect(data, context, null);
+            }
+
+            @Override
+            List<DetectedFeature> detect(final float[][] data, final DetectionContext context,
+                    final DetectionResult prior)
+            {
+                // if the altitude is known, the ground echo is only searched for in the rows around the expected delay
+                final int h = data[0].length;
+                final GroundEchoBand band = context.getGroundEchoBand();
+                final int echoFromY = (band != null) ? max(band.getYPosition() - GROUND_ECHO_MARGIN, 0) : 0;
+                final int echoToY = (band != null) ? min(band.getYPosition() + GroundEchoBand.HEIGHT
+                        + GROUND_ECHO_MARGIN, h) : h;
+
+                // the horizontal and vertical branches only share the input data, which they don't modify
+                return RidgeFeatureExtractor.extract(new Callable<RidgeMap>() {
+                    @Override
+                    public RidgeMap call()
+                    {
+                        final float[][] horizThinned = new float[data.length / 2][];
+                        for (int x = 0; x < horizThinned.length; x++)
+                            horizThinned[x] = data[x].clone();
+
+                        final RidgeMap horizRidges = thinHorizontal(horizThinned);
+                        context.publishDiagnostics("horizThinned", horizThinned);
+                        return horizRidges;
+                    }
+                }, new Callable<RidgeMap>() {
+                    @Override
+                    public RidgeMap call()
+                    {
+                        final float[][] vertThinned = new float[data.length][];
+                        for (int x = 0; x < vertThinned.length; x++)
+                            vertThinned[x] = data[x].clone();
+
+                        final RidgeMap vertRidges = thinVertical(vertThinned, echoFromY, echoToY);
+                        context.publishDiagnostics("vertThinned", vertThinned);
+                        return vertRidges;
+                    }
+                }, prior, echoFromY, echoToY);
+            }
+
+            /**
+             * Perform horizontal thinning.
+             * 
+             * @param data The data array. This method will change it!
+             * @return The ridges of the thinned data.
+             */
+            private RidgeMap thinHorizontal(final float[][] data)
+            {
+                final int w = data.length, h = data[0].length;
+
+                processLinesInParallel(0, h, new LineProcessor() {
+                    @Override
+                    public void process(int from, int to)
+                    {
+                        new NonMaximumSuppression(HORIZONTAL_THINNING_RADIUS).suppressAlongX(data, from, to);
+                    }
+                });
+
+                processLinesInParallel(0, w, new LineProcessor() {
+                    @Override
+                    public void process(int from, int to)
+                    {
+                        RidgeFeatureExtractor.removeShortVerticalRuns(data, from, to);
+                    }
+                });
+
+                return new RidgeMap(data);
+            }
+
+            /**
+             * Perform vertical thinning.
+             * <p>
+             * The right half of the data is only searched for the ground echo, so only the given rows of it are thinned
+             * and kept, and the rest of it is cleared. The removal of short runs only looks 5 columns ahead, so the
+             * first 5 columns of the right half are thinned over the whole height and cleared only after the runs have
+             * been removed, so that the runs crossing the middle of the data are judged by their whole length.
+             * 
+             * @param data The data array. This method will change it!
+             * @param echoFromY The first row of the right half to keep (inclusive).
+             * @param echoToY The last row of the right half to keep (exclusive).
+             * @return The ridges of the thinned data.
+             */
+            private RidgeMap thinVertical(final float[][] data, final int echoFromY, final int echoToY)
+            {
+                final int w = data.length, h = data[0].length;
+                final int fullFromX = w / 2, fullToX = min(w / 2 + 5, w);
+                // the margin makes the values in the kept rows thinned as if the whole column was thinned; a survivor
+                // suppresses the following values up to the radius, so a single radius is not enough to cover the
+                // chains of survivors reaching the kept rows
+                final int thinFromY = max(echoFromY - THINNING_MARGIN, 0);
+                final int thinToY = min(echoToY + THINNING_MARGIN, h);
+
+                processLinesInParallel(0, w, new LineProcessor() {
+                    @Override
+                    public void process(int from, int to)
+                    {
+                        final NonMaximumSuppression suppression = new NonMaximumSuppression(VERTICAL_THINNING_RADIUS);
+                        for (int x = from; x < to; x++) {
+                            if (x < fullToX) {
+                                suppression.suppress(data[x], h);
+                            } else {
+                                suppression.suppress(data[x], thinFromY, thinToY);
+                                Arrays.fill(data[x], 0, echoFromY, 0);
+                                Arrays.fill(data[x], echoToY, h, 0);
+                            }
+                        }
+                    }
+                });
+
+                processLinesInParallel(0, h, new LineProcessor() {
+                    @Override
+                    public void process(int from, int to)
+                    {
+                        RidgeFeatureExtractor.removeShortHorizontalRuns(data, from, to);
+                    }
+                });
+
+                for (int x = fullFromX; x < fullToX; x++) {
+                    Arrays.fill(data[x], 0, echoFromY, 0);
+                    Arrays.fill(data[x], echoToY, h, 0);
+                }
+
+                return new RidgeMap(data);
+            }
+
+            @Override
+            public float[][] prepareData(float[] data, int width, int height)
+            {
+                return FloatKernels.unflatten(data, width, height);
+            }
+
+            @Override
+            float[][] prepareData(DetectionContext context)
+            {
+                return context.getData();
+            }
+
+            @Override
+            public boolean detectsGroundEcho()
+            {
+                return true;
+            }
+
+            @Override
+            public String toString()
+            {
+                return "thinning";
+            }
+
+        };
+
+        /**
+         * Detect features in the data.
+         * 
+         * @param data The data to perform detection on. The array may be shared and must not be modified.
+         * @param context The context of the product (used for publishing diagnostics).
+         * @return The detected features.
+         */
+        abstract List<DetectedFeature> detect(float[][] data, DetectionContext context);
+
+        /**
+         * Detect features in the data using the result of the detection in the previous frame as a prior.
+         * <p>
+         * The default implementation ignores the prior.
+         * 
+         * @param data The data to perform detection on. The array may be shared and must not be modified.
+         * @param context The context of the product (used for publishing diagnostics).
+         * @param prior Result of the detection in the previous frame of the same size. May be <code>null</code>.
+         * @return The detected features.
+         */
+        List<DetectedFeature> detect(float[][] data, DetectionContext context, DetectionResult prior)
+        {
+            return detect(data, context);
+        }
+
+        /**
+         * Process the input data and do whatever is needed to be able to work on them.
+         * 
+         * @param data The data.
+         * @return The processed data.
+         */
+        public final float[][] prepareData(Float[][] data)
+        {
+            return prepareData(FloatKernels.flatten(data), data.length, data[0].length);
+        }
+
+        /**
+         * Prepare the data for the computation.
+         * 
+         * @param data The data in a flat array (see {@link FloatKernels}). Must not be modified.
+         * @param width Width of the data.
+         * @param height Height of the data.
+         * @return The processed data.
+         */
+        public float[][] prepareData(float[] data, int width, int height)
+        {
+            final float[] result = new float[data.length];
+            FloatKernels.log10(data, result);
+            return FloatKernels.unflatten(result, width, height);
+        }
+
+        /**
+         * Prepare the data for the computation using the data shared in the given context.
+         * 
+         * @param context The context of the product.
+         * @return The processed data. The array is shared with the context and must not be modified.
+         */
+        float[][] prepareData(DetectionContext context)
+        {
+            return context.getLog10Data();
+        }
+
+        /**
+         * @return True if GE is computed during the common computation.
+         */
+        public boolean detectsGroundEcho()
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Run the tasks in parallel in the pool shared by the detectors and wait for them to finish.
+     * 
+     * @param tasks The tasks to run.
+     */
+    static void invokeInParallel(final ForkJoinTask<?>... tasks)
+    {
+        if (ForkJoinTask.inForkJoinPool()) {
+            ForkJoinTask.invokeAll(tasks);
+            return;
+        }
+
+        DetectionPool.INSTANCE.invoke(ForkJoinTask.adapt(new Runnable() {
+            @Override
+            public void run()
+            {
+                ForkJoinTask.invokeAll(tasks);
+            }
+        }));
+    }
+
+    /**
+     * Process the given range of independent lines of the data in parallel.
+     * 
+     * @param from The first line to process (inclusive).
+     * @param to The last line to process (exclusive).
+     * @param processor The processing of the lines.
+     */
+    static void processLinesInParallel(int from, int to, LineProcessor processor)
+    {
+        invokeInParallel(new LineRangeAction(processor, from, to));
+    }
+
+    /**
+     * Processing of a range of lines of the data that don't depend on each other.
+     * 
+     * @author Martin Pecka
+     */
+    interface LineProcessor
+    {
+        /**
+         * Process the given lines.
+         * 
+         * @param from The first line to process (inclusive).
+         * @param to The last line to process (exclusive).
+         */
+        void process(int from, int to);
+    }
+
+    /**
+     * Action splitting a range of lines in halves processed in parallel until they are not longer than
+     * {@link #MIN_LINES_PER_TASK}.
+     * 
+     * @author Martin Pecka
+     */
+    private static class LineRangeAction extends RecursiveAction
+    {
+        /**  */
+        private static final long   serialVersionUID = 5324946513393478671L;
+
+        /** The processing of the lines. */
+        private final LineProcessor processor;
+        /** The first line to process (inclusive). */
+        private final int           from;
+        /** The last line to process (exclusive). */
+        private final int           to;
+
+        /**
+         * @param processor The processing of the lines.
+         * @param from The first line to process (inclusive).
+         * @param to The last line to process (exclusive).
+         */
+        LineRangeAction(LineProcessor processor, int from, int to)
+        {
+            this.processor = processor;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from <= MIN_LINES_PER_TASK) {
+                processor.process(from, to);
+                return;
+            }
+
+            final int middle = (from + to) >>> 1;
+            invokeAll(new LineRangeAction(processor, from, middle), new LineRangeAction(processor, middle, to));
+        }
+    }
+
+    /**
+     * The pool for the parallel parts of the detection of a single product shared by all detectors. It is created when
+     * it is first needed.
+     * 
+     * @author Martin Pecka
+     */
+    private static class DetectionPool
+    {
+        /** The pool. */
+        static final ForkJoinPool INSTANCE = new ForkJoinPool();
+    }
+
+    @Override
+    protected List<DetectedFeature> detectFeaturesImpl(DetectionContext context)
+    {
+        return detectFeaturesImpl(context, null);
+    }
+
+    @Override
+    protected List<DetectedFeature> detectFeaturesImpl(DetectionContext context, DetectionResult prior)
+    {
+        final ComputationStrategy strategy = this.strategy; // to use the same strategy during the whole detection
+        final float[][] data = strategy.prepareData(context);
+
+        return (prior != null) ? strategy.detect(data, context, prior) : strategy.detect(data, context);
+    }
+
+    @Override
+    protected DetectedFeature detectGroundEcho(DetectionContext context, float altitude)
+    {
+        if (strategy.detectsGroundEcho())
+            return null;
+        return super.detectGroundEcho(context, altitude);
+    }
+
+    /**
+     * Set the computation strategy.
+     * 
+     * @param strategy The strategy to use.
+     */
+    public void setStrategy(ComputationStrategy strategy)
+    {
+        this.strategy = strategy;
+    }
+
+    /**
+     * @return The computation strategy.
+     */
+    public ComputationStrategy getStrategy()
+    {
+        return strategy;
+    }
+
+    /**
+     * Test the detector on the given ionogram.
+     * 
+     * @param args 0 =&gt; Orbit file, 1 =&gt; position of the ionogram in the file.
+     * 
+     * @throws IOException On IO exception.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        final File orbitFile = new File(args[0]);
+        final int position = Integer.parseInt(args[1]);
+
+        final Ionogram ionogram = new EvenlySampledIonogram(new AISLBLProductReader().readFile(orbitFile)[position]);
+        System.out.println(new VectorizationDetector().detectFeatures(ionogram));
+    }
+
+}
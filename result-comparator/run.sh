@@ -1,2 +1,2 @@
-#!/bin/bash
-mvn -e exec:java -Dexec.mainClass="cz.cuni.mff.peckam.ais.ResultComparator" -Dexec.classpathScope=runtime -Dexec.args="../../data/ _SUM_FITTING _SUM_PERIODOGRAM 3863 4000"
+#!/bin/bash
+mvn -e exec:java -Dexec.mainClass="cz.cuni.mff.peckam.ais.ResultComparator" -Dexec.classpathScope=runtime -Dexec.args="../../data/ _SUM_FITTING _SUM_PERIODOGRAM 3863 4000"
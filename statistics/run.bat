@@ -1,3 +1,3 @@
-mvn -e exec:java -Dexec.mainClass="cz.cuni.mff.peckam.ais.statistics.IonogramStatistics" -Dexec.classpathScope=runtime -Dexec.args="D:\Programovn\Java\Diplomka\Dokumenty\data 3836 5134"
-
-pause
+mvn -e exec:java -Dexec.mainClass="cz.cuni.mff.peckam.ais.statistics.IonogramStatistics" -Dexec.classpathScope=runtime -Dexec.args="D:\Programovn\Java\Diplomka\Dokumenty\data 3836 5134"
+
+pause
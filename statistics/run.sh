@@ -1,2 +1,2 @@
-#!/bin/bash
-mvn -e exec:java -Dexec.mainClass="cz.cuni.mff.peckam.ais.statistics.IonogramStatistics" -Dexec.classpathScope=runtime -Dexec.args="D:\Programovn\Java\Diplomka\Dokumenty\data 3836 5134"
+#!/bin/bash
+mvn -e exec:java -Dexec.mainClass="cz.cuni.mff.peckam.ais.statistics.IonogramStatistics" -Dexec.classpathScope=runtime -Dexec.args="D:\Programovn\Java\Diplomka\Dokumenty\data 3836 5134"
@@ -1,2 +1,2 @@
-#!/bin/bash
-mvn install
+#!/bin/bash
+mvn install